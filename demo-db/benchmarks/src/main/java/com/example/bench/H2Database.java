@@ -0,0 +1,77 @@
+package com.example.bench;
+
+import com.example.jooq.GeneratedRecordMapperProvider;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.jooq.Configuration;
+import org.jooq.DSLContext;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.jooq.jpa.extensions.DefaultAnnotatedPojoMemberProvider;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Named in-memory H2 database holding the same {@code users} table the demo DAOs use.
+ * DATABASE_TO_LOWER keeps unquoted (Hibernate) and quoted (jOOQ) identifiers pointing
+ * at the same lower-case table.
+ */
+final class H2Database implements AutoCloseable {
+    private final String url;
+    // Keeps the in-memory database alive for the whole trial and backs the jOOQ DAOs
+    private final Connection connection;
+
+    H2Database(String name) throws SQLException {
+        this.url = "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE";
+        this.connection = DriverManager.getConnection(url, "sa", "");
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS users ("
+                    + "id INT PRIMARY KEY, name VARCHAR(255), age INT NOT NULL, status VARCHAR(255))");
+        }
+    }
+
+    String url() {
+        return url;
+    }
+
+    /** Configured like Main, so fetchInto(User.class) uses the build-time generated mapper. */
+    DSLContext dsl() {
+        Configuration configuration = reflectiveDsl().configuration();
+        return configuration.derive(new GeneratedRecordMapperProvider(configuration)).dsl();
+    }
+
+    /** Main's configuration before generated mappers: fetchInto reflects over the JPA-annotated members. */
+    DSLContext reflectiveDsl() {
+        return DSL.using(connection, SQLDialect.H2)
+                .configuration()
+                .derive(new DefaultAnnotatedPojoMemberProvider())
+                .dsl();
+    }
+
+    /** Same persistence unit as Main, pointed at this database. Extra properties override the defaults. */
+    EntityManagerFactory entityManagerFactory(Map<String, String> overrides) {
+        Map<String, String> props = new HashMap<>();
+        props.put("jakarta.persistence.jdbc.url", url);
+        props.put("jakarta.persistence.jdbc.user", "sa");
+        props.put("jakarta.persistence.jdbc.password", "");
+        props.put("jakarta.persistence.jdbc.driver", "org.h2.Driver");
+        props.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        props.put("hibernate.hbm2ddl.auto", "none");
+        props.putAll(overrides);
+        return Persistence.createEntityManagerFactory("my-persistence-unit", props);
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("SHUTDOWN");
+        } finally {
+            connection.close();
+        }
+    }
+}
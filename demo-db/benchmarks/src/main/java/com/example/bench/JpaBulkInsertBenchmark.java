@@ -0,0 +1,98 @@
+package com.example.bench;
+
+import com.example.dao.JpaUserDao;
+import com.example.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading {@code rows} users through JpaUserDao:
+ * <ul>
+ *   <li>{@code plain}: {@code insertUsers(list)}, no JDBC batching, one persistence context
+ *       holding every entity until commit (what Main did before)</li>
+ *   <li>{@code batched}: {@code insertUsers(list, 50, 0)} on a factory configured with
+ *       {@link JpaUserDao#batchingProperties(int)}, flush/clear every 50 entities</li>
+ *   <li>{@code batched-commit10k}: the same, committing every 10,000 entities</li>
+ * </ul>
+ * Single shot per iteration on an emptied table; compare time and gc.alloc.rate.norm.
+ *
+ * Run: java -jar target/benchmarks.jar JpaBulkInsertBenchmark
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class JpaBulkInsertBenchmark {
+    @Param({"plain", "batched", "batched-commit10k"})
+    public String mode;
+
+    @Param({"100000"})
+    public int rows;
+
+    private H2Database database;
+    private EntityManagerFactory emf;
+    private EntityManager em;
+    private JpaUserDao dao;
+    private List<User> users;
+
+    @Setup(Level.Trial)
+    public void open() throws SQLException {
+        database = new H2Database("bench_jpa_bulk_" + mode.replace('-', '_'));
+        Map<String, String> props = "plain".equals(mode)
+                ? Map.of()
+                : JpaUserDao.batchingProperties(JpaUserDao.DEFAULT_BATCH_SIZE);
+        emf = database.entityManagerFactory(props);
+        em = emf.createEntityManager();
+        dao = new JpaUserDao(em);
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyTable() {
+        em.clear();
+        dao.truncateUsers();
+        // Fresh instances: persisted ones stay attached to (or detached from) the last run
+        users = Users.range(1, rows);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clear() {
+        em.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        em.close();
+        emf.close();
+        database.close();
+    }
+
+    @Benchmark
+    public void insertUsers() {
+        switch (mode) {
+            case "plain" -> dao.insertUsers(users);
+            case "batched" -> dao.insertUsers(users, JpaUserDao.DEFAULT_BATCH_SIZE, 0);
+            case "batched-commit10k" -> dao.insertUsers(users, JpaUserDao.DEFAULT_BATCH_SIZE, 10_000);
+            default -> throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+    }
+}
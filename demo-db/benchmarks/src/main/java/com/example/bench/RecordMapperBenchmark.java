@@ -0,0 +1,71 @@
+package com.example.bench;
+
+import com.example.dao.JooqUserDao;
+import com.example.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JooqUserDao.getUsersOlderThan (a fetchInto(User.class)) with jOOQ's reflective
+ * DefaultRecordMapper over the JPA-annotated members, versus the mapper generated by
+ * {@code @GenerateRecordMapper}. Same table and query for both; only the configured
+ * RecordMapperProvider differs. age > 19 matches every row, age > 68 about 2%.
+ *
+ * Run: java -jar target/benchmarks.jar RecordMapperBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class RecordMapperBenchmark {
+    @Param({"10000"})
+    public int datasetSize;
+
+    @Param({"19", "68"})
+    public int olderThan;
+
+    private H2Database database;
+    private JooqUserDao reflective;
+    private JooqUserDao generated;
+
+    @Setup(Level.Trial)
+    public void open() throws SQLException {
+        database = new H2Database("bench_record_mapper");
+        reflective = new JooqUserDao(database.reflectiveDsl());
+        generated = new JooqUserDao(database.dsl());
+        generated.truncateUsers();
+        generated.insertUsers(Users.range(1, datasetSize));
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        database.close();
+    }
+
+    @Benchmark
+    public List<User> reflective() {
+        return reflective.getUsersOlderThan(olderThan);
+    }
+
+    @Benchmark
+    public List<User> generated() {
+        return generated.getUsersOlderThan(olderThan);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.bench;
+
+import com.example.dao.JpaUserDao;
+import com.example.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Repeated JpaUserDao reads with the second-level and query caches persistence.xml
+ * configures ({@code on}) and with both switched off ({@code off}):
+ * <ul>
+ *   <li>{@code find}: {@code getUser} cycling over {@code hotUsers} ids, which fit in the
+ *       User region</li>
+ *   <li>{@code query}: {@code getUsersOlderThan(68)}, about 2% of the table</li>
+ *   <li>{@code updateStatus}: {@code updateUserStatus}, whose em.find is what the cache saves;
+ *       each commit also rewrites the cached entry and invalidates cached query results</li>
+ * </ul>
+ * Every call gets its own EntityManager, as a request would, so only the second-level cache
+ * can serve a repeated read. (A long-lived EntityManager reading outside a transaction keeps
+ * the start time of its last transaction and sees later cache entries as too new to use.)
+ *
+ * Run: java -jar target/benchmarks.jar SecondLevelCacheBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class SecondLevelCacheBenchmark {
+    @Param({"off", "on"})
+    public String cache;
+
+    @Param({"10000"})
+    public int datasetSize;
+
+    @Param({"1000"})
+    public int hotUsers;
+
+    private H2Database database;
+    private EntityManagerFactory emf;
+    private int nextId;
+
+    @Setup(Level.Trial)
+    public void open() throws SQLException {
+        database = new H2Database("bench_l2_cache_" + cache);
+        Map<String, String> props = "on".equals(cache) ? Map.of() : JpaUserDao.noCacheProperties();
+        emf = database.entityManagerFactory(props);
+        withDao(dao -> {
+            dao.truncateUsers();
+            dao.insertUsers(Users.range(1, datasetSize), JpaUserDao.DEFAULT_BATCH_SIZE, 0);
+            return null;
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        emf.close();
+        database.close();
+    }
+
+    @Benchmark
+    public User find() {
+        return withDao(dao -> dao.getUser(nextHotId()));
+    }
+
+    @Benchmark
+    public List<User> query() {
+        return withDao(dao -> dao.getUsersOlderThan(68));
+    }
+
+    @Benchmark
+    public void updateStatus() {
+        int id = nextHotId();
+        withDao(dao -> {
+            dao.updateUserStatus(id, (id & 1) == 0 ? "ACTIVE" : "INACTIVE");
+            return null;
+        });
+    }
+
+    private <T> T withDao(Function<JpaUserDao, T> work) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return work.apply(new JpaUserDao(em));
+        } finally {
+            em.close();
+        }
+    }
+
+    private int nextHotId() {
+        nextId = nextId % hotUsers + 1;
+        return nextId;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.bench;
+
+import com.example.dao.JpaUserDao;
+import com.example.dao.StatelessUserDao;
+import com.example.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Scaling check for JpaUserDao's read paths over {@code rows} matching users (default
+ * 1,000,000): the live heap after a full GC before reading (the in-memory table alone) and
+ * at 10% and 90% of the rows visited, for {@code forEachUserOlderThan} ({@code stream})
+ * and {@code getUsersOlderThan} ({@code list}). Not a JMH benchmark: a single pass is
+ * enough to see whether retained memory grows with the row count. Exits with status 1
+ * when the streaming path grows by more than {@value #MAX_STREAM_GROWTH_MB} MB between
+ * the two points.
+ *
+ * Run: java -Xmx2g -cp target/benchmarks.jar com.example.bench.StreamingReadHeapCheck [rows] [stream,list]
+ */
+public class StreamingReadHeapCheck {
+    private static final long MAX_STREAM_GROWTH_MB = 32;
+    private static final int LOAD_CHUNK = 100_000;
+    private static final int FETCH_SIZE = 1_000;
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        String[] modes = (args.length > 1 ? args[1] : "stream,list").split(",");
+
+        boolean flat = true;
+        try (H2Database database = new H2Database("heap_check")) {
+            EntityManagerFactory emf = database.entityManagerFactory(JpaUserDao.batchingProperties(JpaUserDao.DEFAULT_BATCH_SIZE));
+            try {
+                load(new StatelessUserDao(emf.unwrap(SessionFactory.class)), rows);
+                for (String mode : modes) {
+                    Probe probe = new Probe(rows);
+                    long baseline = Probe.liveHeap();
+                    EntityManager em = emf.createEntityManager();
+                    long start = System.currentTimeMillis();
+                    try {
+                        read(new JpaUserDao(em), mode, probe);
+                    } finally {
+                        em.close();
+                    }
+                    long elapsed = System.currentTimeMillis() - start;
+                    long growth = probe.liveAt90 - probe.liveAt10;
+                    System.out.printf("%-6s rows=%d time=%dms before=%dMB live@10%%=%dMB live@90%%=%dMB growth=%dMB%n",
+                            mode, probe.seen, elapsed, mb(baseline), mb(probe.liveAt10), mb(probe.liveAt90), mb(growth));
+                    if ("stream".equals(mode) && mb(growth) > MAX_STREAM_GROWTH_MB) flat = false;
+                }
+            } finally {
+                emf.close();
+            }
+        }
+        if (!flat) {
+            System.out.println("FAILED: streaming read retained memory proportional to the rows read");
+            System.exit(1);
+        }
+    }
+
+    private static void load(StatelessUserDao dao, int rows) {
+        dao.truncateUsers();
+        for (int first = 1; first <= rows; first += LOAD_CHUNK) {
+            dao.insertUsers(Users.range(first, Math.min(LOAD_CHUNK, rows - first + 1)));
+        }
+    }
+
+    private static void read(JpaUserDao dao, String mode, Probe probe) {
+        // Users.create ages run 20..69, so every row matches
+        switch (mode) {
+            case "stream" -> dao.forEachUserOlderThan(19, FETCH_SIZE, probe);
+            case "list" -> {
+                List<User> users = dao.getUsersOlderThan(19);
+                users.forEach(probe);
+            }
+            default -> throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+    }
+
+    private static long mb(long bytes) {
+        return bytes / (1024 * 1024);
+    }
+
+    /** Counts the users it is handed and samples the live heap at 10% and 90% of {@code rows}. */
+    private static final class Probe implements Consumer<User> {
+        private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+        private final int rows;
+        long seen;
+        long liveAt10;
+        long liveAt90;
+
+        Probe(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public void accept(User user) {
+            seen++;
+            if (seen == rows / 10) liveAt10 = liveHeap();
+            if (seen == rows - rows / 10) liveAt90 = liveHeap();
+        }
+
+        static long liveHeap() {
+            MEMORY.gc();
+            return MEMORY.getHeapMemoryUsage().getUsed();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.bench;
+
+import com.example.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CRUD operations of JpaUserDao, StatelessUserDao, JooqUserDao and JooqDslUserDao against
+ * embedded H2.
+ *
+ * Every iteration starts from the same table contents (ids 1..datasetSize), so the
+ * read/update numbers do not drift as the write benchmarks grow the table.
+ * Single-threaded on purpose: the DAOs share one Connection / EntityManager.
+ *
+ * Run: java -jar target/benchmarks.jar UserDaoBenchmark
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(1)
+@State(Scope.Benchmark)
+public class UserDaoBenchmark {
+    @Param({"jpa", "stateless", "jooq", "jooq-dsl"})
+    public String dao;
+
+    @Param({"1000"})
+    public int datasetSize;
+
+    @Param({"100"})
+    public int batchSize;
+
+    private H2Database database;
+    private UserDaoDriver driver;
+    private int nextId;
+    private int updates;
+
+    @Setup(Level.Trial)
+    public void open() throws SQLException {
+        database = new H2Database("bench_" + dao.replace('-', '_'));
+        driver = UserDaoDriver.create(dao, database);
+    }
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        driver.reset(Users.range(1, datasetSize));
+        nextId = datasetSize + 1;
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        driver.close();
+        database.close();
+    }
+
+    @Benchmark
+    public void insertUser() {
+        driver.insertUser(Users.create(nextId++));
+    }
+
+    @Benchmark
+    public void insertUsers() {
+        List<User> batch = Users.range(nextId, batchSize);
+        nextId += batchSize;
+        driver.insertUsers(batch);
+    }
+
+    @Benchmark
+    public List<User> getUsersOlderThan() {
+        return driver.getUsersOlderThan(30);
+    }
+
+    @Benchmark
+    public void updateUserStatus() {
+        int id = 1 + (updates % datasetSize);
+        driver.updateUserStatus(id, (updates++ & 1) == 0 ? "Inactive" : "Active");
+    }
+
+    @Benchmark
+    public void deleteUser(Victim victim) {
+        driver.deleteUser(victim.id);
+    }
+
+    /**
+     * Inserts the row deleteUser removes. Level.Invocation adds timestamping overhead per call,
+     * which is negligible next to a database round trip but is still excluded from the score.
+     */
+    @State(Scope.Thread)
+    public static class Victim {
+        int id;
+
+        @Setup(Level.Invocation)
+        public void insert(UserDaoBenchmark bench) {
+            id = bench.nextId++;
+            bench.driver.insertUser(Users.create(id));
+        }
+    }
+}
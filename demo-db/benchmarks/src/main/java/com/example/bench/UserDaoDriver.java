@@ -0,0 +1,163 @@
+package com.example.bench;
+
+import com.example.dao.JooqDslUserDao;
+import com.example.dao.JooqUserDao;
+import com.example.dao.JpaUserDao;
+import com.example.dao.StatelessUserDao;
+import com.example.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Common face over the four demo DAOs so one benchmark class can drive all of them.
+ * Each call maps 1:1 onto the DAO method of the same name.
+ */
+interface UserDaoDriver extends AutoCloseable {
+    void insertUser(User user);
+    void insertUsers(List<User> users);
+    List<User> getUsersOlderThan(int age);
+    void updateUserStatus(int id, String status);
+    void deleteUser(int id);
+
+    /** Empties the table and loads {@code users}, leaving no state behind in the DAO. */
+    void reset(List<User> users);
+
+    @Override
+    void close();
+
+    static UserDaoDriver create(String kind, H2Database database) {
+        switch (kind) {
+            case "jpa":
+                return new Jpa(database.entityManagerFactory(Map.of()));
+            case "jooq":
+                return new Jooq(new JooqUserDao(database.dsl()));
+            case "jooq-dsl":
+                return new JooqDsl(new JooqDslUserDao(database.dsl()));
+            case "stateless":
+                return new Stateless(database.entityManagerFactory(JpaUserDao.batchingProperties(JpaUserDao.DEFAULT_BATCH_SIZE)));
+            default:
+                throw new IllegalArgumentException("Unknown dao: " + kind);
+        }
+    }
+
+    final class Jpa implements UserDaoDriver {
+        private final EntityManagerFactory emf;
+        private final EntityManager em;
+        private final JpaUserDao dao;
+
+        Jpa(EntityManagerFactory emf) {
+            this.emf = emf;
+            this.em = emf.createEntityManager();
+            this.dao = new JpaUserDao(em);
+        }
+
+        @Override public void insertUser(User user) { dao.insertUser(user); }
+        @Override public void insertUsers(List<User> users) { dao.insertUsers(users); }
+        @Override public List<User> getUsersOlderThan(int age) { return dao.getUsersOlderThan(age); }
+        @Override public void updateUserStatus(int id, String status) { dao.updateUserStatus(id, status); }
+        @Override public void deleteUser(int id) { dao.deleteUser(id); }
+
+        @Override
+        public void reset(List<User> users) {
+            // Drop entities managed by the previous iteration before their rows are truncated,
+            // and start the measurement with an empty persistence context
+            em.clear();
+            dao.truncateUsers();
+            dao.insertUsers(users);
+            em.clear();
+        }
+
+        @Override
+        public void close() {
+            em.close();
+            emf.close();
+        }
+    }
+
+    final class Jooq implements UserDaoDriver {
+        private final JooqUserDao dao;
+
+        Jooq(JooqUserDao dao) {
+            this.dao = dao;
+        }
+
+        @Override
+        public void insertUser(User user) {
+            dao.insertUser(user.getId(), user.getName(), user.getAge(), user.getStatus());
+        }
+
+        @Override public void insertUsers(List<User> users) { dao.insertUsers(users); }
+        @Override public List<User> getUsersOlderThan(int age) { return dao.getUsersOlderThan(age); }
+        @Override public void updateUserStatus(int id, String status) { dao.updateUserStatus(id, status); }
+        @Override public void deleteUser(int id) { dao.deleteUser(id); }
+
+        @Override
+        public void reset(List<User> users) {
+            dao.truncateUsers();
+            dao.insertUsers(users);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    final class JooqDsl implements UserDaoDriver {
+        private final JooqDslUserDao dao;
+
+        JooqDsl(JooqDslUserDao dao) {
+            this.dao = dao;
+        }
+
+        @Override
+        public void insertUser(User user) {
+            dao.insertUser(user.getId(), user.getName(), user.getAge(), user.getStatus());
+        }
+
+        @Override public void insertUsers(List<User> users) { dao.insertUsers(users); }
+        @Override public List<User> getUsersOlderThan(int age) { return dao.getUsersOlderThan(age); }
+        @Override public void updateUserStatus(int id, String status) { dao.updateUserStatus(id, status); }
+        @Override public void deleteUser(int id) { dao.deleteUser(id); }
+
+        @Override
+        public void reset(List<User> users) {
+            dao.truncateUsers();
+            dao.insertUsers(users);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    final class Stateless implements UserDaoDriver {
+        private final EntityManagerFactory emf;
+        private final StatelessUserDao dao;
+
+        Stateless(EntityManagerFactory emf) {
+            this.emf = emf;
+            this.dao = new StatelessUserDao(emf.unwrap(SessionFactory.class));
+        }
+
+        @Override public void insertUser(User user) { dao.insertUser(user); }
+        @Override public void insertUsers(List<User> users) { dao.insertUsers(users); }
+        @Override public List<User> getUsersOlderThan(int age) { return dao.getUsersOlderThan(age); }
+        @Override public void updateUserStatus(int id, String status) { dao.updateUserStatus(id, status); }
+        @Override public void deleteUser(int id) { dao.deleteUser(id); }
+
+        @Override
+        public void reset(List<User> users) {
+            dao.truncateUsers();
+            dao.insertUsers(users);
+        }
+
+        @Override
+        public void close() {
+            emf.close();
+        }
+    }
+}
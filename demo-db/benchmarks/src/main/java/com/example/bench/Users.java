@@ -0,0 +1,28 @@
+package com.example.bench;
+
+import com.example.entity.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Builds rows the same way Main does (name "User" + id, age 20..69, status Active). */
+final class Users {
+    private Users() {}
+
+    static User create(int id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("User" + id);
+        user.setAge(20 + (id % 50));
+        user.setStatus("Active");
+        return user;
+    }
+
+    static List<User> range(int firstId, int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int id = firstId; id < firstId + count; id++) {
+            users.add(create(id));
+        }
+        return users;
+    }
+}
@@ -1,26 +1,32 @@
 package com.example;
 
 import com.example.dao.JpaUserDao;
-import com.example.dao.JooqUserDao;
-import com.example.entity.User;
+import com.example.runner.BenchmarkOptions;
+import com.example.runner.BenchmarkReport;
+import com.example.runner.BenchmarkResult;
+import com.example.runner.BenchmarkRunner;
+import com.example.runner.UserDaoClients;
 import jakarta.persistence.*;
-import org.jooq.DSLContext;
-import org.jooq.impl.DSL;
-import org.jooq.jpa.extensions.DefaultAnnotatedPojoMemberProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
-import java.sql.Connection;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
 import java.sql.Driver;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Enumeration;
-// removed unused imports
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.List;
-import java.util.ArrayList;
 
+/**
+ * Benchmark runner over the four DAOs: warmup and measured rounds of every DAO x
+ * operation, with per-call latency percentiles. {@code -Ddb} picks the database
+ * (postgres, mysql, mssql, or h2 for an embedded in-memory one); the {@code -Dbench.*}
+ * settings are described in {@link BenchmarkOptions}.
+ */
 public class Main {
     private static final Logger log = LoggerFactory.getLogger(Main.class);
     public static void main(String[] args) throws SQLException {
@@ -30,32 +36,33 @@ public class Main {
         MDC.put("db", db);
         MDC.put("runId", runId);
     String dbUrl, dbUser, dbPassword, dbDriver, dbDialect;
-        int iterations;
-        if (db.equals("mssql")) {
+        if (db.equals("h2")) {
+            // In-memory, kept open between connections; lower-case names match jOOQ's quoted "users"
+            dbUrl = "jdbc:h2:mem:demo;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE";
+            dbUser = "sa";
+            dbPassword = "";
+            dbDriver = "org.h2.Driver";
+            dbDialect = "org.hibernate.dialect.H2Dialect";
+        } else if (db.equals("mssql")) {
             dbUrl = "jdbc:sqlserver://10.100.10.122:1433;databaseName=JwjangDB;encrypt=false;trustServerCertificate=true";
             dbUser = "sa";
             dbPassword = "jurodb_-1q2w3e4r5t";
             dbDriver = "com.microsoft.sqlserver.jdbc.SQLServerDriver";
             dbDialect = "org.hibernate.dialect.SQLServerDialect";
-            
-            iterations = 1000;
         } else if (db.equals("mysql")) {
             dbUrl = "jdbc:mysql://10.100.10.122:3306/juro";
             dbUser = "juro";
             dbPassword = "jurodb_-1q2w3e4r5t";
             dbDriver = "com.mysql.cj.jdbc.Driver";
             dbDialect = "org.hibernate.dialect.MySQLDialect";
-            
-            iterations = 1000;
         } else {
             dbUrl = "jdbc:postgresql://10.100.10.122:5432/testdb";
             dbUser = "juro";
             dbPassword = "jurodb_-1q2w3e4r5t";
             dbDriver = "org.postgresql.Driver";
             dbDialect = "org.hibernate.dialect.PostgreSQLDialect";
-            
-            iterations = 1000;
         }
+        BenchmarkOptions options = BenchmarkOptions.fromSystemProperties(args);
 
         // Create JPA properties programmatically
         Map<String, String> jpaProps = new HashMap<>();
@@ -65,90 +72,42 @@ public class Main {
         jpaProps.put("jakarta.persistence.jdbc.driver", dbDriver);
         jpaProps.put("hibernate.dialect", dbDialect);
         jpaProps.put("hibernate.hbm2ddl.auto", "update");
+        // Without these every persisted entity is its own INSERT round trip
+        jpaProps.putAll(JpaUserDao.batchingProperties(JpaUserDao.DEFAULT_BATCH_SIZE));
+        // Otherwise repeated selects and finds are served from the caches, not the database
+        if (!options.jpaCache()) jpaProps.putAll(JpaUserDao.noCacheProperties());
+        // One pooled connection per worker thread, plus one for the round setup
+        jpaProps.put("hibernate.connection.pool_size", String.valueOf(Math.max(20, options.threads() + 1)));
 
         EntityManagerFactory emf = Persistence.createEntityManagerFactory("my-persistence-unit", jpaProps);
-        EntityManager em = emf.createEntityManager();
-        JpaUserDao jpaDao = new JpaUserDao(em);
-
-        // Truncate tables to start fresh
-        jpaDao.truncateUsers();
-
-        long start, end;
-
-        start = System.currentTimeMillis();
-        for (int i = 1001; i <= 1000 + iterations; i++) {
-            User user = new User();
-            user.setId(i);
-            user.setName("User" + i);
-            user.setAge(20 + (i % 50));
-            user.setStatus("Active");
-            jpaDao.insertUser(user);
+        List<BenchmarkResult> results;
+        try {
+            results = new BenchmarkRunner(options, new UserDaoClients(emf, dbUrl, dbUser, dbPassword)).run();
+        } finally {
+            emf.close();
         }
-        end = System.currentTimeMillis();
-        System.out.println("JPA INSERT: " + (end - start) + "ms");
-
-        // Use generated jOOQ classes (codegen) via JooqUserDao
-        try (Connection conn = DriverManager.getConnection(dbUrl, dbUser, dbPassword)) {
-            DSLContext create = DSL.using(conn)
-                    .configuration()
-                    .derive(new DefaultAnnotatedPojoMemberProvider())
-                    .dsl();
-            JooqUserDao jooqDao = new JooqUserDao(create);
 
-            jooqDao.truncateUsers();
-
-            start = System.currentTimeMillis();
-            for (int i = 2001; i <= 2000 + iterations; i++) {
-                jooqDao.insertUser(i, "User" + i, 20 + (i % 50), "Active");
-            }
-            end = System.currentTimeMillis();
-            System.out.println("jOOQ INSERT: " + (end - start) + "ms");
-
-            // JPA List Insert Benchmark
-            List<User> jpaUserList = new ArrayList<>();
-            for (int i = 3001; i <= 3000 + iterations; i++) {
-                User user = new User();
-                user.setId(i);
-                user.setName("User" + i);
-                user.setAge(20 + (i % 50));
-                user.setStatus("Active");
-                jpaUserList.add(user);
-            }
-            start = System.currentTimeMillis();
-            jpaDao.insertUsers(jpaUserList);
-            end = System.currentTimeMillis();
-            System.out.println("JPA LIST INSERT: " + (end - start) + "ms");
-
-            // jOOQ List Insert Benchmark
-            List<User> jooqUserList = new ArrayList<>();
-            for (int i = 4001; i <= 4000 + iterations; i++) {
-                User user = new User();
-                user.setId(i);
-                user.setName("User" + i);
-                user.setAge(20 + (i % 50));
-                user.setStatus("Active");
-                jooqUserList.add(user);
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("db", db);
+        settings.put("runId", runId);
+        settings.put("warmupRounds", options.warmupRounds());
+        settings.put("measuredRounds", options.measuredRounds());
+        settings.put("datasetSize", options.datasetSize());
+        settings.put("threads", options.threads());
+        settings.put("batchSize", options.batchSize());
+        settings.put("queries", options.queries());
+        settings.put("jpaCache", options.jpaCache());
+        if (options.output().isEmpty()) {
+            BenchmarkReport.write(options.format(), settings, results, System.out);
+        } else {
+            try (PrintStream out = new PrintStream(options.output())) {
+                BenchmarkReport.write(options.format(), settings, results, out);
+            } catch (FileNotFoundException e) {
+                throw new RuntimeException("Error writing " + options.output(), e);
             }
-            start = System.currentTimeMillis();
-            jooqDao.insertUsers(jooqUserList);
-            end = System.currentTimeMillis();
-            System.out.println("jOOQ LIST INSERT: " + (end - start) + "ms");
-
-            start = System.currentTimeMillis();
-            List<User> jpaUsers = jpaDao.getUsersOlderThan(30);
-            end = System.currentTimeMillis();
-            System.out.println("JPA SELECT: " + (end - start) + "ms, count=" + jpaUsers.size());
-
-            start = System.currentTimeMillis();
-            List<User> jooqUsers = jooqDao.getUsersOlderThan(30);
-            end = System.currentTimeMillis();
-            System.out.println("jOOQ SELECT: " + (end - start) + "ms, count=" + jooqUsers.size());
+            log.info("[bench] report written to {}", options.output());
         }
 
-        // Close JPA resources
-        em.close();
-        emf.close();
-
         // Register a shutdown hook to ensure cleanup runs even if JVM is terminated abruptly
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             log.info("[shutdown-hook] starting cleanup, db={}", db);
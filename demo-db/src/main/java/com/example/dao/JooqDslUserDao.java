@@ -55,4 +55,17 @@ public class JooqDslUserDao {
         }
         return out;
     }
+
+    public void updateUserStatus(int id, String status) {
+        dsl.update(DSL.table("users"))
+           .set(DSL.field("status"), status)
+           .where(DSL.field("id").eq(id))
+           .execute();
+    }
+
+    public void deleteUser(int id) {
+        dsl.deleteFrom(DSL.table("users"))
+           .where(DSL.field("id").eq(id))
+           .execute();
+    }
 }
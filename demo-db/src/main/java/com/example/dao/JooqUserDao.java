@@ -1,8 +1,9 @@
 package com.example.dao;
 
 import com.example.entity.User;
+import com.example.jooq.QueryTemplate;
+import org.jooq.BatchBindStep;
 import org.jooq.DSLContext;
-import org.jooq.Query;
 import org.jooq.Table;
 import org.jooq.Field;
 import org.jooq.impl.DSL;
@@ -17,6 +18,11 @@ public class JooqUserDao {
     private final Field<Integer> ageField;
     private final Field<String> statusField;
 
+    // Statements rendered once with placeholders; each call only binds new values
+    private final QueryTemplate insertTemplate;
+    private final QueryTemplate updateStatusTemplate;
+    private final QueryTemplate deleteTemplate;
+
     public JooqUserDao(DSLContext create) {
         this.create = create;
         // Use unqualified names so the connection's default schema is used
@@ -25,21 +31,27 @@ public class JooqUserDao {
         this.nameField = DSL.field(DSL.name("name"), String.class);
         this.ageField = DSL.field(DSL.name("age"), Integer.class);
         this.statusField = DSL.field(DSL.name("status"), String.class);
+        this.insertTemplate = new QueryTemplate(create, create.insertInto(usersTable, idField, nameField, ageField, statusField)
+                .values((Integer) null, (String) null, (Integer) null, (String) null));
+        this.updateStatusTemplate = new QueryTemplate(create, create.update(usersTable)
+                .set(statusField, (String) null)
+                .where(idField.eq(DSL.val(null, idField))));
+        this.deleteTemplate = new QueryTemplate(create, create.deleteFrom(usersTable)
+                .where(idField.eq(DSL.val(null, idField))));
     }
 
     public void insertUser(int id, String name, int age, String status) {
-        create.insertInto(usersTable, idField, nameField, ageField, statusField)
-              .values(id, name, age, status)
-              .execute();
+        insertTemplate.execute(id, name, age, status);
     }
 
     public void insertUsers(List<User> users) {
-        // Create an array of queries and execute as a batch
-        Query[] inserts = users.stream()
-                .map(u -> create.insertInto(usersTable, idField, nameField, ageField, statusField)
-                        .values(u.getId(), u.getName(), u.getAge(), u.getStatus()))
-                .toArray(Query[]::new);
-        create.batch(inserts).execute();
+        if (users.isEmpty()) return;
+        // One statement rendered once, with a row of bind values per user
+        BatchBindStep batch = insertTemplate.batch();
+        for (User u : users) {
+            batch.bind(u.getId(), u.getName(), u.getAge(), u.getStatus());
+        }
+        batch.execute();
     }
 
     public void truncateUsers() {
@@ -54,15 +66,10 @@ public class JooqUserDao {
     }
 
     public void updateUserStatus(int id, String status) {
-        create.update(usersTable)
-              .set(statusField, status)
-              .where(idField.eq(id))
-              .execute();
+        updateStatusTemplate.execute(status, id);
     }
 
     public void deleteUser(int id) {
-        create.deleteFrom(usersTable)
-              .where(idField.eq(id))
-              .execute();
+        deleteTemplate.execute(id);
     }
 }
\ No newline at end of file
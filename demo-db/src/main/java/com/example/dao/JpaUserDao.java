@@ -1,10 +1,48 @@
 package com.example.dao;
 
 import com.example.entity.User;
+import jakarta.persistence.CacheStoreMode;
 import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class JpaUserDao {
+    /** Entities per JDBC batch and per flush/clear in {@link #insertUsers(List, int, int)}. */
+    public static final int DEFAULT_BATCH_SIZE = 50;
+
+    /**
+     * Factory-wide JDBC batching for every session, to pass to
+     * {@code Persistence.createEntityManagerFactory}. order_inserts/order_updates keep
+     * statements for the same table together so batches are not cut short.
+     */
+    public static Map<String, String> batchingProperties(int batchSize) {
+        Map<String, String> props = new HashMap<>();
+        props.put("hibernate.jdbc.batch_size", String.valueOf(batchSize));
+        props.put("hibernate.order_inserts", "true");
+        props.put("hibernate.order_updates", "true");
+        return props;
+    }
+
+    /**
+     * Overrides for {@code Persistence.createEntityManagerFactory} that switch off the
+     * second-level and query caches persistence.xml enables.
+     */
+    public static Map<String, String> noCacheProperties() {
+        Map<String, String> props = new HashMap<>();
+        props.put("hibernate.cache.use_second_level_cache", "false");
+        props.put("hibernate.cache.use_query_cache", "false");
+        return props;
+    }
+
     private final EntityManager em;
 
     public JpaUserDao(EntityManager em) { this.em = em; }
@@ -23,18 +61,119 @@ public class JpaUserDao {
         em.getTransaction().commit();
     }
 
+    /**
+     * Bulk variant of {@link #insertUsers(List)}: sends the INSERTs as JDBC batches of
+     * {@code batchSize}, flushing and clearing the persistence context after each batch so
+     * memory does not grow with the list, and commits every {@code commitInterval}
+     * entities (0 = one transaction for the whole list).
+     *
+     * The inserted users are detached afterwards. An exception rolls back only the
+     * transaction in progress; chunks committed before it stay in the table. The users are
+     * not put in the second-level cache, so a bulk load does not evict the entries already there.
+     */
+    public void insertUsers(List<User> users, int batchSize, int commitInterval) {
+        if (batchSize <= 0) throw new IllegalArgumentException("batchSize must be positive");
+        if (commitInterval < 0) throw new IllegalArgumentException("commitInterval must not be negative");
+        Session session = em.unwrap(Session.class);
+        Integer previousBatchSize = session.getJdbcBatchSize();
+        CacheMode previousCacheMode = session.getCacheMode();
+        // Applies even when the EntityManagerFactory was created without hibernate.jdbc.batch_size
+        session.setJdbcBatchSize(batchSize);
+        session.setCacheMode(CacheMode.IGNORE);
+        try {
+            em.getTransaction().begin();
+            int count = 0;
+            for (User user : users) {
+                em.persist(user);
+                count++;
+                if (count % batchSize == 0) {
+                    em.flush();
+                    em.clear();
+                }
+                if (commitInterval > 0 && count % commitInterval == 0) {
+                    em.getTransaction().commit();
+                    em.clear();
+                    em.getTransaction().begin();
+                }
+            }
+            em.getTransaction().commit();
+            em.clear();
+        } catch (RuntimeException e) {
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            em.clear();
+            throw e;
+        } finally {
+            session.setJdbcBatchSize(previousBatchSize);
+            session.setCacheMode(previousCacheMode);
+        }
+    }
+
     public void truncateUsers() {
         em.getTransaction().begin();
         em.createNativeQuery("TRUNCATE TABLE users").executeUpdate();
         em.getTransaction().commit();
     }
 
+    /**
+     * Served from the second-level cache when it holds the user, without a SELECT. Outside a
+     * transaction the EntityManager only trusts entries cached before its last transaction
+     * (or its creation), so the cache pays off with an EntityManager per unit of work.
+     */
+    public User getUser(int id) {
+        return em.find(User.class, id);
+    }
+
+    /**
+     * Cacheable query: with the query cache on, repeated calls for the same age read the
+     * matching ids from it (and the users from the entity cache) until a write to
+     * {@code users} invalidates the result.
+     */
     public List<User> getUsersOlderThan(int age) {
         return em.createQuery("SELECT u FROM User u WHERE u.age > :age", User.class)
                  .setParameter("age", age)
+                 .setHint(HibernateHints.HINT_CACHEABLE, true)
                  .getResultList();
     }
 
+    /**
+     * Streaming counterpart of {@link #getUsersOlderThan(int)} for large results: reads
+     * through {@code getResultStream()} {@code fetchSize} rows at a time and hands each user
+     * to {@code action}, then forgets it. The users are loaded read-only, so no snapshot is
+     * kept for dirty checking, are detached before {@code action} sees them, and are not
+     * put in the second-level cache, so memory stays flat however many rows match.
+     * Returns the number of users visited.
+     *
+     * Runs in a transaction of its own unless one is active: drivers such as PostgreSQL's
+     * only honour the fetch size with auto-commit off and read everything at once otherwise.
+     */
+    public long forEachUserOlderThan(int age, int fetchSize, Consumer<User> action) {
+        if (fetchSize <= 0) throw new IllegalArgumentException("fetchSize must be positive");
+        boolean ownTransaction = !em.getTransaction().isActive();
+        if (ownTransaction) em.getTransaction().begin();
+        try {
+            long count = 0;
+            try (Stream<User> users = em.createQuery("SELECT u FROM User u WHERE u.age > :age", User.class)
+                    .setParameter("age", age)
+                    .setHint(HibernateHints.HINT_READ_ONLY, true)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                    .setHint(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS)
+                    .getResultStream()) {
+                Iterator<User> it = users.iterator();
+                while (it.hasNext()) {
+                    User user = it.next();
+                    em.detach(user);
+                    action.accept(user);
+                    count++;
+                }
+            }
+            if (ownTransaction) em.getTransaction().commit();
+            return count;
+        } catch (RuntimeException e) {
+            if (ownTransaction && em.getTransaction().isActive()) em.getTransaction().rollback();
+            throw e;
+        }
+    }
+
     public void updateUserStatus(int id, String status) {
         em.getTransaction().begin();
         User user = em.find(User.class, id);
@@ -0,0 +1,121 @@
+package com.example.dao;
+
+import com.example.entity.User;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * User DAO on Hibernate's {@link StatelessSession}, for ETL-style work over the same
+ * {@link User} entity as {@link JpaUserDao}. There is no persistence context: every call
+ * goes straight to SQL, nothing is cached or dirty-checked, and returned users are
+ * detached. Each method runs in its own short-lived session and transaction.
+ *
+ * The second-level cache is bypassed too. The HQL updates and deletes invalidate cached
+ * users, but {@link #updateUser(User)} does not, so a JpaUserDao on the same factory can
+ * keep reading the old row from the cache.
+ */
+public class StatelessUserDao {
+    private final SessionFactory sessionFactory;
+    private final int batchSize;
+
+    /** Get the SessionFactory with {@code emf.unwrap(SessionFactory.class)}. */
+    public StatelessUserDao(SessionFactory sessionFactory) {
+        this(sessionFactory, JpaUserDao.DEFAULT_BATCH_SIZE);
+    }
+
+    /** @param batchSize JDBC batch size for {@link #insertUsers(List)} */
+    public StatelessUserDao(SessionFactory sessionFactory, int batchSize) {
+        if (batchSize <= 0) throw new IllegalArgumentException("batchSize must be positive");
+        this.sessionFactory = sessionFactory;
+        this.batchSize = batchSize;
+    }
+
+    public void insertUser(User user) {
+        inTransaction(session -> session.insert(user));
+    }
+
+    /** One transaction, INSERTs sent in JDBC batches of {@code batchSize}. */
+    public void insertUsers(List<User> users) {
+        inTransaction(session -> {
+            session.setJdbcBatchSize(batchSize);
+            for (User user : users) {
+                session.insert(user);
+            }
+            return null;
+        });
+    }
+
+    /** Writes every column of {@code user} back to its row; there is no dirty checking. */
+    public void updateUser(User user) {
+        inTransaction(session -> {
+            session.update(user);
+            return null;
+        });
+    }
+
+    public void updateUserStatus(int id, String status) {
+        inTransaction(session -> session.createMutationQuery("UPDATE User u SET u.status = :status WHERE u.id = :id")
+                .setParameter("status", status)
+                .setParameter("id", id)
+                .executeUpdate());
+    }
+
+    public void deleteUser(int id) {
+        inTransaction(session -> session.createMutationQuery("DELETE FROM User u WHERE u.id = :id")
+                .setParameter("id", id)
+                .executeUpdate());
+    }
+
+    public void truncateUsers() {
+        inTransaction(session -> session.createNativeMutationQuery("TRUNCATE TABLE users").executeUpdate());
+    }
+
+    public List<User> getUsersOlderThan(int age) {
+        return inTransaction(session -> session.createQuery("SELECT u FROM User u WHERE u.age > :age", User.class)
+                .setParameter("age", age)
+                .getResultList());
+    }
+
+    /**
+     * Hands every user older than {@code age} to {@code action} through a forward-only
+     * cursor reading {@code fetchSize} rows at a time; nothing is retained, so memory stays
+     * flat regardless of the number of rows. Returns the number of users visited.
+     */
+    public long forEachUserOlderThan(int age, int fetchSize, Consumer<User> action) {
+        return inTransaction(session -> {
+            long count = 0;
+            try (ScrollableResults<User> users = session
+                    .createQuery("SELECT u FROM User u WHERE u.age > :age", User.class)
+                    .setParameter("age", age)
+                    .setFetchSize(fetchSize)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+                while (users.next()) {
+                    action.accept(users.get());
+                    count++;
+                }
+            }
+            return count;
+        });
+    }
+
+    private <T> T inTransaction(Function<StatelessSession, T> work) {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Transaction tx = session.beginTransaction();
+            try {
+                T result = work.apply(session);
+                tx.commit();
+                return result;
+            } catch (RuntimeException e) {
+                if (tx.isActive()) tx.rollback();
+                throw e;
+            }
+        }
+    }
+}
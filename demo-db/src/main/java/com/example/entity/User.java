@@ -1,8 +1,14 @@
 package com.example.entity;
 
+import com.example.jooq.GenerateRecordMapper;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@GenerateRecordMapper
 @Table(name = "users")
 public class User {
     @Id
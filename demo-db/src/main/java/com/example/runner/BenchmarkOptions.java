@@ -0,0 +1,74 @@
+package com.example.runner;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runner settings, read from {@code -Dbench.*} system properties like {@code -Ddb}:
+ * <ul>
+ *   <li>{@code bench.daos}: comma separated, default {@code jpa,stateless,jooq,jooq-dsl}</li>
+ *   <li>{@code bench.ops}: comma separated {@link Operation} labels, default all</li>
+ *   <li>{@code bench.warmup} / {@code bench.rounds}: rounds discarded / measured, default 2 / 5</li>
+ *   <li>{@code bench.dataset}: rows per round, default 1000</li>
+ *   <li>{@code bench.threads}: worker threads, each with its own DAO client, default 1</li>
+ *   <li>{@code bench.batch}: rows per insertUsers call in {@code insert-list}, default 100</li>
+ *   <li>{@code bench.queries}: queries per round in {@code select} and {@code stream}, default 20</li>
+ *   <li>{@code bench.format}: {@code text}, {@code json} or {@code csv}, default text</li>
+ *   <li>{@code bench.out}: report file, default standard output</li>
+ *   <li>{@code bench.jpaCache}: keep the JPA second-level and query caches persistence.xml
+ *       enables, default false so every DAO goes to the database; {@code --jpa-cache} on the
+ *       command line does the same</li>
+ * </ul>
+ */
+public record BenchmarkOptions(List<String> daos,
+                               List<Operation> operations,
+                               int warmupRounds,
+                               int measuredRounds,
+                               int datasetSize,
+                               int threads,
+                               int batchSize,
+                               int queries,
+                               String format,
+                               String output,
+                               boolean jpaCache) {
+
+    public BenchmarkOptions {
+        if (daos.isEmpty()) throw new IllegalArgumentException("bench.daos must not be empty");
+        if (operations.isEmpty()) throw new IllegalArgumentException("bench.ops must not be empty");
+        if (warmupRounds < 0) throw new IllegalArgumentException("bench.warmup must not be negative");
+        if (measuredRounds <= 0) throw new IllegalArgumentException("bench.rounds must be positive");
+        if (datasetSize <= 0) throw new IllegalArgumentException("bench.dataset must be positive");
+        if (threads <= 0) throw new IllegalArgumentException("bench.threads must be positive");
+        if (batchSize <= 0) throw new IllegalArgumentException("bench.batch must be positive");
+        if (queries <= 0) throw new IllegalArgumentException("bench.queries must be positive");
+        if (!List.of("text", "json", "csv").contains(format)) throw new IllegalArgumentException("Unknown bench.format: " + format);
+    }
+
+    public static BenchmarkOptions fromSystemProperties() {
+        return fromSystemProperties(new String[0]);
+    }
+
+    /** The system properties, with {@code --jpa-cache} among {@code args} switching on {@code bench.jpaCache}. */
+    public static BenchmarkOptions fromSystemProperties(String[] args) {
+        String ops = System.getProperty("bench.ops");
+        return new BenchmarkOptions(
+                list(System.getProperty("bench.daos", String.join(",", UserDaoClients.DAOS))),
+                ops == null ? List.of(Operation.values()) : list(ops).stream().map(Operation::of).toList(),
+                Integer.getInteger("bench.warmup", 2),
+                Integer.getInteger("bench.rounds", 5),
+                Integer.getInteger("bench.dataset", 1000),
+                Integer.getInteger("bench.threads", 1),
+                Integer.getInteger("bench.batch", 100),
+                Integer.getInteger("bench.queries", 20),
+                System.getProperty("bench.format", "text"),
+                System.getProperty("bench.out", ""),
+                Boolean.getBoolean("bench.jpaCache") || Arrays.asList(args).contains("--jpa-cache"));
+    }
+
+    private static List<String> list(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .toList();
+    }
+}
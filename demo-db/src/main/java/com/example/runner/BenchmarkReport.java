@@ -0,0 +1,106 @@
+package com.example.runner;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes BenchmarkResults as a text table, CSV (one row per DAO x operation) or JSON
+ * (run settings plus a {@code results} array). Latencies are in microseconds.
+ */
+public final class BenchmarkReport {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p999"};
+
+    private BenchmarkReport() {}
+
+    /** {@code settings} describe the run (db, runId, dataset, ...) and go into the JSON header. */
+    public static void write(String format, Map<String, Object> settings, List<BenchmarkResult> results, PrintStream out) {
+        switch (format) {
+            case "text" -> text(results, out);
+            case "csv" -> csv(results, out);
+            case "json" -> json(settings, results, out);
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        }
+        out.flush();
+    }
+
+    private static void text(List<BenchmarkResult> results, PrintStream out) {
+        out.printf(Locale.ROOT, "%-10s %-12s %7s %9s %12s %10s %10s %10s %10s %10s %10s%n",
+                "dao", "operation", "threads", "calls", "calls/s", "mean_us", "p50_us", "p90_us", "p99_us", "p999_us", "max_us");
+        for (BenchmarkResult r : results) {
+            LatencyHistogram h = r.latencies();
+            out.printf(Locale.ROOT, "%-10s %-12s %7d %9d %12.1f %10.1f %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    r.dao(), r.operation(), r.threads(), r.operations(), r.throughput(), micros(h.mean()),
+                    micros(h.percentile(50)), micros(h.percentile(90)), micros(h.percentile(99)),
+                    micros(h.percentile(99.9)), micros(h.max()));
+        }
+    }
+
+    private static void csv(List<BenchmarkResult> results, PrintStream out) {
+        out.println("dao,operation,threads,calls,calls_per_s,mean_us,p50_us,p90_us,p99_us,p999_us,max_us");
+        for (BenchmarkResult r : results) {
+            LatencyHistogram h = r.latencies();
+            out.printf(Locale.ROOT, "%s,%s,%d,%d,%.1f,%.1f,%.1f,%.1f,%.1f,%.1f,%.1f%n",
+                    r.dao(), r.operation(), r.threads(), r.operations(), r.throughput(), micros(h.mean()),
+                    micros(h.percentile(50)), micros(h.percentile(90)), micros(h.percentile(99)),
+                    micros(h.percentile(99.9)), micros(h.max()));
+        }
+    }
+
+    private static void json(Map<String, Object> settings, List<BenchmarkResult> results, PrintStream out) {
+        StringBuilder json = new StringBuilder("{");
+        settings.forEach((key, value) -> json.append(string(key)).append(':').append(value(value)).append(','));
+        json.append("\"results\":[");
+        for (int i = 0; i < results.size(); i++) {
+            BenchmarkResult r = results.get(i);
+            LatencyHistogram h = r.latencies();
+            if (i > 0) json.append(',');
+            json.append("{\"dao\":").append(string(r.dao()))
+                .append(",\"operation\":").append(string(r.operation()))
+                .append(",\"threads\":").append(r.threads())
+                .append(",\"calls\":").append(r.operations())
+                .append(",\"callsPerSecond\":").append(number(r.throughput()))
+                .append(",\"latencyUs\":{\"mean\":").append(number(micros(h.mean())))
+                .append(",\"min\":").append(number(micros(h.min())));
+            for (int p = 0; p < PERCENTILES.length; p++) {
+                json.append(",\"").append(PERCENTILE_NAMES[p]).append("\":")
+                    .append(number(micros(h.percentile(PERCENTILES[p]))));
+            }
+            json.append(",\"max\":").append(number(micros(h.max()))).append("}}");
+        }
+        json.append("]}");
+        out.println(json);
+    }
+
+    private static double micros(double nanos) {
+        return nanos / 1000.0;
+    }
+
+    private static String value(Object value) {
+        return value instanceof Number ? value.toString() : string(String.valueOf(value));
+    }
+
+    private static String number(double value) {
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+
+    private static String string(String value) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if (c < 0x20) quoted.append(String.format("\\u%04x", (int) c));
+                    else quoted.append(c);
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
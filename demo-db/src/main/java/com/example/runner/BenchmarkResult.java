@@ -0,0 +1,15 @@
+package com.example.runner;
+
+/** Measured rounds of one DAO and operation, latencies in nanoseconds. */
+public record BenchmarkResult(String dao,
+                              String operation,
+                              int threads,
+                              long operations,
+                              long elapsedNanos,
+                              LatencyHistogram latencies) {
+
+    /** Calls per second over the measured rounds' wall-clock time. */
+    public double throughput() {
+        return elapsedNanos == 0 ? 0 : operations * 1_000_000_000.0 / elapsedNanos;
+    }
+}
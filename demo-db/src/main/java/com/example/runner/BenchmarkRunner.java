@@ -0,0 +1,207 @@
+package com.example.runner;
+
+import com.example.entity.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs every configured DAO x operation pair for the warmup rounds, then the measured
+ * rounds, timing each DAO call on its own.
+ *
+ * Before a round the table is emptied, and loaded with ids 1..dataset for the operations
+ * that read or change existing rows. The round's calls are then dealt out to the worker
+ * threads by id (or by batch / query number), each thread using its own client, and all
+ * threads start together. Only measured rounds go into the result.
+ */
+public class BenchmarkRunner {
+    private static final Logger log = LoggerFactory.getLogger(BenchmarkRunner.class);
+    private static final int OLDER_THAN = 30;
+    private static final int FETCH_SIZE = 500;
+    private static final int LOAD_CHUNK = 1000;
+
+    private final BenchmarkOptions options;
+    private final UserDaoClients clients;
+
+    public BenchmarkRunner(BenchmarkOptions options, UserDaoClients clients) {
+        this.options = options;
+        this.clients = clients;
+    }
+
+    public List<BenchmarkResult> run() {
+        List<BenchmarkResult> results = new ArrayList<>();
+        ExecutorService workers = Executors.newFixedThreadPool(options.threads());
+        try {
+            for (String dao : options.daos()) {
+                for (Operation operation : options.operations()) {
+                    if (operation == Operation.STREAM && !UserDaoClients.supportsStreaming(dao)) {
+                        log.info("[bench] {} has no streaming read; skipping {}", dao, operation.label());
+                        continue;
+                    }
+                    results.add(measure(dao, operation, workers));
+                }
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        return results;
+    }
+
+    private BenchmarkResult measure(String dao, Operation operation, ExecutorService workers) {
+        LatencyHistogram latencies = new LatencyHistogram();
+        long operations = 0;
+        long elapsedNanos = 0;
+        int rounds = options.warmupRounds() + options.measuredRounds();
+        for (int round = 0; round < rounds; round++) {
+            boolean warmup = round < options.warmupRounds();
+            prepare(dao, operation);
+            Round result = runRound(dao, operation, workers);
+            log.info("[bench] {} {} {} round {}: {} calls in {} ms", dao, operation.label(),
+                    warmup ? "warmup" : "measured", round + 1, result.latencies.count(), result.elapsedNanos / 1_000_000);
+            if (!warmup) {
+                latencies.add(result.latencies);
+                operations += result.latencies.count();
+                elapsedNanos += result.elapsedNanos;
+            }
+        }
+        return new BenchmarkResult(dao, operation.label(), options.threads(), operations, elapsedNanos, latencies);
+    }
+
+    private void prepare(String dao, Operation operation) {
+        try (UserDaoClient client = clients.open(dao)) {
+            client.truncateUsers();
+            if (!operation.needsData()) return;
+            for (int first = 1; first <= options.datasetSize(); first += LOAD_CHUNK) {
+                client.insertUsers(users(first, Math.min(LOAD_CHUNK, options.datasetSize() - first + 1)));
+            }
+        }
+    }
+
+    private Round runRound(String dao, Operation operation, ExecutorService workers) {
+        int threads = options.threads();
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<LatencyHistogram>> futures = new ArrayList<>(threads);
+        // Workers log (e.g. slow queries) under the caller's db/runId
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        for (int t = 0; t < threads; t++) {
+            int worker = t;
+            futures.add(workers.submit(() -> {
+                if (mdc != null) MDC.setContextMap(mdc);
+                try (UserDaoClient client = clients.open(dao)) {
+                    ready.countDown();
+                    start.await();
+                    return work(client, operation, worker, threads);
+                } finally {
+                    // Never leave the others waiting if opening the client failed
+                    ready.countDown();
+                    MDC.clear();
+                }
+            }));
+        }
+        try {
+            ready.await();
+            long begin = System.nanoTime();
+            start.countDown();
+            LatencyHistogram latencies = new LatencyHistogram();
+            for (Future<LatencyHistogram> future : futures) {
+                latencies.add(future.get());
+            }
+            return new Round(latencies, System.nanoTime() - begin);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error running " + dao + " " + operation.label(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Error running " + dao + " " + operation.label(), e);
+        } finally {
+            start.countDown();
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    /** Calls {@code worker}'s share (every {@code threads}-th id, batch or query) and times each one. */
+    private LatencyHistogram work(UserDaoClient client, Operation operation, int worker, int threads) {
+        LatencyHistogram latencies = new LatencyHistogram();
+        int dataset = options.datasetSize();
+        switch (operation) {
+            case INSERT -> {
+                for (int id = worker + 1; id <= dataset; id += threads) {
+                    User user = user(id);
+                    long begin = System.nanoTime();
+                    client.insertUser(user);
+                    latencies.record(System.nanoTime() - begin);
+                }
+            }
+            case INSERT_LIST -> {
+                int batch = options.batchSize();
+                for (int first = worker * batch + 1; first <= dataset; first += threads * batch) {
+                    List<User> users = users(first, Math.min(batch, dataset - first + 1));
+                    long begin = System.nanoTime();
+                    client.insertUsers(users);
+                    latencies.record(System.nanoTime() - begin);
+                }
+            }
+            case SELECT -> {
+                for (int query = worker; query < options.queries(); query += threads) {
+                    long begin = System.nanoTime();
+                    client.getUsersOlderThan(OLDER_THAN);
+                    latencies.record(System.nanoTime() - begin);
+                }
+            }
+            case STREAM -> {
+                // run() skips STREAM for DAOs whose clients are not Streaming
+                UserDaoClient.Streaming streaming = (UserDaoClient.Streaming) client;
+                for (int query = worker; query < options.queries(); query += threads) {
+                    long begin = System.nanoTime();
+                    streaming.forEachUserOlderThan(OLDER_THAN, FETCH_SIZE);
+                    latencies.record(System.nanoTime() - begin);
+                }
+            }
+            case UPDATE -> {
+                for (int id = worker + 1; id <= dataset; id += threads) {
+                    long begin = System.nanoTime();
+                    client.updateUserStatus(id, "Inactive");
+                    latencies.record(System.nanoTime() - begin);
+                }
+            }
+            case DELETE -> {
+                for (int id = worker + 1; id <= dataset; id += threads) {
+                    long begin = System.nanoTime();
+                    client.deleteUser(id);
+                    latencies.record(System.nanoTime() - begin);
+                }
+            }
+        }
+        return latencies;
+    }
+
+    // name "User" + id, age 20..69, status Active: the rows Main has always inserted
+    private static List<User> users(int firstId, int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int id = firstId; id < firstId + count; id++) {
+            users.add(user(id));
+        }
+        return users;
+    }
+
+    private static User user(int id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("User" + id);
+        user.setAge(20 + (id % 50));
+        user.setStatus("Active");
+        return user;
+    }
+
+    private record Round(LatencyHistogram latencies, long elapsedNanos) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.runner;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/** What one timed call does; see BenchmarkRunner for how a round splits them over threads. */
+public enum Operation {
+    /** insertUser, one call per id. */
+    INSERT("insert", false),
+    /** insertUsers, one call per batch of ids. */
+    INSERT_LIST("insert-list", false),
+    /** getUsersOlderThan(30), about 80% of the rows. */
+    SELECT("select", true),
+    /** forEachUserOlderThan(30), same rows without keeping them; Hibernate DAOs only. */
+    STREAM("stream", true),
+    /** updateUserStatus, one call per id. */
+    UPDATE("update", true),
+    /** deleteUser, one call per id. */
+    DELETE("delete", true);
+
+    private final String label;
+    private final boolean needsData;
+
+    Operation(String label, boolean needsData) {
+        this.label = label;
+        this.needsData = needsData;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    /** Whether the table is loaded with the dataset before each round, rather than emptied. */
+    public boolean needsData() {
+        return needsData;
+    }
+
+    public static Operation of(String label) {
+        for (Operation operation : values()) {
+            if (operation.label.equals(label)) return operation;
+        }
+        throw new IllegalArgumentException("Unknown operation: " + label + ", expected one of "
+                + Arrays.stream(values()).map(Operation::label).collect(Collectors.joining(",")));
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.runner;
+
+import com.example.dao.JooqDslUserDao;
+import com.example.dao.JooqUserDao;
+import com.example.dao.JpaUserDao;
+import com.example.dao.StatelessUserDao;
+import com.example.entity.User;
+import jakarta.persistence.EntityManager;
+import org.jooq.DSLContext;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * One worker's view of a demo DAO: each benchmark thread opens its own client, because
+ * an EntityManager or a JDBC Connection must not be shared between threads.
+ * Each call maps 1:1 onto the DAO method of the same name.
+ */
+public interface UserDaoClient extends AutoCloseable {
+    void insertUser(User user);
+    void insertUsers(List<User> users);
+    List<User> getUsersOlderThan(int age);
+    void updateUserStatus(int id, String status);
+    void deleteUser(int id);
+    void truncateUsers();
+
+    @Override
+    void close();
+
+    /** A client whose DAO has a streaming read; only the Hibernate DAOs do. */
+    interface Streaming extends UserDaoClient {
+        long forEachUserOlderThan(int age, int fetchSize);
+    }
+
+    final class Jpa implements Streaming {
+        private final EntityManager em;
+        private final JpaUserDao dao;
+
+        public Jpa(EntityManager em) {
+            this.em = em;
+            this.dao = new JpaUserDao(em);
+        }
+
+        @Override public void insertUser(User user) { dao.insertUser(user); }
+        @Override public void insertUsers(List<User> users) { dao.insertUsers(users); }
+        @Override public List<User> getUsersOlderThan(int age) { return dao.getUsersOlderThan(age); }
+        @Override public void updateUserStatus(int id, String status) { dao.updateUserStatus(id, status); }
+        @Override public void deleteUser(int id) { dao.deleteUser(id); }
+        @Override public long forEachUserOlderThan(int age, int fetchSize) { return dao.forEachUserOlderThan(age, fetchSize, user -> { }); }
+
+        @Override
+        public void truncateUsers() {
+            em.clear();
+            dao.truncateUsers();
+        }
+
+        @Override
+        public void close() {
+            em.close();
+        }
+    }
+
+    final class Stateless implements Streaming {
+        private final StatelessUserDao dao;
+
+        public Stateless(StatelessUserDao dao) {
+            this.dao = dao;
+        }
+
+        @Override public void insertUser(User user) { dao.insertUser(user); }
+        @Override public void insertUsers(List<User> users) { dao.insertUsers(users); }
+        @Override public List<User> getUsersOlderThan(int age) { return dao.getUsersOlderThan(age); }
+        @Override public void updateUserStatus(int id, String status) { dao.updateUserStatus(id, status); }
+        @Override public void deleteUser(int id) { dao.deleteUser(id); }
+        @Override public void truncateUsers() { dao.truncateUsers(); }
+        @Override public long forEachUserOlderThan(int age, int fetchSize) { return dao.forEachUserOlderThan(age, fetchSize, user -> { }); }
+
+        @Override
+        public void close() {
+            // Every StatelessUserDao call opens and closes its own session
+        }
+    }
+
+    final class Jooq implements UserDaoClient {
+        private final Connection connection;
+        private final JooqUserDao dao;
+
+        public Jooq(Connection connection, DSLContext dsl) {
+            this.connection = connection;
+            this.dao = new JooqUserDao(dsl);
+        }
+
+        @Override public void insertUser(User user) { dao.insertUser(user.getId(), user.getName(), user.getAge(), user.getStatus()); }
+        @Override public void insertUsers(List<User> users) { dao.insertUsers(users); }
+        @Override public List<User> getUsersOlderThan(int age) { return dao.getUsersOlderThan(age); }
+        @Override public void updateUserStatus(int id, String status) { dao.updateUserStatus(id, status); }
+        @Override public void deleteUser(int id) { dao.deleteUser(id); }
+        @Override public void truncateUsers() { dao.truncateUsers(); }
+
+        @Override
+        public void close() {
+            closeConnection(connection);
+        }
+    }
+
+    final class JooqDsl implements UserDaoClient {
+        private final Connection connection;
+        private final JooqDslUserDao dao;
+
+        public JooqDsl(Connection connection, DSLContext dsl) {
+            this.connection = connection;
+            this.dao = new JooqDslUserDao(dsl);
+        }
+
+        @Override public void insertUser(User user) { dao.insertUser(user.getId(), user.getName(), user.getAge(), user.getStatus()); }
+        @Override public void insertUsers(List<User> users) { dao.insertUsers(users); }
+        @Override public List<User> getUsersOlderThan(int age) { return dao.getUsersOlderThan(age); }
+        @Override public void updateUserStatus(int id, String status) { dao.updateUserStatus(id, status); }
+        @Override public void deleteUser(int id) { dao.deleteUser(id); }
+        @Override public void truncateUsers() { dao.truncateUsers(); }
+
+        @Override
+        public void close() {
+            closeConnection(connection);
+        }
+    }
+
+    private static void closeConnection(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            throw new RuntimeException("Error closing connection", e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.runner;
+
+import com.example.dao.StatelessUserDao;
+import com.example.jooq.GeneratedRecordMapperProvider;
+import com.example.jooq.SlowQueryListener;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.jooq.Configuration;
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+import org.jooq.jpa.extensions.DefaultAnnotatedPojoMemberProvider;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Opens {@link UserDaoClient}s for one database: the JPA clients share the
+ * EntityManagerFactory, the jOOQ clients each get a Connection of their own.
+ */
+public class UserDaoClients {
+    public static final List<String> DAOS = List.of("jpa", "stateless", "jooq", "jooq-dsl");
+
+    private static final Map<String, Class<? extends UserDaoClient>> TYPES = Map.of(
+            "jpa", UserDaoClient.Jpa.class,
+            "stateless", UserDaoClient.Stateless.class,
+            "jooq", UserDaoClient.Jooq.class,
+            "jooq-dsl", UserDaoClient.JooqDsl.class);
+
+    private final EntityManagerFactory emf;
+    private final StatelessUserDao statelessDao;
+    private final String url;
+    private final String user;
+    private final String password;
+
+    public UserDaoClients(EntityManagerFactory emf, String url, String user, String password) {
+        this.emf = emf;
+        this.statelessDao = new StatelessUserDao(emf.unwrap(SessionFactory.class));
+        this.url = url;
+        this.user = user;
+        this.password = password;
+    }
+
+    /** Whether {@code dao}'s clients are {@link UserDaoClient.Streaming}, without opening one. */
+    public static boolean supportsStreaming(String dao) {
+        Class<? extends UserDaoClient> type = TYPES.get(dao);
+        if (type == null) throw new IllegalArgumentException("Unknown dao: " + dao);
+        return UserDaoClient.Streaming.class.isAssignableFrom(type);
+    }
+
+    public UserDaoClient open(String dao) {
+        switch (dao) {
+            case "jpa":
+                return new UserDaoClient.Jpa(emf.createEntityManager());
+            case "stateless":
+                return new UserDaoClient.Stateless(statelessDao);
+            case "jooq": {
+                Connection connection = connect();
+                return new UserDaoClient.Jooq(connection, dsl(connection));
+            }
+            case "jooq-dsl": {
+                Connection connection = connect();
+                return new UserDaoClient.JooqDsl(connection, dsl(connection));
+            }
+            default:
+                throw new IllegalArgumentException("Unknown dao: " + dao);
+        }
+    }
+
+    /**
+     * fetchInto(User.class) uses the mapper generated at build time; other types still go
+     * through the JPA-aware reflective mapping. Statements slower than
+     * {@code -DslowQuery.thresholdMs} (default 500) are logged, with their plan when
+     * {@code -DslowQuery.explain=true}.
+     */
+    public static DSLContext dsl(Connection connection) {
+        Configuration configuration = DSL.using(connection)
+                .configuration()
+                .derive(new DefaultAnnotatedPojoMemberProvider())
+                .derive(SlowQueryListener.fromSystemProperties());
+        return configuration
+                .derive(new GeneratedRecordMapperProvider(configuration))
+                .dsl();
+    }
+
+    private Connection connect() {
+        try {
+            return DriverManager.getConnection(url, user, password);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error connecting to " + url, e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.app.load;
+
+import com.example.common.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operations that completed during one report interval of a {@link LoadGenerator} run.
+ * In open-loop mode the latencies include the time an operation waited past its due time.
+ */
+public class IntervalStats {
+    private final Duration offset;
+    private final Duration length;
+    private final boolean warmup;
+    private final long reads;
+    private final long writes;
+    private final long errors;
+    private final LatencyHistogram latency;
+
+    IntervalStats(Duration offset, Duration length, boolean warmup, long reads, long writes, long errors, LatencyHistogram latency) {
+        this.offset = offset;
+        this.length = length;
+        this.warmup = warmup;
+        this.reads = reads;
+        this.writes = writes;
+        this.errors = errors;
+        this.latency = latency;
+    }
+
+    /** Start of the interval, relative to the start of the run (warmup included). */
+    public Duration getOffset() { return offset; }
+
+    public boolean isWarmup() { return warmup; }
+
+    public long getReads() { return reads; }
+
+    public long getWrites() { return writes; }
+
+    /** Operations that threw; they are not in the latency histogram. */
+    public long getErrors() { return errors; }
+
+    /** Successful operations per second. */
+    public double getThroughput() {
+        return (reads + writes) / (length.toNanos() / 1e9);
+    }
+
+    public LatencyHistogram getLatency() { return latency; }
+
+    @Override
+    public String toString() {
+        return String.format("%6.1fs%s ops/s=%.0f reads=%d writes=%d errors=%d p50=%.1fus p90=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus",
+                offset.toMillis() / 1000.0, warmup ? " (warmup)" : "", getThroughput(), reads, writes, errors,
+                latency.getValueAtPercentile(50.0, TimeUnit.MICROSECONDS),
+                latency.getValueAtPercentile(90.0, TimeUnit.MICROSECONDS),
+                latency.getValueAtPercentile(99.0, TimeUnit.MICROSECONDS),
+                latency.getValueAtPercentile(99.9, TimeUnit.MICROSECONDS),
+                latency.getMaxNanos() / 1_000.0);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.app.load;
+
+import java.util.SplittableRandom;
+
+/**
+ * Picks which of the {@code keyCount} preloaded users an operation touches, as an index
+ * in {@code [0, keyCount)}. Implementations are immutable; the randomness comes from the
+ * caller's per-thread generator.
+ */
+public interface KeyDistribution {
+    int next(SplittableRandom random);
+
+    /** Every key equally likely. */
+    static KeyDistribution uniform(int keyCount) {
+        if (keyCount < 1) throw new IllegalArgumentException("keyCount must be >= 1");
+        return random -> random.nextInt(keyCount);
+    }
+
+    /**
+     * Zipfian with skew {@code theta} in (0, 1): key 0 is the most popular, then key 1, and
+     * so on. 0.99 (the YCSB default) sends roughly half of all operations to about 1% of the
+     * keys, approximating a hot set.
+     */
+    static KeyDistribution zipfian(int keyCount, double theta) {
+        return new Zipfian(keyCount, theta);
+    }
+
+    /**
+     * Gray et al., "Quickly generating billion-record synthetic databases" (SIGMOD '94), as
+     * used by YCSB: constant time per key after an O(keyCount) set-up.
+     */
+    final class Zipfian implements KeyDistribution {
+        private final int keyCount;
+        private final double theta;
+        private final double zetaN;
+        private final double alpha;
+        private final double eta;
+
+        Zipfian(int keyCount, double theta) {
+            if (keyCount < 1) throw new IllegalArgumentException("keyCount must be >= 1");
+            if (!(theta > 0 && theta < 1)) throw new IllegalArgumentException("theta must be in (0, 1)");
+            this.keyCount = keyCount;
+            this.theta = theta;
+            this.zetaN = zeta(keyCount, theta);
+            this.alpha = 1.0 / (1.0 - theta);
+            this.eta = (1 - Math.pow(2.0 / keyCount, 1 - theta)) / (1 - zeta(2, theta) / zetaN);
+        }
+
+        @Override
+        public int next(SplittableRandom random) {
+            double u = random.nextDouble();
+            double uz = u * zetaN;
+            if (uz < 1.0) return 0;
+            if (uz < 1.0 + Math.pow(0.5, theta)) return Math.min(1, keyCount - 1);
+            int key = (int) (keyCount * Math.pow(eta * u - eta + 1, alpha));
+            return Math.min(key, keyCount - 1);
+        }
+
+        private static double zeta(int n, double theta) {
+            double sum = 0;
+            for (int i = 1; i <= n; i++) {
+                sum += 1.0 / Math.pow(i, theta);
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.app.load;
+
+import java.time.Duration;
+
+/**
+ * Settings for {@link LoadGenerator}. Setters return {@code this}, as in PoolConfig:
+ *
+ * <pre>
+ * new LoadConfig().openLoop(2_000).readRatio(0.9).zipfian(0.99).duration(Duration.ofMinutes(1))
+ * </pre>
+ */
+public class LoadConfig {
+    /** How operations are issued. */
+    public enum Mode {
+        /**
+         * Each worker issues its next operation as soon as the previous one returns, so the
+         * offered load drops when the database slows down. Latency is service time.
+         */
+        CLOSED,
+        /**
+         * Operations are due at a constant rate whatever the response times. Latency is
+         * measured from when an operation was due, not from when a worker got to it, so time
+         * spent queued behind slow operations is counted (coordinated-omission correction).
+         */
+        OPEN
+    }
+
+    private Mode mode = Mode.CLOSED;
+    private double targetRate = 1_000;
+    private int workers = 8;
+    private double readRatio = 0.8;
+    private int keyCount = 10_000;
+    private double zipfianTheta = 0;
+    private Duration warmup = Duration.ofSeconds(5);
+    private Duration duration = Duration.ofSeconds(30);
+    private Duration reportInterval = Duration.ofSeconds(1);
+    private long seed = 42;
+
+    /** Closed loop with {@code workers} threads. */
+    public LoadConfig closedLoop() {
+        this.mode = Mode.CLOSED;
+        return this;
+    }
+
+    /**
+     * Open loop at {@code operationsPerSecond}. {@link #workers(int)} must cover the rate
+     * times the expected latency; when it does not, operations queue and it shows in the
+     * corrected latencies.
+     */
+    public LoadConfig openLoop(double operationsPerSecond) {
+        if (!(operationsPerSecond > 0)) throw new IllegalArgumentException("operationsPerSecond must be > 0");
+        this.mode = Mode.OPEN;
+        this.targetRate = operationsPerSecond;
+        return this;
+    }
+
+    /** Threads calling the DAO; each should be able to get a connection from the pool. */
+    public LoadConfig workers(int workers) {
+        if (workers < 1) throw new IllegalArgumentException("workers must be >= 1");
+        this.workers = workers;
+        return this;
+    }
+
+    /** Fraction of operations that are {@code findById}; the rest are {@code update}. */
+    public LoadConfig readRatio(double readRatio) {
+        if (readRatio < 0 || readRatio > 1) throw new IllegalArgumentException("readRatio must be within 0..1");
+        this.readRatio = readRatio;
+        return this;
+    }
+
+    /** Users inserted before the run; every operation targets one of them. */
+    public LoadConfig keyCount(int keyCount) {
+        if (keyCount < 1) throw new IllegalArgumentException("keyCount must be >= 1");
+        this.keyCount = keyCount;
+        return this;
+    }
+
+    /** Every key equally likely (the default). */
+    public LoadConfig uniform() {
+        this.zipfianTheta = 0;
+        return this;
+    }
+
+    /** Skewed keys, see {@link KeyDistribution#zipfian(int, double)}. */
+    public LoadConfig zipfian(double theta) {
+        if (!(theta > 0 && theta < 1)) throw new IllegalArgumentException("theta must be in (0, 1)");
+        this.zipfianTheta = theta;
+        return this;
+    }
+
+    /** Load applied before measuring; reported per interval but left out of the totals. */
+    public LoadConfig warmup(Duration warmup) {
+        if (warmup == null || warmup.isNegative()) throw new IllegalArgumentException("warmup must be >= 0");
+        this.warmup = warmup;
+        return this;
+    }
+
+    /** Measured time, after the warmup. */
+    public LoadConfig duration(Duration duration) {
+        this.duration = requirePositive(duration, "duration");
+        return this;
+    }
+
+    /** Length of each reported interval. */
+    public LoadConfig reportInterval(Duration reportInterval) {
+        this.reportInterval = requirePositive(reportInterval, "reportInterval");
+        return this;
+    }
+
+    /** Seed of the per-worker random generators, so runs pick the same key sequence. */
+    public LoadConfig seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public Mode getMode() { return mode; }
+    public double getTargetRate() { return targetRate; }
+    public int getWorkers() { return workers; }
+    public double getReadRatio() { return readRatio; }
+    public int getKeyCount() { return keyCount; }
+    public Duration getWarmup() { return warmup; }
+    public Duration getDuration() { return duration; }
+    public Duration getReportInterval() { return reportInterval; }
+    public long getSeed() { return seed; }
+
+    public KeyDistribution keyDistribution() {
+        return zipfianTheta > 0 ? KeyDistribution.zipfian(keyCount, zipfianTheta) : KeyDistribution.uniform(keyCount);
+    }
+
+    @Override
+    public String toString() {
+        return "LoadConfig{mode=" + mode + (mode == Mode.OPEN ? ", rate=" + targetRate + "/s" : "")
+                + ", workers=" + workers + ", readRatio=" + readRatio + ", keys=" + keyCount
+                + ", distribution=" + (zipfianTheta > 0 ? "zipfian(" + zipfianTheta + ")" : "uniform")
+                + ", warmup=" + warmup + ", duration=" + duration + "}";
+    }
+
+    private static Duration requirePositive(Duration value, String name) {
+        if (value == null || value.isNegative() || value.isZero()) {
+            throw new IllegalArgumentException(name + " must be > 0");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.app.load;
+
+import com.example.base.dao.UserDao;
+import com.example.base.entity.User;
+import com.example.common.DatabaseFactory;
+import com.example.common.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Drives a {@link UserDao} with a read/write mix from several threads and reports
+ * throughput and latency percentiles per interval.
+ *
+ * Before the run {@code keyCount} users are inserted; each operation then picks one of them
+ * through the configured {@link KeyDistribution} and either reads it ({@code findById}) or
+ * rewrites it ({@code update}). The users are deleted again afterwards.
+ *
+ * In {@link LoadConfig.Mode#OPEN open-loop} mode operation {@code n} is due at
+ * {@code start + n / rate}; workers claim operations in order, wait until they are due,
+ * and measure latency from the due time. If the database stalls, operations pile up and
+ * their latency grows by the time they waited, instead of the generator quietly issuing
+ * fewer of them (coordinated omission).
+ */
+public class LoadGenerator {
+    private static final int PRELOAD_CHUNK = 1000;
+
+    private final UserDao dao;
+    private final LoadConfig config;
+    private final Consumer<IntervalStats> listener;
+
+    public LoadGenerator(UserDao dao, LoadConfig config) {
+        this(dao, config, interval -> { });
+    }
+
+    /** {@code listener} is called with each interval shortly after it ends, from the calling thread. */
+    public LoadGenerator(UserDao dao, LoadConfig config, Consumer<IntervalStats> listener) {
+        this.dao = dao;
+        this.config = config;
+        this.listener = listener;
+    }
+
+    public LoadReport run() {
+        Long[] ids = preload();
+        try {
+            return drive(ids);
+        } finally {
+            dao.deleteAllById(Arrays.asList(ids));
+        }
+    }
+
+    private Long[] preload() {
+        Long[] ids = new Long[config.getKeyCount()];
+        for (int first = 0; first < ids.length; first += PRELOAD_CHUNK) {
+            List<User> users = new ArrayList<>();
+            for (int i = first; i < Math.min(first + PRELOAD_CHUNK, ids.length); i++) {
+                users.add(new User("load-" + i, "load-" + i + "@example.com"));
+            }
+            List<Long> saved = dao.saveAll(users);
+            for (int i = 0; i < saved.size(); i++) {
+                ids[first + i] = saved.get(i);
+            }
+        }
+        return ids;
+    }
+
+    private LoadReport drive(Long[] ids) {
+        long intervalNanos = config.getReportInterval().toNanos();
+        long warmupNanos = config.getWarmup().toNanos();
+        long runNanos = warmupNanos + config.getDuration().toNanos();
+        int intervalCount = (int) ((runNanos + intervalNanos - 1) / intervalNanos);
+        Interval[] intervals = new Interval[intervalCount];
+        for (int i = 0; i < intervalCount; i++) {
+            intervals[i] = new Interval();
+        }
+        Totals totals = new Totals();
+        KeyDistribution keys = config.keyDistribution();
+        AtomicLong nextOperation = new AtomicLong();
+        double periodNanos = 1e9 / config.getTargetRate();
+
+        // Leave the workers time to start before the first operation is due
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50);
+        long end = start + runNanos;
+        ExecutorService workers = Executors.newFixedThreadPool(config.getWorkers(),
+                Thread.ofPlatform().name("load-worker-", 0).factory());
+        try {
+            for (int w = 0; w < config.getWorkers(); w++) {
+                SplittableRandom random = new SplittableRandom(config.getSeed() + w);
+                workers.execute(() -> {
+                    LockSupport.parkNanos(start - System.nanoTime());
+                    while (true) {
+                        long due;
+                        if (config.getMode() == LoadConfig.Mode.OPEN) {
+                            due = start + (long) (nextOperation.getAndIncrement() * periodNanos);
+                            if (due >= end) return;
+                            long wait;
+                            while ((wait = due - System.nanoTime()) > 0) {
+                                LockSupport.parkNanos(wait);
+                            }
+                        } else {
+                            due = System.nanoTime();
+                            if (due >= end) return;
+                        }
+                        execute(ids[keys.next(random)], random, due, start, warmupNanos, intervalNanos, intervals, totals);
+                    }
+                });
+            }
+
+            List<IntervalStats> reported = new ArrayList<>(intervalCount);
+            for (int i = 0; i < intervalCount - 1; i++) {
+                // Operations finishing in interval i are recorded just after it ends
+                LockSupport.parkNanos(start + (i + 1) * intervalNanos + TimeUnit.MILLISECONDS.toNanos(10) - System.nanoTime());
+                reported.add(report(i, intervals[i], intervalNanos, warmupNanos));
+            }
+            workers.shutdown();
+            awaitTermination(workers);
+            // Holds everything that finished at or after the end, so it is reported last
+            reported.add(report(intervalCount - 1, intervals[intervalCount - 1], intervalNanos, warmupNanos));
+            return new LoadReport(config, reported, totals.reads, totals.writes, totals.serviceTime, totals.errors.sum());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private void execute(Long id, SplittableRandom random, long due, long start, long warmupNanos,
+                         long intervalNanos, Interval[] intervals, Totals totals) {
+        boolean read = random.nextDouble() < config.getReadRatio();
+        boolean measured = due - start >= warmupNanos;
+        long begin = System.nanoTime();
+        try {
+            if (read) {
+                dao.findById(id);
+            } else {
+                dao.update(new User(id, "load-" + random.nextInt(1_000_000), "load-" + id + "@example.com"));
+            }
+        } catch (RuntimeException e) {
+            Interval interval = intervals[intervalOf(System.nanoTime() - start, intervalNanos, intervals.length)];
+            interval.errors.increment();
+            if (measured) totals.errors.increment();
+            return;
+        }
+        long done = System.nanoTime();
+        long latency = done - due;
+        Interval interval = intervals[intervalOf(done - start, intervalNanos, intervals.length)];
+        interval.latency.record(latency);
+        (read ? interval.reads : interval.writes).increment();
+        if (measured) {
+            (read ? totals.reads : totals.writes).record(latency);
+            totals.serviceTime.record(done - begin);
+        }
+    }
+
+    private IntervalStats report(int index, Interval interval, long intervalNanos, long warmupNanos) {
+        long offset = index * intervalNanos;
+        IntervalStats stats = new IntervalStats(Duration.ofNanos(offset), Duration.ofNanos(intervalNanos),
+                offset < warmupNanos, interval.reads.sum(), interval.writes.sum(), interval.errors.sum(), interval.latency);
+        listener.accept(stats);
+        return stats;
+    }
+
+    private static int intervalOf(long elapsed, long intervalNanos, int intervalCount) {
+        return (int) Math.min(Math.max(0, elapsed / intervalNanos), intervalCount - 1);
+    }
+
+    private void awaitTermination(ExecutorService workers) {
+        try {
+            // In-flight operations finish on their own; a stuck DAO call should not hang the run
+            if (!workers.awaitTermination(config.getReportInterval().toMillis() + 60_000, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Load workers did not finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Error waiting for load workers", e);
+        }
+    }
+
+    /**
+     * Runs with {@code key=value} arguments, e.g.
+     * {@code mode=open rate=2000 workers=32 read=0.9 theta=0.99 keys=10000 warmup=5 duration=60}
+     * (times in seconds, {@code theta=0} for uniform keys). Prints each interval, then the totals.
+     *
+     * The database comes from {@code url=}, {@code user=} and {@code password=}, or the
+     * {@code DB_URL}, {@code DB_USER} and {@code DB_PASSWORD} environment variables (better
+     * for the password, which would otherwise show in the process list). {@code factory=} or
+     * {@code DB_FACTORY} names the {@link DatabaseFactory} class, by default the
+     * PostgreSQL one; its module must be on the classpath.
+     */
+    public static void main(String[] args) {
+        LoadConfig config = new LoadConfig();
+        String url = System.getenv("DB_URL");
+        String user = System.getenv("DB_USER");
+        String password = System.getenv("DB_PASSWORD");
+        String factoryClass = System.getenv().getOrDefault("DB_FACTORY", "com.example.entity.PostgreSQLFactory");
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) throw new IllegalArgumentException("Expected key=value: " + arg);
+            String value = arg.substring(eq + 1);
+            switch (arg.substring(0, eq)) {
+                case "url" -> url = value;
+                case "user" -> user = value;
+                case "password" -> password = value;
+                case "factory" -> factoryClass = value;
+                case "mode" -> {
+                    if (value.equals("closed")) config.closedLoop();
+                    else if (value.equals("open")) config.openLoop(config.getTargetRate());
+                    else throw new IllegalArgumentException("mode must be open or closed");
+                }
+                case "rate" -> config.openLoop(Double.parseDouble(value));
+                case "workers" -> config.workers(Integer.parseInt(value));
+                case "read" -> config.readRatio(Double.parseDouble(value));
+                case "keys" -> config.keyCount(Integer.parseInt(value));
+                case "theta" -> {
+                    double theta = Double.parseDouble(value);
+                    if (theta == 0) config.uniform();
+                    else config.zipfian(theta);
+                }
+                case "warmup" -> config.warmup(Duration.ofSeconds(Long.parseLong(value)));
+                case "duration" -> config.duration(Duration.ofSeconds(Long.parseLong(value)));
+                case "seed" -> config.seed(Long.parseLong(value));
+                default -> throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+
+        if (url == null) throw new IllegalArgumentException("No database: pass url=... or set DB_URL");
+        DatabaseFactory factory = newFactory(factoryClass);
+        factory.createDatabaseConnection(url, user, password);
+        System.out.println(config);
+        LoadReport report = new LoadGenerator(factory.createUserDao(), config, System.out::println).run();
+        report.print(System.out);
+    }
+
+    private static DatabaseFactory newFactory(String className) {
+        try {
+            return Class.forName(className).asSubclass(DatabaseFactory.class).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalArgumentException("Not a DatabaseFactory on the classpath: " + className, e);
+        }
+    }
+
+    private static final class Interval {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder reads = new LongAdder();
+        final LongAdder writes = new LongAdder();
+        final LongAdder errors = new LongAdder();
+    }
+
+    private static final class Totals {
+        final LatencyHistogram reads = new LatencyHistogram();
+        final LatencyHistogram writes = new LatencyHistogram();
+        final LatencyHistogram serviceTime = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+    }
+}
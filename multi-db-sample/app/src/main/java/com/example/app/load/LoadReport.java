@@ -0,0 +1,71 @@
+package com.example.app.load;
+
+import com.example.common.LatencyHistogram;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of a {@link LoadGenerator} run: every report interval, plus totals over the
+ * measured part (warmup excluded).
+ *
+ * {@link #getReadLatency()} and {@link #getWriteLatency()} are response times: in open-loop
+ * mode they run from the time an operation was due. {@link #getServiceTime()} only covers
+ * the DAO call itself, which is what a closed loop (or an uncorrected open loop) would
+ * report; the gap between the two is the queueing the load generator would otherwise hide.
+ */
+public class LoadReport {
+    private final LoadConfig config;
+    private final List<IntervalStats> intervals;
+    private final LatencyHistogram readLatency;
+    private final LatencyHistogram writeLatency;
+    private final LatencyHistogram serviceTime;
+    private final long errors;
+
+    LoadReport(LoadConfig config, List<IntervalStats> intervals, LatencyHistogram readLatency,
+               LatencyHistogram writeLatency, LatencyHistogram serviceTime, long errors) {
+        this.config = config;
+        this.intervals = List.copyOf(intervals);
+        this.readLatency = readLatency;
+        this.writeLatency = writeLatency;
+        this.serviceTime = serviceTime;
+        this.errors = errors;
+    }
+
+    public LoadConfig getConfig() { return config; }
+    public List<IntervalStats> getIntervals() { return intervals; }
+    public LatencyHistogram getReadLatency() { return readLatency; }
+    public LatencyHistogram getWriteLatency() { return writeLatency; }
+    public LatencyHistogram getServiceTime() { return serviceTime; }
+
+    /** Measured operations that threw. */
+    public long getErrors() { return errors; }
+
+    public long getOperations() {
+        return readLatency.getCount() + writeLatency.getCount();
+    }
+
+    /** Successful operations per second over the measured duration. */
+    public double getThroughput() {
+        return getOperations() / (config.getDuration().toNanos() / 1e9);
+    }
+
+    public void print(PrintStream out) {
+        out.println(config);
+        out.printf("throughput: %.0f ops/s (%d ops, %d errors)%n", getThroughput(), getOperations(), errors);
+        print(out, "read", readLatency);
+        print(out, "write", writeLatency);
+        print(out, "service", serviceTime);
+    }
+
+    private static void print(PrintStream out, String name, LatencyHistogram h) {
+        out.printf("%-8s count=%d mean=%.1fus p50=%.1fus p90=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus%n",
+                name, h.getCount(), h.getMeanNanos() / 1_000.0,
+                h.getValueAtPercentile(50.0, TimeUnit.MICROSECONDS),
+                h.getValueAtPercentile(90.0, TimeUnit.MICROSECONDS),
+                h.getValueAtPercentile(99.0, TimeUnit.MICROSECONDS),
+                h.getValueAtPercentile(99.9, TimeUnit.MICROSECONDS),
+                h.getMaxNanos() / 1_000.0);
+    }
+}
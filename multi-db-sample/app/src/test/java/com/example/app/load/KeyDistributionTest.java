@@ -0,0 +1,66 @@
+package com.example.app.load;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KeyDistributionTest {
+    private static final int SAMPLES = 200_000;
+
+    @Test
+    void zipfianStaysInRangeAndFavoursTheFirstKeys() {
+        int keyCount = 10_000;
+        int[] counts = sample(KeyDistribution.zipfian(keyCount, 0.99), keyCount);
+
+        // Key 0 is the most popular and popularity falls with the key
+        for (int key = 1; key < keyCount; key++) {
+            assertTrue(counts[0] >= counts[key], "key " + key + " more popular than key 0");
+        }
+        assertTrue(counts[0] > counts[1] && counts[1] > counts[10] && counts[10] > counts[1_000]);
+        // The hottest 1% of the keys get roughly half of the operations
+        long hot = 0;
+        for (int key = 0; key < keyCount / 100; key++) {
+            hot += counts[key];
+        }
+        assertTrue(hot > SAMPLES * 0.45, "hot set got " + hot + " of " + SAMPLES);
+    }
+
+    @Test
+    void zipfianWithOneKeyAlwaysPicksIt() {
+        int[] counts = sample(KeyDistribution.zipfian(1, 0.99), 1);
+        assertEquals(SAMPLES, counts[0]);
+    }
+
+    @Test
+    void uniformIsFlat() {
+        int keyCount = 20;
+        int[] counts = sample(KeyDistribution.uniform(keyCount), keyCount);
+
+        double expected = (double) SAMPLES / keyCount;
+        for (int key = 0; key < keyCount; key++) {
+            assertEquals(expected, counts[key], expected * 0.05, "key " + key);
+        }
+    }
+
+    @Test
+    void rejectsInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> KeyDistribution.uniform(0));
+        assertThrows(IllegalArgumentException.class, () -> KeyDistribution.zipfian(0, 0.99));
+        assertThrows(IllegalArgumentException.class, () -> KeyDistribution.zipfian(10, 0));
+        assertThrows(IllegalArgumentException.class, () -> KeyDistribution.zipfian(10, 1));
+    }
+
+    /** Counts per key, failing on any key outside [0, keyCount). */
+    private static int[] sample(KeyDistribution distribution, int keyCount) {
+        SplittableRandom random = new SplittableRandom(42);
+        int[] counts = new int[keyCount];
+        for (int i = 0; i < SAMPLES; i++) {
+            int key = distribution.next(random);
+            assertTrue(key >= 0 && key < keyCount, "key out of range: " + key);
+            counts[key]++;
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.app.load;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoadConfigTest {
+    @Test
+    void defaultsToAClosedLoopOverUniformKeys() {
+        LoadConfig config = new LoadConfig();
+
+        assertEquals(LoadConfig.Mode.CLOSED, config.getMode());
+        assertFalse(config.keyDistribution() instanceof KeyDistribution.Zipfian);
+    }
+
+    @Test
+    void settersChainAndSwitchModeAndDistribution() {
+        LoadConfig config = new LoadConfig().openLoop(2_000).workers(4).readRatio(0.9).keyCount(100).zipfian(0.99);
+
+        assertEquals(LoadConfig.Mode.OPEN, config.getMode());
+        assertEquals(2_000, config.getTargetRate());
+        assertEquals(4, config.getWorkers());
+        assertEquals(0.9, config.getReadRatio());
+        assertEquals(100, config.getKeyCount());
+        assertTrue(config.keyDistribution() instanceof KeyDistribution.Zipfian);
+
+        config.closedLoop().uniform();
+        assertEquals(LoadConfig.Mode.CLOSED, config.getMode());
+        assertFalse(config.keyDistribution() instanceof KeyDistribution.Zipfian);
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        LoadConfig config = new LoadConfig();
+
+        assertThrows(IllegalArgumentException.class, () -> config.openLoop(0));
+        assertThrows(IllegalArgumentException.class, () -> config.openLoop(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> config.workers(0));
+        assertThrows(IllegalArgumentException.class, () -> config.readRatio(-0.1));
+        assertThrows(IllegalArgumentException.class, () -> config.readRatio(1.1));
+        assertThrows(IllegalArgumentException.class, () -> config.keyCount(0));
+        assertThrows(IllegalArgumentException.class, () -> config.zipfian(0));
+        assertThrows(IllegalArgumentException.class, () -> config.zipfian(1));
+        assertThrows(IllegalArgumentException.class, () -> config.warmup(null));
+        assertThrows(IllegalArgumentException.class, () -> config.warmup(Duration.ofSeconds(-1)));
+        assertThrows(IllegalArgumentException.class, () -> config.duration(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> config.reportInterval(null));
+        // A zero warmup is allowed, and nothing above changed the defaults
+        config.warmup(Duration.ZERO);
+        assertEquals(LoadConfig.Mode.CLOSED, config.getMode());
+        assertEquals(8, config.getWorkers());
+    }
+}
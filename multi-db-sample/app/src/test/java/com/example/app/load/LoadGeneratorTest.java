@@ -0,0 +1,110 @@
+package com.example.app.load;
+
+import com.example.base.dao.UserDao;
+import com.example.base.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the generator against a DAO whose every read takes {@link #SERVICE_MILLIS}, so the
+ * response times it reports can be compared with a known service time.
+ */
+public class LoadGeneratorTest {
+    private static final long SERVICE_MILLIS = 2;
+
+    private UserDao dao;
+    private final AtomicInteger reads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        dao = mock(UserDao.class);
+        AtomicLong nextId = new AtomicLong(1);
+        when(dao.saveAll(anyList())).thenAnswer(inv -> {
+            List<User> users = inv.getArgument(0);
+            List<Long> ids = new ArrayList<>();
+            for (User user : users) {
+                user.setId(nextId.getAndIncrement());
+                ids.add(user.getId());
+            }
+            return ids;
+        });
+        when(dao.findById(any())).thenAnswer(inv -> {
+            reads.incrementAndGet();
+            Thread.sleep(SERVICE_MILLIS);
+            return Optional.empty();
+        });
+    }
+
+    @Test
+    void openLoopCountsTheQueueingBehindASlowDao() {
+        // One worker manages about 1000 / SERVICE_MILLIS reads a second, half the rate asked for
+        LoadConfig config = config().openLoop(1_000 / SERVICE_MILLIS * 2).workers(1);
+
+        LoadReport report = new LoadGenerator(dao, config).run();
+
+        double service = report.getServiceTime().getValueAtPercentile(50.0, TimeUnit.MILLISECONDS);
+        double response = report.getReadLatency().getValueAtPercentile(50.0, TimeUnit.MILLISECONDS);
+        assertTrue(service >= SERVICE_MILLIS, "service p50 " + service + " ms");
+        assertTrue(response > 10 * service, "response p50 " + response + " ms, service p50 " + service + " ms");
+        assertEquals(0, report.getWriteLatency().getCount());
+        verify(dao).deleteAllById(anyList());
+    }
+
+    @Test
+    void closedLoopResponseTimeIsTheServiceTime() {
+        LoadConfig config = config().closedLoop().workers(1);
+
+        LoadReport report = new LoadGenerator(dao, config).run();
+
+        double service = report.getServiceTime().getValueAtPercentile(50.0, TimeUnit.MILLISECONDS);
+        double response = report.getReadLatency().getValueAtPercentile(50.0, TimeUnit.MILLISECONDS);
+        assertTrue(service >= SERVICE_MILLIS, "service p50 " + service + " ms");
+        assertEquals(service, response, service * 0.1);
+        assertEquals(report.getServiceTime().getCount(), report.getOperations());
+    }
+
+    @Test
+    void warmupOperationsAreReportedButLeftOutOfTheTotals() {
+        int workers = 2;
+        LoadConfig config = config().closedLoop().workers(workers).warmup(Duration.ofMillis(300));
+        List<IntervalStats> seen = new ArrayList<>();
+
+        LoadReport report = new LoadGenerator(dao, config, seen::add).run();
+
+        assertEquals(report.getIntervals(), seen);
+        assertEquals(6, seen.size());
+        long warmupOps = 0;
+        long measuredOps = 0;
+        for (int i = 0; i < seen.size(); i++) {
+            IntervalStats interval = seen.get(i);
+            assertEquals(i < 3, interval.isWarmup(), "interval " + i);
+            assertTrue(interval.getReads() > 0, "interval " + i);
+            if (interval.isWarmup()) warmupOps += interval.getReads();
+            else measuredOps += interval.getReads();
+        }
+        assertEquals(reads.get(), warmupOps + measuredOps);
+        // Intervals go by completion time and totals by start time, so an operation started
+        // in the warmup but finished after it may be in a measured interval only
+        assertTrue(report.getOperations() <= measuredOps && report.getOperations() >= measuredOps - workers,
+                "totals " + report.getOperations() + ", measured intervals " + measuredOps);
+        assertTrue(report.getOperations() < reads.get());
+    }
+
+    private static LoadConfig config() {
+        return new LoadConfig().readRatio(1).keyCount(10).warmup(Duration.ZERO)
+                .duration(Duration.ofMillis(300)).reportInterval(Duration.ofMillis(100));
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.base.entity;
 
+import com.example.jooq.GenerateRecordMapper;
+
+@GenerateRecordMapper
 public class User {
     private Long id;
     private String name;
@@ -0,0 +1,102 @@
+package com.example.bench;
+
+import com.example.base.dao.UserDao;
+import com.example.base.dao.VirtualThreadAsyncUserDao;
+import com.example.base.entity.User;
+import com.example.common.DatabaseConnectionProvider;
+import com.example.common.PoolConfig;
+import com.example.common.PooledDatabaseConnection;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of 10k concurrently in-flight findById calls against a pooled H2 database:
+ * {@link VirtualThreadAsyncUserDao} versus a fixed platform thread pool of the same size
+ * and a plain sequential loop. Every invocation starts all lookups, then waits for all.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AsyncUserDaoBenchmark {
+    private static final int IN_FLIGHT = 10_000;
+
+    @Param({"10"})
+    public int poolSize;
+
+    private PooledDatabaseConnection pool;
+    private UserDao userDao;
+    private VirtualThreadAsyncUserDao asyncDao;
+    private ExecutorService platformPool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        H2Database db = new H2Database("async");
+        pool = new PooledDatabaseConnection(db.getUrl(), H2Database.USER, H2Database.PASSWORD, new PoolConfig().maxPoolSize(poolSize));
+        userDao = H2Database.jooqUserDao(DSL.using(new DatabaseConnectionProvider(pool), SQLDialect.H2));
+        userDao.saveAll(H2Database.users(0, IN_FLIGHT));
+        asyncDao = new VirtualThreadAsyncUserDao(userDao, pool.getConfig());
+        platformPool = Executors.newFixedThreadPool(poolSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        asyncDao.close();
+        platformPool.shutdownNow();
+        pool.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(IN_FLIGHT)
+    public void virtualThreads() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[IN_FLIGHT];
+        for (int i = 0; i < IN_FLIGHT; i++) {
+            futures[i] = asyncDao.findById(i + 1L);
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(IN_FLIGHT)
+    public void platformThreadPool() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[IN_FLIGHT];
+        for (int i = 0; i < IN_FLIGHT; i++) {
+            long id = i + 1L;
+            futures[i] = CompletableFuture.supplyAsync(() -> userDao.findById(id), platformPool);
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(IN_FLIGHT)
+    public long sequential() {
+        long found = 0;
+        for (int i = 0; i < IN_FLIGHT; i++) {
+            Optional<User> user = userDao.findById(i + 1L);
+            if (user.isPresent()) found++;
+        }
+        return found;
+    }
+}
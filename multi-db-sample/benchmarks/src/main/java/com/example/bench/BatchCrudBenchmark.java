@@ -0,0 +1,124 @@
+package com.example.bench;
+
+import com.example.base.dao.JdbcUserDao;
+import com.example.base.dao.UserDao;
+import com.example.base.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch operations ({@code saveAll}, {@code updateAll}, {@code deleteAllById},
+ * {@code findAllById}) against looping over the single-row methods, for both DAOs.
+ *
+ * Every invocation starts from a table holding exactly {@code rows} users, so the
+ * loop and batch variants of one operation do the same amount of work.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchCrudBenchmark {
+    @Param({"jooq", "jdbc"})
+    public String dao;
+
+    @Param({"1000"})
+    public int rows;
+
+    private H2Database db;
+    private Connection connection;
+    private UserDao userDao;
+    private List<User> existing;
+    private List<Long> ids;
+    private List<User> fresh;
+
+    @Setup(Level.Trial)
+    public void openDatabase() throws SQLException {
+        db = new H2Database("batch_" + dao);
+        connection = db.connect();
+        userDao = "jdbc".equals(dao) ? new JdbcUserDao(connection) : H2Database.jooqUserDao(H2Database.dsl(connection));
+    }
+
+    @Setup(Level.Invocation)
+    public void resetTable() {
+        db.truncate();
+        existing = H2Database.users(0, rows);
+        ids = userDao.saveAll(existing);
+        existing.forEach(u -> u.setName(u.getName() + "-v2"));
+        fresh = H2Database.users(rows, rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeDatabase() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void saveLoop() {
+        for (User user : fresh) {
+            userDao.save(user);
+        }
+    }
+
+    @Benchmark
+    public List<Long> saveAll() {
+        return userDao.saveAll(fresh);
+    }
+
+    @Benchmark
+    public void updateLoop() {
+        for (User user : existing) {
+            userDao.update(user);
+        }
+    }
+
+    @Benchmark
+    public void updateAll() {
+        userDao.updateAll(existing);
+    }
+
+    @Benchmark
+    public void deleteLoop() {
+        for (Long id : ids) {
+            userDao.deleteById(id);
+        }
+    }
+
+    @Benchmark
+    public void deleteAllById() {
+        userDao.deleteAllById(ids);
+    }
+
+    @Benchmark
+    public void findLoop(Blackhole bh) {
+        List<User> found = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            userDao.findById(id).ifPresent(found::add);
+        }
+        bh.consume(found);
+    }
+
+    @Benchmark
+    public List<User> findAllById() {
+        return userDao.findAllById(ids);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.bench;
+
+import com.example.base.dao.BulkLoader;
+import com.example.base.entity.User;
+import com.example.common.DatabaseConnection;
+import com.example.common.DatabaseConnectionProvider;
+import com.example.common.DefaultDatabaseConnection;
+import com.example.common.PoolConfig;
+import com.example.common.PooledDatabaseConnection;
+import com.example.entity.BatchBulkLoader;
+import com.example.entity.GenericJooqUserDao;
+import com.example.entity.PostgreSQLCopyBulkLoader;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.SQLDialect;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading {@code rows} new users into an empty table with {@link BatchBulkLoader},
+ * {@link PostgreSQLCopyBulkLoader} ({@code copy}) and, for reference, the DAO's
+ * {@code saveAll} (multi-row INSERT ... RETURNING, ids written back).
+ *
+ * Runs on in-memory H2 by default, where {@code copy} is not available. Against a local
+ * PostgreSQL (the users table is created if missing):
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar BulkLoadBenchmark \
+ *     -p url=jdbc:postgresql://localhost:5432/bench -p user=bench -p password=bench \
+ *     -p loader=copy,batch,saveAll
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkLoadBenchmark {
+    /** JDBC URL of the target database; empty means in-memory H2. */
+    @Param({""})
+    public String url;
+
+    @Param({""})
+    public String user;
+
+    @Param({""})
+    public String password;
+
+    @Param({"batch", "saveAll"})
+    public String loader;
+
+    @Param({"100000"})
+    public int rows;
+
+    private PooledDatabaseConnection connection;
+    private DSLContext dsl;
+    private BulkLoader bulkLoader;
+    private GenericJooqUserDao<Record, Long> userDao;
+    private List<User> users;
+
+    @Setup(Level.Trial)
+    public void open() {
+        boolean h2 = url.isEmpty();
+        DatabaseConnection source = h2
+                ? new DefaultDatabaseConnection(new H2Database("bulk_load").getUrl(), H2Database.USER, H2Database.PASSWORD)
+                : new DefaultDatabaseConnection(url, user, password);
+        connection = new PooledDatabaseConnection(source, new PoolConfig());
+        dsl = DSL.using(new DatabaseConnectionProvider(connection), h2 ? SQLDialect.H2 : SQLDialect.POSTGRES);
+        if (!h2) {
+            dsl.execute("CREATE TABLE IF NOT EXISTS users (id BIGSERIAL PRIMARY KEY, name VARCHAR(255), email VARCHAR(255))");
+        }
+
+        Table<Record> table = DSL.table(DSL.name("users"));
+        Field<String> name = DSL.field(DSL.name("name"), String.class);
+        Field<String> email = DSL.field(DSL.name("email"), String.class);
+        switch (loader) {
+            case "batch" -> bulkLoader = new BatchBulkLoader(dsl, table, name, email);
+            case "copy" -> {
+                if (h2) throw new IllegalStateException("loader=copy needs -p url=jdbc:postgresql://...");
+                bulkLoader = new PostgreSQLCopyBulkLoader(connection, table, name, email);
+            }
+            case "saveAll" -> userDao = H2Database.jooqUserDao(dsl);
+            default -> throw new IllegalArgumentException("Unknown loader: " + loader);
+        }
+        // Generated on the fly, like a file or stream being imported
+        users = new AbstractList<>() {
+            @Override
+            public User get(int i) {
+                return new User("user" + i, "user" + i + "@example.com");
+            }
+
+            @Override
+            public int size() {
+                return rows;
+            }
+        };
+    }
+
+    @Setup(Level.Invocation)
+    public void emptyTable() {
+        dsl.truncate(DSL.table(DSL.name("users"))).execute();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        connection.close();
+    }
+
+    @Benchmark
+    public long load() {
+        if (userDao != null) return userDao.saveAll(users).size();
+        return bulkLoader.load(users);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.bench;
+
+import com.example.base.dao.GroupCommitUserDao;
+import com.example.base.dao.UserDao;
+import com.example.base.entity.User;
+import com.example.common.DatabaseConnectionProvider;
+import com.example.common.PoolConfig;
+import com.example.common.PooledDatabaseConnection;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 32 threads calling save() concurrently on a pooled H2 database, each save either its own
+ * INSERT ... RETURNING and commit ({@code direct}) or coalesced by {@link GroupCommitUserDao}.
+ * The average batch size so far is printed after every iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class GroupCommitBenchmark {
+    @Param({"direct", "group"})
+    public String mode;
+
+    @Param({"100"})
+    public int maxBatchSize;
+
+    @Param({"2"})
+    public int lingerMillis;
+
+    private H2Database db;
+    private PooledDatabaseConnection pool;
+    private UserDao userDao;
+    private GroupCommitUserDao groupCommit;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        db = new H2Database("group_commit");
+        pool = new PooledDatabaseConnection(db.getUrl(), H2Database.USER, H2Database.PASSWORD, new PoolConfig().maxPoolSize(10));
+        UserDao jooq = H2Database.jooqUserDao(DSL.using(new DatabaseConnectionProvider(pool), SQLDialect.H2));
+        if ("group".equals(mode)) {
+            groupCommit = new GroupCommitUserDao(jooq, maxBatchSize, Duration.ofMillis(lingerMillis));
+            userDao = groupCommit;
+        } else {
+            userDao = jooq;
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        if (groupCommit != null) {
+            System.out.printf("%navg batch size: %.1f%n", (double) groupCommit.getSavedCount() / Math.max(1, groupCommit.getBatchCount()));
+        }
+        db.truncate();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (groupCommit != null) groupCommit.close();
+        pool.close();
+    }
+
+    @Benchmark
+    public Long save() {
+        User user = new User("user", "user@example.com");
+        userDao.save(user);
+        return user.getId();
+    }
+}
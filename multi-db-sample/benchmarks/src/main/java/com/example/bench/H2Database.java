@@ -0,0 +1,73 @@
+package com.example.bench;
+
+import com.example.base.entity.User;
+import com.example.entity.GenericJooqUserDao;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * In-memory H2 database with the same {@code users} table the vendor modules use.
+ * DATABASE_TO_LOWER lets the JDBC DAO's unquoted names and jOOQ's quoted names meet;
+ * OPTIMIZE_REUSE_RESULTS is off so repeating a query actually re-executes it.
+ */
+public final class H2Database {
+    public static final String USER = "sa";
+    public static final String PASSWORD = "";
+
+    private final String url;
+
+    public H2Database(String name) {
+        this.url = "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE;OPTIMIZE_REUSE_RESULTS=FALSE";
+        try (Connection conn = connect(); Statement st = conn.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS users");
+            st.execute("CREATE TABLE users (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(255), email VARCHAR(255))");
+        } catch (SQLException e) {
+            throw new RuntimeException("Error creating users table", e);
+        }
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public Connection connect() throws SQLException {
+        return DriverManager.getConnection(url, USER, PASSWORD);
+    }
+
+    public void truncate() {
+        try (Connection conn = connect(); Statement st = conn.createStatement()) {
+            st.execute("TRUNCATE TABLE users RESTART IDENTITY");
+        } catch (SQLException e) {
+            throw new RuntimeException("Error truncating users table", e);
+        }
+    }
+
+    public static DSLContext dsl(Connection conn) {
+        return DSL.using(conn, SQLDialect.H2);
+    }
+
+    public static GenericJooqUserDao<Record, Long> jooqUserDao(DSLContext dsl) {
+        Field<Long> idField = DSL.field(DSL.name("users", "id"), Long.class);
+        Field<String> nameField = DSL.field(DSL.name("users", "name"), String.class);
+        Field<String> emailField = DSL.field(DSL.name("users", "email"), String.class);
+        return new GenericJooqUserDao<>(dsl, DSL.table(DSL.name("users")), idField, nameField, emailField);
+    }
+
+    public static List<User> users(int firstIndex, int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = firstIndex; i < firstIndex + count; i++) {
+            users.add(new User("user" + i, "user" + i + "@example.com"));
+        }
+        return users;
+    }
+}
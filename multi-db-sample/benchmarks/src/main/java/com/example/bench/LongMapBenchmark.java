@@ -0,0 +1,103 @@
+package com.example.bench;
+
+import com.example.base.entity.User;
+import com.example.common.LongObjectHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * id -> User index: {@link LongObjectHashMap} against {@code HashMap<Long, User>} and
+ * {@code ConcurrentHashMap<Long, User>}.
+ *
+ * Lookup latency is measured on random present keys. Footprint is printed once per trial
+ * as retained heap per entry; every entry shares one User, so it is the map's own cost.
+ * 10M entries need a large heap, hence the -Xmx on the fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class LongMapBenchmark {
+    private static final int LOOKUP_KEYS = 1 << 16;
+
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    @Param({"LongObjectHashMap", "HashMap", "ConcurrentHashMap"})
+    public String map;
+
+    private LongObjectHashMap<User> primitive;
+    private Map<Long, User> boxed;
+    private long[] lookups;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void build() {
+        User user = new User(1L, "user", "user@example.com");
+        // Sparse ids, like rows that survived years of deletes
+        long[] ids = new long[size];
+        Random random = new Random(7);
+        long id = 0;
+        for (int i = 0; i < size; i++) {
+            id += 1 + random.nextInt(8);
+            ids[i] = id;
+        }
+
+        long before = usedHeap();
+        switch (map) {
+            case "LongObjectHashMap" -> {
+                primitive = new LongObjectHashMap<>();
+                for (long key : ids) primitive.put(key, user);
+            }
+            case "HashMap" -> {
+                boxed = new HashMap<>();
+                for (long key : ids) boxed.put(key, user);
+            }
+            case "ConcurrentHashMap" -> {
+                boxed = new ConcurrentHashMap<>();
+                for (long key : ids) boxed.put(key, user);
+            }
+            default -> throw new IllegalArgumentException(map);
+        }
+        long retained = usedHeap() - before;
+        System.out.printf("%n%s footprint: %.1f MB, %.1f bytes/entry%n",
+                map, retained / (1024.0 * 1024.0), (double) retained / size);
+
+        lookups = new long[LOOKUP_KEYS];
+        for (int i = 0; i < LOOKUP_KEYS; i++) {
+            lookups[i] = ids[random.nextInt(size)];
+        }
+    }
+
+    @Benchmark
+    public User get() {
+        long key = lookups[next++ & (LOOKUP_KEYS - 1)];
+        return primitive != null ? primitive.get(key) : boxed.get(key);
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
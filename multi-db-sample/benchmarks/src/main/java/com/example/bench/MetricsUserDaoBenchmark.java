@@ -0,0 +1,100 @@
+package com.example.bench;
+
+import com.example.base.dao.MetricsUserDao;
+import com.example.base.dao.UserDao;
+import com.example.base.entity.User;
+import com.example.common.DatabaseConnectionProvider;
+import com.example.common.PoolConfig;
+import com.example.common.PooledDatabaseConnection;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Overhead of {@link MetricsUserDao} on findById. The {@code stub} backend returns a
+ * constant user, so the difference is the decorator's absolute cost per call; {@code h2}
+ * puts it next to a real (in-memory) query. The DAO is shared, so run with {@code -t 4}
+ * to see the counters under contention and {@code -prof gc} to check nothing is allocated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsUserDaoBenchmark {
+    private static final int ROWS = 10_000;
+
+    @Param({"stub", "h2"})
+    public String backend;
+
+    @Param({"false", "true"})
+    public boolean instrumented;
+
+    private PooledDatabaseConnection pool;
+    private UserDao userDao;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        UserDao delegate;
+        if (backend.equals("h2")) {
+            H2Database db = new H2Database("metrics");
+            pool = new PooledDatabaseConnection(db.getUrl(), H2Database.USER, H2Database.PASSWORD, new PoolConfig().maxPoolSize(8));
+            delegate = H2Database.jooqUserDao(DSL.using(new DatabaseConnectionProvider(pool), SQLDialect.H2));
+            delegate.saveAll(H2Database.users(0, ROWS));
+        } else {
+            delegate = new StubUserDao();
+        }
+        userDao = instrumented ? new MetricsUserDao(delegate, "benchmark") : delegate;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (userDao instanceof MetricsUserDao metrics) {
+            System.out.println(metrics.getMetrics(MetricsUserDao.Operation.FIND_BY_ID));
+        }
+        if (pool != null) pool.close();
+    }
+
+    @Benchmark
+    public Optional<User> findById() {
+        return userDao.findById(ThreadLocalRandom.current().nextLong(ROWS) + 1);
+    }
+
+    /** Answers findById with one preallocated user; nothing else is called here. */
+    private static final class StubUserDao implements UserDao {
+        private final Optional<User> user = Optional.of(new User(1L, "user1", "user1@example.com"));
+
+        @Override public Optional<User> findById(Long id) { return user; }
+        @Override public List<User> findAll() { throw new UnsupportedOperationException(); }
+        @Override public void save(User user) { throw new UnsupportedOperationException(); }
+        @Override public void update(User user) { throw new UnsupportedOperationException(); }
+        @Override public void deleteById(Long id) { throw new UnsupportedOperationException(); }
+        @Override public List<Long> saveAll(List<User> users) { throw new UnsupportedOperationException(); }
+        @Override public void updateAll(List<User> users) { throw new UnsupportedOperationException(); }
+        @Override public void deleteAllById(Collection<Long> ids) { throw new UnsupportedOperationException(); }
+        @Override public List<User> findAllById(Collection<Long> ids) { throw new UnsupportedOperationException(); }
+        @Override public Stream<User> streamAll(int fetchSize) { throw new UnsupportedOperationException(); }
+        @Override public List<User> findPage(Long afterId, int limit) { throw new UnsupportedOperationException(); }
+        @Override public List<User> findPageBefore(Long beforeId, int limit) { throw new UnsupportedOperationException(); }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.bench;
+
+import com.example.base.dao.JdbcUserDao;
+import com.example.base.entity.User;
+import com.example.entity.GenericJooqUserDao;
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.impl.DSL;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of fetching page N of the users table with keyset pagination ({@code findPage})
+ * versus LIMIT/OFFSET. OFFSET has to walk and discard every preceding row, so its cost
+ * grows with the page number while the keyset page stays flat.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PagingBenchmark {
+    @Param({"200000"})
+    public int rows;
+
+    @Param({"50"})
+    public int pageSize;
+
+    @Param({"1", "100", "3000"})
+    public int page;
+
+    private Connection connection;
+    private DSLContext dsl;
+    private GenericJooqUserDao<Record, Long> jooqDao;
+    private JdbcUserDao jdbcDao;
+    // Last id of the previous page, i.e. what a client walking the pages would pass in
+    private Long afterId;
+
+    @Setup(Level.Trial)
+    public void fillTable() throws SQLException {
+        H2Database db = new H2Database("paging");
+        connection = db.connect();
+        dsl = H2Database.dsl(connection);
+        jooqDao = H2Database.jooqUserDao(dsl);
+        jdbcDao = new JdbcUserDao(connection);
+        for (int first = 0; first < rows; first += 10_000) {
+            jooqDao.saveAll(H2Database.users(first, Math.min(10_000, rows - first)));
+        }
+        int offset = (page - 1) * pageSize;
+        afterId = offset == 0 ? null : dsl.select(DSL.field(DSL.name("id"), Long.class))
+                .from(DSL.table(DSL.name("users")))
+                .orderBy(DSL.field(DSL.name("id")))
+                .limit(1)
+                .offset(offset - 1)
+                .fetchOne()
+                .value1();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public List<User> jooqKeyset() {
+        return jooqDao.findPage(afterId, pageSize);
+    }
+
+    @Benchmark
+    public List<User> jooqOffset() {
+        return dsl.selectFrom(DSL.table(DSL.name("users")))
+                .orderBy(DSL.field(DSL.name("users", "id")))
+                .limit(pageSize)
+                .offset((page - 1) * pageSize)
+                .fetch(r -> new User(r.get("id", Long.class), r.get("name", String.class), r.get("email", String.class)));
+    }
+
+    @Benchmark
+    public List<User> jdbcKeyset() {
+        return jdbcDao.findPage(afterId, pageSize);
+    }
+
+    @Benchmark
+    public List<User> jdbcOffset() throws SQLException {
+        List<User> users = new ArrayList<>(pageSize);
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "SELECT id, name, email FROM users ORDER BY id LIMIT ? OFFSET ?")) {
+            stmt.setInt(1, pageSize);
+            stmt.setInt(2, (page - 1) * pageSize);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    users.add(new User(rs.getLong(1), rs.getString(2), rs.getString(3)));
+                }
+            }
+        }
+        return users;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.bench;
+
+import com.example.jooq.QueryTemplate;
+import org.jooq.BatchBindStep;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Query;
+import org.jooq.Record;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and rendering a jOOQ statement per call against a {@link QueryTemplate} rendered
+ * once. {@code render*} only produce the SQL and its params, without a database; {@code find*}
+ * fetch one row from H2; {@code insertBatch*} write {@link #BATCH} rows as one JDBC batch,
+ * either from a query per row or by binding rows to a single template. Run with
+ * {@code -prof gc} to compare allocation per call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryTemplateBenchmark {
+    private static final int ROWS = 10_000;
+    private static final int BATCH = 1000;
+
+    private static final Table<Record> USERS = DSL.table(DSL.name("users"));
+    private static final Field<Long> ID = DSL.field(DSL.name("users", "id"), Long.class);
+    private static final Field<String> NAME = DSL.field(DSL.name("users", "name"), String.class);
+    private static final Field<String> EMAIL = DSL.field(DSL.name("users", "email"), String.class);
+
+    private H2Database db;
+    private Connection connection;
+    private DSLContext dsl;
+    private QueryTemplate find;
+    private QueryTemplate insert;
+    private long next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        db = new H2Database("query_template");
+        connection = db.connect();
+        dsl = H2Database.dsl(connection);
+        H2Database.jooqUserDao(dsl).saveAll(H2Database.users(0, ROWS));
+        find = new QueryTemplate(dsl, dsl.select(ID, NAME, EMAIL).from(USERS).where(ID.eq(DSL.val(null, ID))));
+        insert = new QueryTemplate(dsl, dsl.insertInto(USERS, NAME, EMAIL).values((String) null, (String) null));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    private long nextId() {
+        return next++ % ROWS + 1;
+    }
+
+    @Benchmark
+    public String renderDsl() {
+        return dsl.render(dsl.select(ID, NAME, EMAIL).from(USERS).where(ID.eq(nextId())));
+    }
+
+    @Benchmark
+    public Query renderTemplate() {
+        // What an execution builds before it reaches JDBC: the SQL string and typed params
+        return find.query(nextId());
+    }
+
+    @Benchmark
+    public Record findDsl() {
+        return dsl.select(ID, NAME, EMAIL).from(USERS).where(ID.eq(nextId())).fetchOne();
+    }
+
+    @Benchmark
+    public Record findTemplate() {
+        return find.fetchOne(nextId());
+    }
+
+    @Benchmark
+    public int[] insertBatchQueries() {
+        Query[] inserts = new Query[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            inserts[i] = dsl.insertInto(USERS, NAME, EMAIL).values("batch" + i, "batch" + i + "@example.com");
+        }
+        return dsl.batch(inserts).execute();
+    }
+
+    @Benchmark
+    public int[] insertBatchTemplate() {
+        BatchBindStep batch = insert.batch();
+        for (int i = 0; i < BATCH; i++) {
+            batch.bind("batch" + i, "batch" + i + "@example.com");
+        }
+        return batch.execute();
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteBatchRows() {
+        dsl.deleteFrom(USERS).where(ID.gt((long) ROWS)).execute();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.bench;
+
+import com.example.base.entity.User;
+import com.example.jooq.GeneratedRecordMapperProvider;
+import org.jooq.Configuration;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record3;
+import org.jooq.Result;
+import org.jooq.impl.DSL;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning an already fetched jOOQ Result into Users: {@code into(User.class)} through
+ * jOOQ's reflective DefaultRecordMapper, the same call through the mapper generated by
+ * {@code @GenerateRecordMapper}, and a hand-written {@code record.get(field)} lambda (what
+ * GenericJooqUserDao used to do). The query runs once in setup so only mapping is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecordMapperBenchmark {
+    private static final Field<Long> ID = DSL.field(DSL.name("id"), Long.class);
+    private static final Field<String> NAME = DSL.field(DSL.name("name"), String.class);
+    private static final Field<String> EMAIL = DSL.field(DSL.name("email"), String.class);
+
+    @Param({"10", "10000"})
+    public int rows;
+
+    private Connection connection;
+    private Result<Record3<Long, String, String>> reflectiveResult;
+    private Result<Record3<Long, String, String>> generatedResult;
+
+    @Setup(Level.Trial)
+    public void fetch() throws SQLException {
+        H2Database db = new H2Database("record_mapper");
+        connection = db.connect();
+        DSLContext reflective = H2Database.dsl(connection);
+        H2Database.jooqUserDao(reflective).saveAll(H2Database.users(0, rows));
+
+        Configuration configuration = reflective.configuration();
+        DSLContext generated = configuration.derive(new GeneratedRecordMapperProvider(configuration)).dsl();
+        // Each Result keeps the configuration it was fetched with, and into() uses its provider
+        reflectiveResult = reflective.select(ID, NAME, EMAIL).from(DSL.table(DSL.name("users"))).fetch();
+        generatedResult = generated.select(ID, NAME, EMAIL).from(DSL.table(DSL.name("users"))).fetch();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public List<User> reflective() {
+        return reflectiveResult.into(User.class);
+    }
+
+    @Benchmark
+    public List<User> generated() {
+        return generatedResult.into(User.class);
+    }
+
+    @Benchmark
+    public List<User> fieldLookup() {
+        return reflectiveResult.map(r -> {
+            User user = new User();
+            user.setId(r.get(ID));
+            user.setName(r.get(NAME));
+            user.setEmail(r.get(EMAIL));
+            return user;
+        });
+    }
+}
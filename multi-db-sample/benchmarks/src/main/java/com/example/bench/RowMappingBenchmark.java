@@ -0,0 +1,93 @@
+package com.example.bench;
+
+import com.example.base.dao.JdbcUserDao;
+import com.example.base.dao.RowMapper;
+import com.example.base.dao.UserRowMapper;
+import com.example.base.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full scan of a 1M-row users table, mapping every row by column label (what JdbcUserDao
+ * used to do) versus by index through {@link UserRowMapper}. Rows go to a Blackhole so
+ * the result list does not dominate; {@code findAll} is the DAO end to end.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class RowMappingBenchmark {
+    private static final String SQL = "SELECT id, name, email FROM users";
+
+    @Param({"1000000"})
+    public int rows;
+
+    private Connection connection;
+    private JdbcUserDao userDao;
+
+    @Setup(Level.Trial)
+    public void fillTable() throws SQLException {
+        H2Database db = new H2Database("row_mapping");
+        connection = db.connect();
+        userDao = new JdbcUserDao(connection);
+        for (int first = 0; first < rows; first += 10_000) {
+            userDao.saveAll(H2Database.users(first, Math.min(10_000, rows - first)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        userDao.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public void byLabel(Blackhole bh) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(SQL);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                User user = new User();
+                user.setId(rs.getLong("id"));
+                user.setName(rs.getString("name"));
+                user.setEmail(rs.getString("email"));
+                bh.consume(user);
+            }
+        }
+    }
+
+    @Benchmark
+    public void byIndex(Blackhole bh) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(SQL);
+             ResultSet rs = stmt.executeQuery()) {
+            RowMapper<User> mapper = UserRowMapper.of(rs.getMetaData());
+            while (rs.next()) {
+                bh.consume(mapper.mapRow(rs));
+            }
+        }
+    }
+
+    @Benchmark
+    public int findAll() {
+        return userDao.findAll().size();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.bench;
+
+import com.example.base.dao.JdbcUserDao;
+import com.example.base.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-row JdbcUserDao calls with the statement cache off ({@code 0}, prepare and close
+ * per call) and on. H2 keeps a small parse cache of its own, so a server database that
+ * plans on every prepare gains more than this shows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatementCacheBenchmark {
+    private static final int ROWS = 10_000;
+
+    @Param({"0", "16"})
+    public int statementCacheSize;
+
+    private Connection connection;
+    private JdbcUserDao userDao;
+    private long next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        H2Database db = new H2Database("statement_cache");
+        connection = db.connect();
+        userDao = new JdbcUserDao(connection, statementCacheSize);
+        userDao.saveAll(H2Database.users(0, ROWS));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        userDao.close();
+        connection.close();
+    }
+
+    private long nextId() {
+        return next++ % ROWS + 1;
+    }
+
+    @Benchmark
+    public Optional<User> findById() {
+        return userDao.findById(nextId());
+    }
+
+    @Benchmark
+    public void update() {
+        long id = nextId();
+        userDao.update(new User(id, "user" + id, "user" + id + "@example.com"));
+    }
+}
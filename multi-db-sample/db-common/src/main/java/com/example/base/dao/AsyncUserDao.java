@@ -0,0 +1,26 @@
+package com.example.base.dao;
+
+import com.example.base.entity.User;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link UserDao}: every call returns immediately and the
+ * future completes with the result, or exceptionally with the delegate's exception.
+ * {@code streamAll} has no async form since a cursor needs a consumer on its thread.
+ */
+public interface AsyncUserDao {
+    CompletableFuture<Optional<User>> findById(Long id);
+    CompletableFuture<List<User>> findAll();
+    CompletableFuture<Void> save(User user);
+    CompletableFuture<Void> update(User user);
+    CompletableFuture<Void> deleteById(Long id);
+    CompletableFuture<List<Long>> saveAll(List<User> users);
+    CompletableFuture<Void> updateAll(List<User> users);
+    CompletableFuture<Void> deleteAllById(Collection<Long> ids);
+    CompletableFuture<List<User>> findAllById(Collection<Long> ids);
+    CompletableFuture<List<User>> findPage(Long afterId, int limit);
+    CompletableFuture<List<User>> findPageBefore(Long beforeId, int limit);
+}
@@ -0,0 +1,23 @@
+package com.example.base.dao;
+
+import com.example.base.entity.User;
+
+import java.util.Iterator;
+
+/**
+ * Loads large numbers of new users through the fastest path the database offers (COPY on
+ * PostgreSQL, batched multi-row INSERTs elsewhere). Obtain one from
+ * {@code DatabaseFactory.createBulkLoader()}.
+ *
+ * Unlike {@link UserDao#saveAll}, rows are consumed as they are read from the iterator,
+ * so a load never needs the whole dataset in memory, and generated ids are not written
+ * back to the users. A load is all-or-nothing.
+ */
+public interface BulkLoader {
+    /** Inserts the name and email of every user; returns the number of rows loaded. */
+    long load(Iterator<? extends User> users);
+
+    default long load(Iterable<? extends User> users) {
+        return load(users.iterator());
+    }
+}
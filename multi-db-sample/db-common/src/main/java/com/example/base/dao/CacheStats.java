@@ -0,0 +1,42 @@
+package com.example.base.dao;
+
+/** Point-in-time counters of a {@link CachingUserDao}. */
+public class CacheStats {
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long expirations;
+    private final int size;
+
+    CacheStats(long hits, long misses, long evictions, long expirations, int size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.size = size;
+    }
+
+    public long getHits() { return hits; }
+
+    /** Lookups that went to the delegate, including ones for expired entries. */
+    public long getMisses() { return misses; }
+
+    /** Entries dropped to stay within the maximum size. */
+    public long getEvictions() { return evictions; }
+
+    /** Entries found past their TTL on lookup. */
+    public long getExpirations() { return expirations; }
+
+    public int getSize() { return size; }
+
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CacheStats{hits=%d, misses=%d, hitRate=%.3f, evictions=%d, expirations=%d, size=%d}",
+                hits, misses, getHitRate(), evictions, expirations, size);
+    }
+}
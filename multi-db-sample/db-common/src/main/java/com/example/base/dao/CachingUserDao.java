@@ -0,0 +1,381 @@
+package com.example.base.dao;
+
+import com.example.base.entity.User;
+import com.example.common.LongObjectHashMap;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Read-through cache in front of any {@link UserDao}, e.g. the result of
+ * {@code DatabaseFactory.createUserDao()}.
+ *
+ * {@link #findById(Long)} and {@link #findAllById(Collection)} are served from a bounded
+ * map, with an optional TTL; everything else goes straight to the delegate. Writes
+ * through this DAO invalidate the ids they touch. Writes that bypass it are only picked
+ * up once the TTL expires, so set one when other processes update users.
+ *
+ * The id index is a {@link LongObjectHashMap}, so lookups neither box the id nor walk
+ * nodes. It is written under a {@link StampedLock}'s write lock and read optimistically,
+ * seqlock style: a hit takes no lock unless a write overlapped it, and then retries under
+ * the read lock. A hit otherwise only sets the entry's referenced bit. Eviction is CLOCK
+ * (second chance), which approximates LRU from those bits: entries queue in insertion
+ * order, and a referenced entry reaching the end of the queue has its bit cleared and goes
+ * back to the front instead of being evicted. Loads, invalidations and evictions take the
+ * write lock.
+ *
+ * A load is only cached if its id was not invalidated while it ran; invalidating other
+ * ids does not affect it.
+ *
+ * Cached users are copied on the way in and out, so callers may mutate what they get.
+ */
+public class CachingUserDao implements UserDao {
+    private final UserDao delegate;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    private final StampedLock lock = new StampedLock();
+    // Written under the write lock. Entries are immutable apart from the fields noted in Entry.
+    private final LongObjectHashMap<Entry> entries;
+    // Guarded by the write lock. Entries in insertion order, newest at the head; eviction looks at the tail.
+    private Entry head;
+    private Entry tail;
+
+    // Token of the latest load per id; invalidating the id removes it, so that load is not cached
+    private final ConcurrentHashMap<Long, Object> loads = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /** Cache without expiry; entries leave only through eviction or invalidation. */
+    public CachingUserDao(UserDao delegate, int maxSize) {
+        this(delegate, maxSize, Duration.ZERO);
+    }
+
+    /** @param ttl how long an entry is served after it was loaded; {@link Duration#ZERO} disables expiry */
+    public CachingUserDao(UserDao delegate, int maxSize, Duration ttl) {
+        this(delegate, maxSize, ttl, System::nanoTime);
+    }
+
+    CachingUserDao(UserDao delegate, int maxSize, Duration ttl, LongSupplier clock) {
+        if (maxSize < 1) throw new IllegalArgumentException("maxSize must be >= 1");
+        if (ttl.isNegative()) throw new IllegalArgumentException("ttl must not be negative");
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+        this.entries = new LongObjectHashMap<>(Math.min(maxSize, 1 << 16));
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        User cached = lookup(id);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+        misses.increment();
+        List<Long> key = Collections.singletonList(id);
+        Object load = startLoad(key);
+        try {
+            Optional<User> loaded = delegate.findById(id);
+            loaded.ifPresent(user -> store(user, load));
+            return loaded;
+        } finally {
+            endLoad(key, load);
+        }
+    }
+
+    /** Cached users are returned as is; only the missing ids are fetched from the delegate. */
+    @Override
+    public List<User> findAllById(Collection<Long> ids) {
+        List<User> users = new ArrayList<>(ids.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            User cached = lookup(id);
+            if (cached != null) {
+                hits.increment();
+                users.add(cached);
+            } else {
+                misses.increment();
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            Object load = startLoad(missing);
+            try {
+                for (User user : delegate.findAllById(missing)) {
+                    store(user, load);
+                    users.add(user);
+                }
+            } finally {
+                endLoad(missing, load);
+            }
+        }
+        return users;
+    }
+
+    @Override
+    public List<User> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Stream<User> streamAll(int fetchSize) {
+        return delegate.streamAll(fetchSize);
+    }
+
+    @Override
+    public List<User> findPage(Long afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public List<User> findPageBefore(Long beforeId, int limit) {
+        return delegate.findPageBefore(beforeId, limit);
+    }
+
+    @Override
+    public void save(User user) {
+        delegate.save(user);
+    }
+
+    @Override
+    public List<Long> saveAll(List<User> users) {
+        return delegate.saveAll(users);
+    }
+
+    @Override
+    public void update(User user) {
+        try {
+            delegate.update(user);
+        } finally {
+            invalidate(user.getId());
+        }
+    }
+
+    @Override
+    public void updateAll(List<User> users) {
+        try {
+            delegate.updateAll(users);
+        } finally {
+            List<Long> ids = new ArrayList<>(users.size());
+            users.forEach(u -> ids.add(u.getId()));
+            invalidateAll(ids);
+        }
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        try {
+            delegate.deleteById(id);
+        } finally {
+            invalidate(id);
+        }
+    }
+
+    @Override
+    public void deleteAllById(Collection<Long> ids) {
+        try {
+            delegate.deleteAllById(ids);
+        } finally {
+            invalidateAll(ids);
+        }
+    }
+
+    public void invalidate(Long id) {
+        if (id == null) return;
+        long stamp = lock.writeLock();
+        try {
+            remove(id);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void invalidateAll(Collection<Long> ids) {
+        long stamp = lock.writeLock();
+        try {
+            for (Long id : ids) {
+                if (id != null) remove(id);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void invalidateAll() {
+        long stamp = lock.writeLock();
+        try {
+            loads.clear();
+            entries.clear();
+            head = tail = null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public CacheStats getStats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), size());
+    }
+
+    /** A copy of the cached user, or null on a miss. Expired entries are dropped here. */
+    private User lookup(Long id) {
+        if (id == null) return null;
+        Entry entry = find(id);
+        if (entry == null) return null;
+        if (ttlNanos > 0 && clock.getAsLong() - entry.loadedAt >= ttlNanos) {
+            long stamp = lock.writeLock();
+            try {
+                if (entries.get(id) == entry) {
+                    entries.remove(id);
+                    unlink(entry);
+                    expirations.increment();
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            return null;
+        }
+        // Read before writing, so hot entries do not bounce their cache line between cores
+        if (!entry.referenced) entry.referenced = true;
+        return copy(entry.user);
+    }
+
+    /**
+     * The entry for {@code id}, read without locking unless a write got in the way. A racing
+     * read may see the index half updated, or even fail; validate() tells, and then the
+     * read is repeated under the read lock.
+     */
+    private Entry find(long id) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                Entry entry = entries.get(id);
+                if (lock.validate(stamp)) return entry;
+            } catch (RuntimeException inconsistent) {
+                // Only possible while a write was running, which validate() would have reported
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return entries.get(id);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /** Registers a load of {@code ids}; returns the token that {@link #store} checks. */
+    private Object startLoad(Collection<Long> ids) {
+        Object load = new Object();
+        for (Long id : ids) {
+            if (id != null) loads.put(id, load);
+        }
+        return load;
+    }
+
+    private void endLoad(Collection<Long> ids, Object load) {
+        for (Long id : ids) {
+            if (id != null) loads.remove(id, load);
+        }
+    }
+
+    private void store(User user, Object load) {
+        Long id = user.getId();
+        if (id == null) return;
+        Entry entry = new Entry(id, copy(user), clock.getAsLong());
+        long stamp = lock.writeLock();
+        try {
+            // Skip if the id was invalidated, or loaded again, since this load began
+            if (!loads.remove(id, load)) return;
+            Entry previous = entries.put(id, entry);
+            if (previous != null) unlink(previous);
+            linkAtHead(entry);
+            if (entries.size() > maxSize) evict();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Caller holds the write lock. */
+    private void remove(Long id) {
+        loads.remove(id);
+        Entry entry = entries.remove(id);
+        if (entry != null) unlink(entry);
+    }
+
+    /**
+     * Caller holds the write lock. Evicts the first unreferenced entry from the tail, giving each
+     * referenced one a second chance on the way. After a full lap, e.g. when hits keep
+     * setting the bits again, the tail goes regardless.
+     */
+    private void evict() {
+        int size = entries.size();
+        for (int moved = 0; tail.referenced && moved < size; moved++) {
+            Entry entry = tail;
+            entry.referenced = false;
+            unlink(entry);
+            linkAtHead(entry);
+        }
+        Entry eldest = tail;
+        entries.remove(eldest.id);
+        unlink(eldest);
+        evictions.increment();
+    }
+
+    private void linkAtHead(Entry entry) {
+        entry.prev = null;
+        entry.next = head;
+        if (head != null) head.prev = entry;
+        head = entry;
+        if (tail == null) tail = entry;
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.prev != null) entry.prev.next = entry.next; else head = entry.next;
+        if (entry.next != null) entry.next.prev = entry.prev; else tail = entry.prev;
+        entry.prev = entry.next = null;
+    }
+
+    private static User copy(User user) {
+        return new User(user.getId(), user.getName(), user.getEmail());
+    }
+
+    private static final class Entry {
+        final long id;
+        final User user;
+        final long loadedAt;
+        // Set by hits without a lock, cleared by eviction
+        volatile boolean referenced;
+        // Guarded by the write lock
+        Entry prev;
+        Entry next;
+
+        Entry(long id, User user, long loadedAt) {
+            this.id = id;
+            this.user = user;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
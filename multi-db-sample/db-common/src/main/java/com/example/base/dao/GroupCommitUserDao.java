@@ -0,0 +1,242 @@
+package com.example.base.dao;
+
+import com.example.base.entity.User;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Coalesces concurrent {@link #save(User)} calls into batched
+ * {@link UserDao#saveAll(List)} calls, i.e. one multi-row insert and one commit for many
+ * callers.
+ *
+ * A single flusher thread takes the first pending save, then keeps collecting until it
+ * has {@code maxBatchSize} users or {@code maxLinger} has passed, and writes them in one
+ * go. {@code save} blocks until its batch is committed, so a caller sees its own write
+ * afterwards exactly as with the delegate. If a batch fails, its users are retried one by
+ * one, each in a single-user {@code saveAll}, so a single bad row only fails its own caller. All other methods go straight to
+ * the delegate.
+ */
+public class GroupCommitUserDao implements UserDao, AutoCloseable {
+    private final UserDao delegate;
+    private final int maxBatchSize;
+    private final long maxLingerNanos;
+    private final BlockingQueue<PendingSave> queue = new LinkedBlockingQueue<>();
+    private final Thread flusher;
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder saved = new LongAdder();
+    private volatile boolean closed;
+
+    public GroupCommitUserDao(UserDao delegate, int maxBatchSize, Duration maxLinger) {
+        if (maxBatchSize < 1) throw new IllegalArgumentException("maxBatchSize must be >= 1");
+        if (maxLinger.isNegative()) throw new IllegalArgumentException("maxLinger must not be negative");
+        this.delegate = delegate;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLingerNanos = maxLinger.toNanos();
+        this.flusher = new Thread(this::flushLoop, "group-commit-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /** Queues the user for the next batch; the future completes with its generated id. */
+    public CompletableFuture<Long> saveAsync(User user) {
+        if (closed) throw new IllegalStateException("GroupCommitUserDao is closed");
+        PendingSave pending = new PendingSave(user);
+        queue.add(pending);
+        // close() may have done its final drain between the check and the add; then nobody
+        // takes this save. If it is still queued, withdraw it, otherwise whoever took it writes it.
+        if (closed && queue.remove(pending)) {
+            pending.result.completeExceptionally(new IllegalStateException("GroupCommitUserDao is closed"));
+        }
+        return pending.result;
+    }
+
+    /** Blocks until the batch holding {@code user} is committed; sets its generated id. */
+    @Override
+    public void save(User user) {
+        try {
+            saveAsync(user).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error error) throw error;
+            throw e;
+        }
+    }
+
+    /** Number of {@code saveAll} batches written so far. */
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    /** Number of users written through {@link #save(User)} so far. */
+    public long getSavedCount() {
+        return saved.sum();
+    }
+
+    /** Flushes the pending saves and stops the flusher thread. */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        // A sentinel rather than an interrupt: interrupting a thread inside JDBC can break the driver
+        queue.add(SHUTDOWN);
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Saves that raced with close() after the flusher's final drain
+        List<PendingSave> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) writeOrFail(rest);
+    }
+
+    private void flushLoop() {
+        List<PendingSave> batch = new ArrayList<>(maxBatchSize);
+        boolean stop = false;
+        while (!stop) {
+            try {
+                PendingSave next = queue.take();
+                long deadline = System.nanoTime() + maxLingerNanos;
+                while (next != null) {
+                    if (next == SHUTDOWN) {
+                        stop = true;
+                        break;
+                    }
+                    batch.add(next);
+                    if (batch.size() >= maxBatchSize) break;
+                    // Take whatever is already queued without waiting, then linger for more
+                    next = queue.poll();
+                    if (next == null) {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining > 0) next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    }
+                }
+            } catch (InterruptedException e) {
+                stop = true;
+            }
+            if (stop) {
+                queue.drainTo(batch);
+                batch.remove(SHUTDOWN);
+            }
+            if (!batch.isEmpty()) {
+                writeOrFail(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Anything {@link #write} throws, an {@link Error} included, fails the saves it left
+     * incomplete instead of ending the flusher thread with their callers still waiting.
+     */
+    private void writeOrFail(List<PendingSave> batch) {
+        try {
+            write(batch);
+        } catch (Throwable t) {
+            for (PendingSave pending : batch) {
+                pending.result.completeExceptionally(t);
+            }
+        }
+    }
+
+    private void write(List<PendingSave> batch) {
+        List<User> users = new ArrayList<>(batch.size());
+        batch.forEach(p -> users.add(p.user));
+        try {
+            List<Long> ids = delegate.saveAll(users);
+            batches.increment();
+            saved.add(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(ids.get(i));
+            }
+        } catch (RuntimeException batchFailure) {
+            for (PendingSave pending : batch) {
+                try {
+                    // saveAll, unlike save, promises the generated id back
+                    Long id = delegate.saveAll(List.of(pending.user)).get(0);
+                    saved.increment();
+                    pending.result.complete(id);
+                } catch (RuntimeException e) {
+                    pending.result.completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<User> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Stream<User> streamAll(int fetchSize) {
+        return delegate.streamAll(fetchSize);
+    }
+
+    @Override
+    public List<User> findPage(Long afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public List<User> findPageBefore(Long beforeId, int limit) {
+        return delegate.findPageBefore(beforeId, limit);
+    }
+
+    @Override
+    public void update(User user) {
+        delegate.update(user);
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        delegate.deleteById(id);
+    }
+
+    @Override
+    public List<Long> saveAll(List<User> users) {
+        return delegate.saveAll(users);
+    }
+
+    @Override
+    public void updateAll(List<User> users) {
+        delegate.updateAll(users);
+    }
+
+    @Override
+    public void deleteAllById(Collection<Long> ids) {
+        delegate.deleteAllById(ids);
+    }
+
+    @Override
+    public List<User> findAllById(Collection<Long> ids) {
+        return delegate.findAllById(ids);
+    }
+
+    private static final PendingSave SHUTDOWN = new PendingSave(null);
+
+    private static final class PendingSave {
+        final User user;
+        final CompletableFuture<Long> result = new CompletableFuture<>();
+
+        PendingSave(User user) {
+            this.user = user;
+        }
+    }
+}
@@ -5,90 +5,432 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-public class JdbcUserDao implements UserDao {
+/**
+ * Plain JDBC UserDao over a single connection it does not own.
+ *
+ * The statements behind findById, findAll, the page queries, save, update and deleteById
+ * are prepared once and reused through a {@link StatementCache}; {@link #close()} releases
+ * them. The page queries use {@code LIMIT ?} (PostgreSQL, MySQL, H2). Rows are
+ * read by column index through a {@link UserRowMapper}.
+ */
+public class JdbcUserDao implements ShardableUserDao, AutoCloseable {
+    /** Rows per JDBC batch / IN-list for the batch operations. */
+    private static final int BATCH_CHUNK_SIZE = 1000;
+    private static final int DEFAULT_STATEMENT_CACHE_SIZE = 16;
+
+    private static final String FIND_BY_ID_SQL = "SELECT id, name, email FROM users WHERE id = ?";
+    private static final String FIND_ALL_SQL = "SELECT id, name, email FROM users";
+    private static final String FIRST_PAGE_SQL = "SELECT id, name, email FROM users ORDER BY id LIMIT ?";
+    private static final String PAGE_AFTER_SQL = "SELECT id, name, email FROM users WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String LAST_PAGE_SQL = "SELECT id, name, email FROM users ORDER BY id DESC LIMIT ?";
+    private static final String PAGE_BEFORE_SQL = "SELECT id, name, email FROM users WHERE id < ? ORDER BY id DESC LIMIT ?";
+    private static final String INSERT_SQL = "INSERT INTO users (name, email) VALUES (?, ?)";
+    private static final String INSERT_WITH_ID_SQL = "INSERT INTO users (id, name, email) VALUES (?, ?, ?)";
+    private static final String RESERVE_IDS_SQL = "UPDATE user_id_blocks SET next_id = next_id + ?";
+    private static final String NEXT_ID_SQL = "SELECT next_id FROM user_id_blocks";
+    private static final String UPDATE_SQL = "UPDATE users SET name = ?, email = ? WHERE id = ?";
+    private static final String DELETE_SQL = "DELETE FROM users WHERE id = ?";
 
     private final Connection connection;
+    private final StatementCache statementCache;
+    private final Map<String, RowMapper<User>> rowMappers = new ConcurrentHashMap<>();
 
     public JdbcUserDao(Connection connection) {
+        this(connection, DEFAULT_STATEMENT_CACHE_SIZE);
+    }
+
+    /** @param statementCacheSize prepared statements kept open; 0 prepares and closes one per call */
+    public JdbcUserDao(Connection connection, int statementCacheSize) {
         this.connection = connection;
+        this.statementCache = statementCacheSize > 0 ? new StatementCache(connection, statementCacheSize) : null;
     }
 
     @Override
     public Optional<User> findById(Long id) {
-        String sql = "SELECT id, name, email FROM users WHERE id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        return withStatement(FIND_BY_ID_SQL, stmt -> {
             stmt.setLong(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    User user = new User();
-                    user.setId(rs.getLong("id"));
-                    user.setName(rs.getString("name"));
-                    user.setEmail(rs.getString("email"));
-                    return Optional.of(user);
+                    return Optional.of(mapperFor(FIND_BY_ID_SQL, rs).mapRow(rs));
                 }
             }
-        } catch (SQLException e) {
-            throw new RuntimeException("Error finding user by id", e);
-        }
-        return Optional.empty();
+            return Optional.<User>empty();
+        }, "Error finding user by id");
     }
 
     @Override
     public List<User> findAll() {
-        String sql = "SELECT id, name, email FROM users";
-        List<User> users = new ArrayList<>();
-        try (PreparedStatement stmt = connection.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-            while (rs.next()) {
-                User user = new User();
-                user.setId(rs.getLong("id"));
-                user.setName(rs.getString("name"));
-                user.setEmail(rs.getString("email"));
-                users.add(user);
+        return withStatement(FIND_ALL_SQL, stmt -> {
+            List<User> users = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                mapAll(rs, mapperFor(FIND_ALL_SQL, rs), users);
+            }
+            return users;
+        }, "Error finding all users");
+    }
+
+    @Override
+    public List<User> findPage(Long afterId, int limit) {
+        return findPage(afterId == null ? FIRST_PAGE_SQL : PAGE_AFTER_SQL, afterId, limit);
+    }
+
+    @Override
+    public List<User> findPageBefore(Long beforeId, int limit) {
+        return findPage(beforeId == null ? LAST_PAGE_SQL : PAGE_BEFORE_SQL, beforeId, limit);
+    }
+
+    /** Binds the boundary id, if any, then the row limit ({@code LIMIT ?}, last in every page query). */
+    private List<User> findPage(String sql, Long boundaryId, int limit) {
+        if (limit <= 0) throw new IllegalArgumentException("limit must be positive");
+        return withStatement(sql, stmt -> {
+            int index = 1;
+            if (boundaryId != null) stmt.setLong(index++, boundaryId);
+            stmt.setInt(index, limit);
+            // Not presized from limit, which may be far larger than the table
+            List<User> users = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                mapAll(rs, mapperFor(sql, rs), users);
             }
+            return users;
+        }, "Error finding user page");
+    }
+
+    /**
+     * Forward-only, read-only cursor over {@code users}. Auto-commit is switched off while
+     * the stream is open (PostgreSQL ignores the fetch size otherwise) and restored on close.
+     */
+    @Override
+    public Stream<User> streamAll(int fetchSize) {
+        PreparedStatement stmt = null;
+        boolean restoreAutoCommit = false;
+        try {
+            restoreAutoCommit = connection.getAutoCommit();
+            if (restoreAutoCommit) connection.setAutoCommit(false);
+            stmt = connection.prepareStatement(FIND_ALL_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(fetchSize);
+            ResultSet rs = stmt.executeQuery();
+            RowMapper<User> mapper = UserRowMapper.of(rs.getMetaData());
+            PreparedStatement openStmt = stmt;
+            boolean autoCommit = restoreAutoCommit;
+            return StreamSupport.stream(new Spliterators.AbstractSpliterator<User>(Long.MAX_VALUE,
+                    Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super User> action) {
+                    try {
+                        if (!rs.next()) return false;
+                        action.accept(mapper.mapRow(rs));
+                        return true;
+                    } catch (SQLException e) {
+                        throw new RuntimeException("Error streaming users", e);
+                    }
+                }
+            }, false).onClose(() -> endStream(openStmt, autoCommit));
         } catch (SQLException e) {
-            throw new RuntimeException("Error finding all users", e);
+            try {
+                endStream(stmt, restoreAutoCommit);
+            } catch (RuntimeException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw new RuntimeException("Error streaming users", e);
+        }
+    }
+
+    /**
+     * Closing the statement also closes its result set. The stream only read, so its
+     * transaction is rolled back rather than committed: a commit on the shared connection
+     * would also commit whatever else ran on it while the stream was open.
+     */
+    private void endStream(PreparedStatement stmt, boolean restoreAutoCommit) {
+        try {
+            try {
+                if (stmt != null) stmt.close();
+            } finally {
+                if (restoreAutoCommit) {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error closing user stream", e);
         }
-        return users;
     }
 
     @Override
     public void save(User user) {
-        String sql = "INSERT INTO users (name, email) VALUES (?, ?)";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        withStatement(INSERT_SQL, stmt -> {
             stmt.setString(1, user.getName());
             stmt.setString(2, user.getEmail());
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            throw new RuntimeException("Error saving user", e);
-        }
+            return stmt.executeUpdate();
+        }, "Error saving user");
     }
 
     @Override
     public void update(User user) {
-        String sql = "UPDATE users SET name = ?, email = ? WHERE id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        withStatement(UPDATE_SQL, stmt -> {
             stmt.setString(1, user.getName());
             stmt.setString(2, user.getEmail());
             stmt.setLong(3, user.getId());
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            throw new RuntimeException("Error updating user", e);
-        }
+            return stmt.executeUpdate();
+        }, "Error updating user");
     }
 
     @Override
     public void deleteById(Long id) {
-        String sql = "DELETE FROM users WHERE id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        withStatement(DELETE_SQL, stmt -> {
             stmt.setLong(1, id);
-            stmt.executeUpdate();
+            return stmt.executeUpdate();
+        }, "Error deleting user");
+    }
+
+    /** Closes the cached statements. The connection is left open for its owner. */
+    @Override
+    public void close() {
+        if (statementCache != null) statementCache.close();
+    }
+
+    /**
+     * Runs {@code work} on the cached statement for {@code sql}, or on a fresh one when
+     * caching is off. A statement whose use failed is evicted rather than reused.
+     */
+    private <T> T withStatement(String sql, StatementWork<T> work, String errorMessage) {
+        try {
+            if (statementCache == null) {
+                try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                    return work.run(stmt);
+                }
+            }
+            PreparedStatement stmt = statementCache.prepare(sql);
+            try {
+                return work.run(stmt);
+            } catch (SQLException | RuntimeException e) {
+                statementCache.invalidate(sql);
+                throw e;
+            }
         } catch (SQLException e) {
-            throw new RuntimeException("Error deleting user", e);
+            throw new RuntimeException(errorMessage, e);
+        }
+    }
+
+    private interface StatementWork<T> {
+        T run(PreparedStatement stmt) throws SQLException;
+    }
+
+    @Override
+    public List<Long> saveAll(List<User> users) {
+        List<Long> ids = new ArrayList<>(users.size());
+        if (users.isEmpty()) return ids;
+        inTransaction(() -> {
+            try (PreparedStatement stmt = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (List<User> chunk : chunks(users)) {
+                    for (User user : chunk) {
+                        stmt.setString(1, user.getName());
+                        stmt.setString(2, user.getEmail());
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                    try (ResultSet keys = stmt.getGeneratedKeys()) {
+                        for (int i = 0; i < chunk.size(); i++) {
+                            if (!keys.next()) {
+                                throw new SQLException("Driver returned fewer generated keys than inserted rows");
+                            }
+                            ids.add(keys.getLong(1));
+                        }
+                    }
+                }
+            }
+        }, "Error saving users");
+        // Only once committed, so users of a rolled back call keep no id
+        for (int i = 0; i < users.size(); i++) {
+            users.get(i).setId(ids.get(i));
+        }
+        return ids;
+    }
+
+    /**
+     * Commits the reservation on its own, so the connection must be in auto-commit mode: as
+     * part of a caller's transaction, a rollback would let another process reserve ids this
+     * one already handed out.
+     */
+    @Override
+    public long reserveIds(int count) {
+        if (count <= 0) throw new IllegalArgumentException("count must be positive");
+        try {
+            if (!connection.getAutoCommit()) {
+                throw new IllegalStateException("reserveIds needs auto-commit on, to commit apart from the caller's transaction");
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error reserving user ids", e);
+        }
+        long[] first = new long[1];
+        inTransaction(() -> {
+            try (PreparedStatement reserve = connection.prepareStatement(RESERVE_IDS_SQL)) {
+                reserve.setInt(1, count);
+                if (reserve.executeUpdate() != 1) throw new SQLException("user_id_blocks must hold exactly one row");
+            }
+            try (PreparedStatement next = connection.prepareStatement(NEXT_ID_SQL);
+                 ResultSet rs = next.executeQuery()) {
+                rs.next();
+                first[0] = rs.getLong(1) - count;
+            }
+        }, "Error reserving user ids");
+        return first[0];
+    }
+
+    @Override
+    public void insertWithIds(List<User> users) {
+        for (User user : users) {
+            if (user.getId() == null) throw new IllegalArgumentException("Every user needs an id");
+        }
+        if (users.isEmpty()) return;
+        inTransaction(() -> {
+            try (PreparedStatement stmt = connection.prepareStatement(INSERT_WITH_ID_SQL)) {
+                for (List<User> chunk : chunks(users)) {
+                    for (User user : chunk) {
+                        stmt.setLong(1, user.getId());
+                        stmt.setString(2, user.getName());
+                        stmt.setString(3, user.getEmail());
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+            }
+        }, "Error inserting users");
+    }
+
+    @Override
+    public void updateAll(List<User> users) {
+        if (users.isEmpty()) return;
+        inTransaction(() -> {
+            try (PreparedStatement stmt = connection.prepareStatement(UPDATE_SQL)) {
+                for (List<User> chunk : chunks(users)) {
+                    for (User user : chunk) {
+                        stmt.setString(1, user.getName());
+                        stmt.setString(2, user.getEmail());
+                        stmt.setLong(3, user.getId());
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+            }
+        }, "Error updating users");
+    }
+
+    @Override
+    public void deleteAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) return;
+        inTransaction(() -> {
+            for (List<Long> chunk : chunks(new ArrayList<>(new LinkedHashSet<>(ids)))) {
+                String sql = "DELETE FROM users WHERE id IN (" + placeholders(chunk.size()) + ")";
+                try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                    bindIds(stmt, chunk);
+                    stmt.executeUpdate();
+                }
+            }
+        }, "Error deleting users");
+    }
+
+    @Override
+    public List<User> findAllById(Collection<Long> ids) {
+        List<User> users = new ArrayList<>(ids.size());
+        try {
+            for (List<Long> chunk : chunks(new ArrayList<>(new LinkedHashSet<>(ids)))) {
+                String sql = "SELECT id, name, email FROM users WHERE id IN (" + placeholders(chunk.size()) + ")";
+                try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                    bindIds(stmt, chunk);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        mapAll(rs, UserRowMapper.of(rs.getMetaData()), users);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding users by id", e);
+        }
+        return users;
+    }
+
+    /**
+     * Runs {@code work} in one transaction unless the caller already manages one
+     * (auto-commit off), restoring the connection's auto-commit mode afterwards.
+     */
+    private void inTransaction(SqlWork work, String errorMessage) {
+        try {
+            boolean autoCommit = connection.getAutoCommit();
+            if (!autoCommit) {
+                work.run();
+                return;
+            }
+            connection.setAutoCommit(false);
+            try {
+                work.run();
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(errorMessage, e);
+        }
+    }
+
+    private interface SqlWork {
+        void run() throws SQLException;
+    }
+
+    /**
+     * Mapper for one of the fixed SQL strings, resolved from the first result set and then
+     * reused; the column layout of a fixed query does not change between executions.
+     */
+    private RowMapper<User> mapperFor(String sql, ResultSet rs) throws SQLException {
+        RowMapper<User> mapper = rowMappers.get(sql);
+        if (mapper == null) {
+            mapper = UserRowMapper.of(rs.getMetaData());
+            rowMappers.put(sql, mapper);
+        }
+        return mapper;
+    }
+
+    private static void mapAll(ResultSet rs, RowMapper<User> mapper, List<User> users) throws SQLException {
+        while (rs.next()) {
+            users.add(mapper.mapRow(rs));
+        }
+    }
+
+    private static void bindIds(PreparedStatement stmt, List<Long> ids) throws SQLException {
+        for (int i = 0; i < ids.size(); i++) {
+            stmt.setLong(i + 1, ids.get(i));
+        }
+    }
+
+    private static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 2);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(',');
+            sb.append('?');
+        }
+        return sb.toString();
+    }
+
+    private static <T> List<List<T>> chunks(List<T> items) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += BATCH_CHUNK_SIZE) {
+            chunks.add(items.subList(from, Math.min(items.size(), from + BATCH_CHUNK_SIZE)));
         }
+        return chunks;
     }
-}
\ No newline at end of file
+}
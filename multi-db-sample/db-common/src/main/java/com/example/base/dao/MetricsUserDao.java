@@ -0,0 +1,212 @@
+package com.example.base.dao;
+
+import com.example.base.entity.User;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Instrumenting decorator: counts calls, errors and calls in flight, and records the latency
+ * of every {@link UserDao} method of its delegate, each in its own {@link OperationMetrics}.
+ *
+ * Recording is lock-free, so the decorator can stay on in production.
+ * {@link #registerMBeans()} publishes one MXBean per operation under
+ * {@code com.example.dao:type=UserDao,name="<name>",operation=<method>}, e.g. for JConsole or a
+ * JMX exporter; {@link #close()} unregisters them again and leaves the delegate open.
+ *
+ * <pre>
+ * MetricsUserDao userDao = new MetricsUserDao(factory.createUserDao(), "primary").registerMBeans();
+ * </pre>
+ */
+public class MetricsUserDao implements UserDao, AutoCloseable {
+    /** The instrumented methods; {@link #getMethodName()} is the JMX {@code operation} key. */
+    public enum Operation {
+        FIND_BY_ID("findById"),
+        FIND_ALL("findAll"),
+        SAVE("save"),
+        UPDATE("update"),
+        DELETE_BY_ID("deleteById"),
+        SAVE_ALL("saveAll"),
+        UPDATE_ALL("updateAll"),
+        DELETE_ALL_BY_ID("deleteAllById"),
+        FIND_ALL_BY_ID("findAllById"),
+        STREAM_ALL("streamAll"),
+        FIND_PAGE("findPage"),
+        FIND_PAGE_BEFORE("findPageBefore");
+
+        private final String methodName;
+
+        Operation(String methodName) {
+            this.methodName = methodName;
+        }
+
+        public String getMethodName() {
+            return methodName;
+        }
+    }
+
+    private final UserDao delegate;
+    private final String name;
+    private final OperationMetrics[] metrics;
+    private final List<ObjectName> registered = new ArrayList<>();
+
+    /** @param name identifies this DAO in the MBean names, e.g. the database or shard */
+    public MetricsUserDao(UserDao delegate, String name) {
+        this.delegate = delegate;
+        this.name = name;
+        Operation[] operations = Operation.values();
+        this.metrics = new OperationMetrics[operations.length];
+        for (Operation operation : operations) {
+            metrics[operation.ordinal()] = new OperationMetrics(operation.getMethodName());
+        }
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        return measure(Operation.FIND_BY_ID, () -> delegate.findById(id));
+    }
+
+    @Override
+    public List<User> findAll() {
+        return measure(Operation.FIND_ALL, delegate::findAll);
+    }
+
+    @Override
+    public void save(User user) {
+        measure(Operation.SAVE, () -> delegate.save(user));
+    }
+
+    @Override
+    public void update(User user) {
+        measure(Operation.UPDATE, () -> delegate.update(user));
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        measure(Operation.DELETE_BY_ID, () -> delegate.deleteById(id));
+    }
+
+    @Override
+    public List<Long> saveAll(List<User> users) {
+        return measure(Operation.SAVE_ALL, () -> delegate.saveAll(users));
+    }
+
+    @Override
+    public void updateAll(List<User> users) {
+        measure(Operation.UPDATE_ALL, () -> delegate.updateAll(users));
+    }
+
+    @Override
+    public void deleteAllById(Collection<Long> ids) {
+        measure(Operation.DELETE_ALL_BY_ID, () -> delegate.deleteAllById(ids));
+    }
+
+    @Override
+    public List<User> findAllById(Collection<Long> ids) {
+        return measure(Operation.FIND_ALL_BY_ID, () -> delegate.findAllById(ids));
+    }
+
+    /** Times opening the stream only; rows are read after this returns. */
+    @Override
+    public Stream<User> streamAll(int fetchSize) {
+        return measure(Operation.STREAM_ALL, () -> delegate.streamAll(fetchSize));
+    }
+
+    @Override
+    public List<User> findPage(Long afterId, int limit) {
+        return measure(Operation.FIND_PAGE, () -> delegate.findPage(afterId, limit));
+    }
+
+    @Override
+    public List<User> findPageBefore(Long beforeId, int limit) {
+        return measure(Operation.FIND_PAGE_BEFORE, () -> delegate.findPageBefore(beforeId, limit));
+    }
+
+    /** Runs {@code call} as one {@code operation}: counted, timed, and an error if it throws. */
+    private <T> T measure(Operation operation, Supplier<T> call) {
+        OperationMetrics m = metrics[operation.ordinal()];
+        long start = m.begin();
+        try {
+            return call.get();
+        } catch (Throwable t) {
+            m.error();
+            throw t;
+        } finally {
+            m.end(start);
+        }
+    }
+
+    private void measure(Operation operation, Runnable call) {
+        measure(operation, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    public OperationMetrics getMetrics(Operation operation) {
+        return metrics[operation.ordinal()];
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Registers the operation MXBeans with the platform MBean server. Returns {@code this}. */
+    public synchronized MetricsUserDao registerMBeans() {
+        if (!registered.isEmpty()) return this;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            for (Operation operation : Operation.values()) {
+                ObjectName objectName = objectName(operation);
+                server.registerMBean(metrics[operation.ordinal()], objectName);
+                registered.add(objectName);
+            }
+        } catch (JMException e) {
+            unregisterMBeans(server);
+            throw new RuntimeException("Error registering UserDao MBeans for " + name, e);
+        }
+        return this;
+    }
+
+    public ObjectName objectName(Operation operation) {
+        try {
+            return new ObjectName("com.example.dao:type=UserDao,name=" + ObjectName.quote(name) + ",operation=" + operation.getMethodName());
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Invalid MBean name: " + name, e);
+        }
+    }
+
+    /** Unregisters the MBeans, if any. The delegate is not closed. */
+    @Override
+    public synchronized void close() {
+        unregisterMBeans(ManagementFactory.getPlatformMBeanServer());
+    }
+
+    private void unregisterMBeans(MBeanServer server) {
+        for (ObjectName objectName : registered) {
+            try {
+                server.unregisterMBean(objectName);
+            } catch (JMException e) {
+                // already gone
+            }
+        }
+        registered.clear();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("MetricsUserDao{name=").append(name);
+        for (OperationMetrics m : metrics) {
+            if (m.getCalls() > 0 || m.getInFlight() > 0) sb.append(", ").append(m);
+        }
+        return sb.append('}').toString();
+    }
+}
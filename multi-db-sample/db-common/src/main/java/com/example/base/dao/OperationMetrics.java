@@ -0,0 +1,92 @@
+package com.example.base.dao;
+
+import com.example.common.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histogram of one {@link MetricsUserDao} operation.
+ *
+ * A call costs one {@link LongAdder} increment, which stripes under contention, and one
+ * record into the lock-free {@link LatencyHistogram}; nothing is allocated per call. The
+ * histogram's count doubles as the call count, and calls in flight are those started but
+ * not yet recorded. Reading a percentile copies the histogram buckets, so do that from a
+ * monitoring thread, not per call.
+ */
+public class OperationMetrics implements OperationMetricsMXBean {
+    private final String operation;
+    private final LongAdder started = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    OperationMetrics(String operation) {
+        this.operation = operation;
+    }
+
+    /** Marks a call as started and returns its start time for {@link #end(long)}. */
+    long begin() {
+        started.increment();
+        return System.nanoTime();
+    }
+
+    void end(long start) {
+        latency.record(System.nanoTime() - start);
+    }
+
+    void error() {
+        errors.increment();
+    }
+
+    public String getOperation() { return operation; }
+
+    @Override
+    public long getCalls() { return latency.getCount(); }
+
+    @Override
+    public long getErrors() { return errors.sum(); }
+
+    @Override
+    public long getInFlight() {
+        // Completed first: every call counted there has already been counted as started
+        long completed = latency.getCount();
+        return Math.max(0L, started.sum() - completed);
+    }
+
+    /** The live histogram; it keeps accumulating while the DAO is used. */
+    public LatencyHistogram getLatency() { return latency; }
+
+    @Override
+    public double getMeanMicros() { return latency.getMeanNanos() / 1_000.0; }
+
+    @Override
+    public double getP50Micros() { return latency.getValueAtPercentile(50.0, TimeUnit.MICROSECONDS); }
+
+    @Override
+    public double getP90Micros() { return latency.getValueAtPercentile(90.0, TimeUnit.MICROSECONDS); }
+
+    @Override
+    public double getP99Micros() { return latency.getValueAtPercentile(99.0, TimeUnit.MICROSECONDS); }
+
+    @Override
+    public double getP999Micros() { return latency.getValueAtPercentile(99.9, TimeUnit.MICROSECONDS); }
+
+    @Override
+    public double getMaxMicros() { return latency.getMaxNanos() / 1_000.0; }
+
+    @Override
+    public void reset() {
+        // Keep the calls in flight; a call finishing during the reset can skew the gauge by one
+        long inFlight = getInFlight();
+        latency.reset();
+        started.reset();
+        started.add(inFlight);
+        errors.reset();
+    }
+
+    @Override
+    public String toString() {
+        return operation + "{calls=" + getCalls() + ", errors=" + getErrors() + ", inFlight=" + getInFlight()
+                + ", latency=[" + latency + "]}";
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.base.dao;
+
+/**
+ * JMX view of one {@link MetricsUserDao} operation. Latencies are in microseconds and
+ * cover every completed call, failed ones included.
+ */
+public interface OperationMetricsMXBean {
+    long getCalls();
+
+    /** Calls that threw. */
+    long getErrors();
+
+    /** Calls currently running against the delegate. */
+    long getInFlight();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP90Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaxMicros();
+
+    /** Zeroes the counters and the histogram; calls in flight are still tracked. */
+    void reset();
+}
@@ -0,0 +1,203 @@
+package com.example.base.dao;
+
+import com.example.base.entity.User;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Read/write splitting decorator: writes go to the primary's {@link UserDao}, reads to one of
+ * the replicas'. Each read picks the replica with the fewest reads in flight through this
+ * DAO, breaking ties at random, so a replica that slows down is given less work before
+ * its queue grows. Without replicas everything goes to the primary.
+ *
+ * Replicas lag behind the primary, so a user may not be visible there right after it was
+ * written. With a read-your-writes window, reads from a thread that wrote through this DAO
+ * less than the window ago go to the primary; set it somewhat above the usual replication
+ * lag. The window is per thread, so it does not cover a write on one thread and a read on
+ * another.
+ *
+ * {@link #streamAll(int)} counts as in flight until the stream is closed. Failures are not
+ * retried on another database.
+ */
+public class RoutingUserDao implements UserDao {
+    private final UserDao primary;
+    private final UserDao[] replicas;
+    private final AtomicIntegerArray outstanding;
+    private final long readYourWritesNanos;
+    private final LongSupplier clock;
+    // Per thread: until when its reads go to the primary, or null before its first write
+    private final ThreadLocal<long[]> primaryReadsUntil = new ThreadLocal<>();
+
+    /** Without a read-your-writes window: every read goes to a replica. */
+    public RoutingUserDao(UserDao primary, List<? extends UserDao> replicas) {
+        this(primary, replicas, Duration.ZERO);
+    }
+
+    /** @param readYourWritesWindow how long a thread reads from the primary after a write; {@link Duration#ZERO} disables it */
+    public RoutingUserDao(UserDao primary, List<? extends UserDao> replicas, Duration readYourWritesWindow) {
+        this(primary, replicas, readYourWritesWindow, System::nanoTime);
+    }
+
+    RoutingUserDao(UserDao primary, List<? extends UserDao> replicas, Duration readYourWritesWindow, LongSupplier clock) {
+        if (readYourWritesWindow.isNegative()) throw new IllegalArgumentException("readYourWritesWindow must not be negative");
+        this.primary = primary;
+        this.replicas = replicas.toArray(new UserDao[0]);
+        this.outstanding = new AtomicIntegerArray(this.replicas.length);
+        this.readYourWritesNanos = readYourWritesWindow.toNanos();
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        return read(dao -> dao.findById(id));
+    }
+
+    @Override
+    public List<User> findAll() {
+        return read(UserDao::findAll);
+    }
+
+    @Override
+    public void save(User user) {
+        try {
+            primary.save(user);
+        } finally {
+            wrote();
+        }
+    }
+
+    @Override
+    public void update(User user) {
+        try {
+            primary.update(user);
+        } finally {
+            wrote();
+        }
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        try {
+            primary.deleteById(id);
+        } finally {
+            wrote();
+        }
+    }
+
+    @Override
+    public List<Long> saveAll(List<User> users) {
+        try {
+            return primary.saveAll(users);
+        } finally {
+            wrote();
+        }
+    }
+
+    @Override
+    public void updateAll(List<User> users) {
+        try {
+            primary.updateAll(users);
+        } finally {
+            wrote();
+        }
+    }
+
+    @Override
+    public void deleteAllById(Collection<Long> ids) {
+        try {
+            primary.deleteAllById(ids);
+        } finally {
+            wrote();
+        }
+    }
+
+    @Override
+    public List<User> findAllById(Collection<Long> ids) {
+        return read(dao -> dao.findAllById(ids));
+    }
+
+    @Override
+    public Stream<User> streamAll(int fetchSize) {
+        if (readsFromPrimary()) return primary.streamAll(fetchSize);
+        int replica = pickReplica();
+        outstanding.incrementAndGet(replica);
+        try {
+            return replicas[replica].streamAll(fetchSize).onClose(() -> outstanding.decrementAndGet(replica));
+        } catch (RuntimeException | Error e) {
+            outstanding.decrementAndGet(replica);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<User> findPage(Long afterId, int limit) {
+        return read(dao -> dao.findPage(afterId, limit));
+    }
+
+    @Override
+    public List<User> findPageBefore(Long beforeId, int limit) {
+        return read(dao -> dao.findPageBefore(beforeId, limit));
+    }
+
+    public int getReplicaCount() {
+        return replicas.length;
+    }
+
+    /** Reads currently running on replica {@code replica}, in the order the replicas were given. */
+    public int getOutstandingReads(int replica) {
+        return outstanding.get(replica);
+    }
+
+    private <T> T read(Function<UserDao, T> call) {
+        if (readsFromPrimary()) return call.apply(primary);
+        int replica = pickReplica();
+        outstanding.incrementAndGet(replica);
+        try {
+            return call.apply(replicas[replica]);
+        } finally {
+            outstanding.decrementAndGet(replica);
+        }
+    }
+
+    private boolean readsFromPrimary() {
+        if (replicas.length == 0) return true;
+        if (readYourWritesNanos == 0) return false;
+        long[] until = primaryReadsUntil.get();
+        return until != null && until[0] - clock.getAsLong() > 0;
+    }
+
+    private void wrote() {
+        if (readYourWritesNanos == 0 || replicas.length == 0) return;
+        long[] until = primaryReadsUntil.get();
+        if (until == null) {
+            until = new long[1];
+            primaryReadsUntil.set(until);
+        }
+        until[0] = clock.getAsLong() + readYourWritesNanos;
+    }
+
+    private int pickReplica() {
+        int count = replicas.length;
+        // Start at a random replica so ties spread evenly; stop early at an idle one
+        int start = count == 1 ? 0 : ThreadLocalRandom.current().nextInt(count);
+        int best = start;
+        int bestOutstanding = outstanding.get(start);
+        for (int k = 1; k < count && bestOutstanding > 0; k++) {
+            int replica = start + k < count ? start + k : start + k - count;
+            int inFlight = outstanding.get(replica);
+            if (inFlight < bestOutstanding) {
+                best = replica;
+                bestOutstanding = inFlight;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.base.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/** Maps the current row of a {@link ResultSet} to an object; does not move the cursor. */
+@FunctionalInterface
+public interface RowMapper<T> {
+    T mapRow(ResultSet rs) throws SQLException;
+}
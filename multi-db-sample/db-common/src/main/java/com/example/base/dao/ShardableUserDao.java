@@ -0,0 +1,31 @@
+package com.example.base.dao;
+
+import com.example.base.entity.User;
+
+import java.util.List;
+
+/**
+ * A {@link UserDao} that can serve as one shard of a {@link ShardedUserDao}, where the ids
+ * are chosen by the caller rather than generated by the {@code users} table.
+ *
+ * The ids come from a one-row counter table in the same database:
+ *
+ * <pre>
+ * CREATE TABLE user_id_blocks (next_id BIGINT NOT NULL);
+ * INSERT INTO user_id_blocks (next_id) VALUES (1); -- or above the highest existing users.id
+ * </pre>
+ */
+public interface ShardableUserDao extends UserDao {
+    /**
+     * Reserves {@code count} consecutive ids by advancing {@code user_id_blocks.next_id} in
+     * its own transaction, and returns the first. The row lock serializes concurrent
+     * reservations, so no two callers, in this process or another, get the same id.
+     */
+    long reserveIds(int count);
+
+    /**
+     * Inserts the users with the ids they already have, in one transaction. Unlike
+     * {@link #saveAll(List)}, nothing is generated; every user must have an id.
+     */
+    void insertWithIds(List<User> users);
+}
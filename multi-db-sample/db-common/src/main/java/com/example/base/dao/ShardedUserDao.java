@@ -0,0 +1,377 @@
+package com.example.base.dao;
+
+import com.example.base.entity.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Spreads users over several {@link UserDao}s, one per shard, e.g. one
+ * {@code factory.createUserDao(connection)} per database. Each shard holds its own
+ * {@code users} table.
+ *
+ * A user lives on the shard that a consistent hash ring maps its id to; every shard has
+ * {@value #VIRTUAL_NODES} points on the ring. Shards can only be appended to the list, and
+ * the ring then maps about 1/N of the ids to the new shards and leaves the rest where they
+ * were. Nothing moves those users by itself: until {@link #rebalance(int)} has run, reads
+ * and writes of their ids go to a shard that does not hold them.
+ *
+ * New users get their id from this DAO, not from the {@code users} table, so every shard
+ * must be a {@link ShardableUserDao}; the constructor rejects any other DAO. Shards take
+ * new users in turn. Each shard reserves blocks of {@value #ID_BLOCK} consecutive ids from
+ * the counter in its own database and uses the ids of a block that the ring maps to it.
+ * The database hands every block out once, so several processes can insert through their
+ * own ShardedUserDao at the same time, and since an id maps to exactly one shard, ids are
+ * unique across shards as well. Ids are not in insertion order across processes.
+ *
+ * Calls that touch several shards ({@link #findAll()}, the batch methods and the page
+ * queries) run each shard's part on its own virtual thread and wait for all of them. The
+ * first failure cancels the rest and is rethrown. Writes to several shards are not atomic.
+ */
+public class ShardedUserDao implements UserDao {
+    static final int VIRTUAL_NODES = 128;
+    static final int ID_BLOCK = 1024;
+    static final int REBALANCE_PAGE = 1000;
+
+    private static final Comparator<User> BY_ID = Comparator.comparing(User::getId);
+
+    private final ShardableUserDao[] shards;
+    private final ShardIds[] ids;
+    // Ring positions in ascending order and the shard owning each
+    private final long[] ringPoints;
+    private final int[] ringShards;
+    private final AtomicInteger nextShard = new AtomicInteger();
+    private final ThreadFactory threads = Thread.ofVirtual().name("sharded-user-dao-", 0).factory();
+
+    public ShardedUserDao(List<? extends UserDao> shards) {
+        if (shards.isEmpty()) throw new IllegalArgumentException("At least one shard is required");
+        this.shards = new ShardableUserDao[shards.size()];
+        this.ids = new ShardIds[this.shards.length];
+        for (int shard = 0; shard < this.shards.length; shard++) {
+            if (!(shards.get(shard) instanceof ShardableUserDao shardable)) {
+                throw new IllegalArgumentException("Shard " + shard + " (" + shards.get(shard).getClass().getName()
+                        + ") cannot insert users with preset ids");
+            }
+            this.shards[shard] = shardable;
+            ids[shard] = new ShardIds(shard);
+        }
+        long[][] points = new long[this.shards.length * VIRTUAL_NODES][];
+        for (int shard = 0; shard < this.shards.length; shard++) {
+            for (int node = 0; node < VIRTUAL_NODES; node++) {
+                points[shard * VIRTUAL_NODES + node] = new long[] {mix(((long) shard << 32 | node) * 0x9E3779B97F4A7C15L), shard};
+            }
+        }
+        Arrays.sort(points, Comparator.comparingLong(point -> point[0]));
+        this.ringPoints = new long[points.length];
+        this.ringShards = new int[points.length];
+        for (int i = 0; i < points.length; i++) {
+            ringPoints[i] = points[i][0];
+            ringShards[i] = (int) points[i][1];
+        }
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /** Index, in the list given to the constructor, of the shard that holds {@code id}. */
+    public int shardOf(long id) {
+        int i = Arrays.binarySearch(ringPoints, mix(id));
+        if (i < 0) i = -i - 1;
+        return ringShards[i == ringPoints.length ? 0 : i];
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        return shards[shardOf(id)].findById(id);
+    }
+
+    /** All users from all shards, ordered by id. */
+    @Override
+    public List<User> findAll() {
+        List<User> users = new ArrayList<>();
+        for (List<User> shardUsers : onShards(allShards(), shard -> shards[shard].findAll())) {
+            users.addAll(shardUsers);
+        }
+        users.sort(BY_ID);
+        return users;
+    }
+
+    /**
+     * Inserts under a newly allocated id on the shard that id maps to, and sets the id once
+     * inserted. Like the other DAOs' save, any id the user already has is not reused.
+     */
+    @Override
+    public void save(User user) {
+        long id = nextId();
+        shards[shardOf(id)].insertWithIds(List.of(new User(id, user.getName(), user.getEmail())));
+        user.setId(id);
+    }
+
+    @Override
+    public void update(User user) {
+        shards[shardOf(user.getId())].update(user);
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        shards[shardOf(id)].deleteById(id);
+    }
+
+    /** Ids are set on the users of each shard once that shard's insert has committed. */
+    @Override
+    public List<Long> saveAll(List<User> users) {
+        List<Long> saved = new ArrayList<>(users.size());
+        List<List<User>> inserts = emptyGroups();
+        List<List<User>> originals = emptyGroups();
+        for (User user : users) {
+            long id = nextId();
+            saved.add(id);
+            inserts.get(shardOf(id)).add(new User(id, user.getName(), user.getEmail()));
+            originals.get(shardOf(id)).add(user);
+        }
+        onShards(nonEmpty(inserts), shard -> {
+            List<User> inserted = inserts.get(shard);
+            shards[shard].insertWithIds(inserted);
+            for (int i = 0; i < inserted.size(); i++) {
+                originals.get(shard).get(i).setId(inserted.get(i).getId());
+            }
+            return null;
+        });
+        return saved;
+    }
+
+    @Override
+    public void updateAll(List<User> users) {
+        List<List<User>> byShard = groupByShard(users);
+        onShards(nonEmpty(byShard), shard -> {
+            shards[shard].updateAll(byShard.get(shard));
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteAllById(Collection<Long> ids) {
+        List<List<Long>> byShard = groupIdsByShard(ids);
+        onShards(nonEmpty(byShard), shard -> {
+            shards[shard].deleteAllById(byShard.get(shard));
+            return null;
+        });
+    }
+
+    @Override
+    public List<User> findAllById(Collection<Long> ids) {
+        List<List<Long>> byShard = groupIdsByShard(ids);
+        List<User> users = new ArrayList<>(ids.size());
+        for (List<User> shardUsers : onShards(nonEmpty(byShard), shard -> shards[shard].findAllById(byShard.get(shard)))) {
+            users.addAll(shardUsers);
+        }
+        return users;
+    }
+
+    /** Streams the shards one after the other, holding one shard's connection at a time; not ordered by id. */
+    @Override
+    public Stream<User> streamAll(int fetchSize) {
+        return Arrays.stream(shards).flatMap(shard -> shard.streamAll(fetchSize));
+    }
+
+    /** Fetches a page from every shard and keeps the {@code limit} lowest ids. */
+    @Override
+    public List<User> findPage(Long afterId, int limit) {
+        return mergePages(onShards(allShards(), shard -> shards[shard].findPage(afterId, limit)), BY_ID, limit);
+    }
+
+    @Override
+    public List<User> findPageBefore(Long beforeId, int limit) {
+        return mergePages(onShards(allShards(), shard -> shards[shard].findPageBefore(beforeId, limit)), BY_ID.reversed(), limit);
+    }
+
+    /**
+     * Moves the users whose id this DAO maps to a shard appended after the first
+     * {@code previousShardCount}, the list the data was written with; those shards must come
+     * first, in the same order. Runs a page at a time: each page's movers are inserted on
+     * their new shard, skipping any a failed earlier run already copied, then deleted from
+     * the old one, so a failed run can simply be repeated.
+     *
+     * Beforehand, the counters of the appended shards are advanced above the highest id on
+     * the old shards; their blocks would otherwise repeat ids that already exist. Stop all
+     * writes through the old list first, and write through this DAO only once this returns.
+     *
+     * @return the number of users moved
+     */
+    public long rebalance(int previousShardCount) {
+        if (previousShardCount < 1 || previousShardCount > shards.length) {
+            throw new IllegalArgumentException("previousShardCount must be between 1 and " + shards.length);
+        }
+        long maxId = 0;
+        for (int shard = 0; shard < previousShardCount; shard++) {
+            List<User> newest = shards[shard].findPageBefore(null, 1);
+            if (!newest.isEmpty()) maxId = Math.max(maxId, newest.get(0).getId());
+        }
+        for (int shard = previousShardCount; shard < shards.length; shard++) {
+            reserveThrough(shards[shard], maxId);
+        }
+        long moved = 0;
+        for (int shard = 0; shard < previousShardCount; shard++) {
+            Long after = null;
+            List<User> page;
+            while (!(page = shards[shard].findPage(after, REBALANCE_PAGE)).isEmpty()) {
+                after = page.get(page.size() - 1).getId();
+                List<List<User>> byShard = groupByShard(page);
+                for (int target = 0; target < shards.length; target++) {
+                    List<User> movers = byShard.get(target);
+                    if (target == shard || movers.isEmpty()) continue;
+                    List<Long> ids = movers.stream().map(User::getId).toList();
+                    Set<Long> copied = new HashSet<>();
+                    shards[target].findAllById(ids).forEach(user -> copied.add(user.getId()));
+                    shards[target].insertWithIds(movers.stream().filter(user -> !copied.contains(user.getId())).toList());
+                    shards[shard].deleteAllById(ids);
+                    moved += movers.size();
+                }
+            }
+        }
+        return moved;
+    }
+
+    /** Advances {@code shard}'s counter until the ids it hands out are above {@code maxId}. */
+    private static void reserveThrough(ShardableUserDao shard, long maxId) {
+        long next = shard.reserveIds(1) + 1;
+        while (next <= maxId) {
+            int count = (int) Math.min(Integer.MAX_VALUE, maxId + 1 - next);
+            next = shard.reserveIds(count) + count;
+        }
+    }
+
+    private long nextId() {
+        return ids[Math.floorMod(nextShard.getAndIncrement(), shards.length)].allocate();
+    }
+
+    private static List<User> mergePages(List<List<User>> pages, Comparator<User> order, int limit) {
+        List<User> users = new ArrayList<>();
+        for (List<User> page : pages) {
+            users.addAll(page);
+        }
+        users.sort(order);
+        return users.size() > limit ? new ArrayList<>(users.subList(0, limit)) : users;
+    }
+
+    private List<List<User>> groupByShard(List<User> users) {
+        List<List<User>> byShard = emptyGroups();
+        for (User user : users) {
+            byShard.get(shardOf(user.getId())).add(user);
+        }
+        return byShard;
+    }
+
+    private List<List<Long>> groupIdsByShard(Collection<Long> ids) {
+        List<List<Long>> byShard = emptyGroups();
+        for (Long id : ids) {
+            byShard.get(shardOf(id)).add(id);
+        }
+        return byShard;
+    }
+
+    private <T> List<List<T>> emptyGroups() {
+        List<List<T>> groups = new ArrayList<>(shards.length);
+        for (int shard = 0; shard < shards.length; shard++) {
+            groups.add(new ArrayList<>());
+        }
+        return groups;
+    }
+
+    private int[] allShards() {
+        int[] all = new int[shards.length];
+        Arrays.setAll(all, shard -> shard);
+        return all;
+    }
+
+    private static int[] nonEmpty(List<? extends List<?>> byShard) {
+        int[] targets = new int[byShard.size()];
+        int count = 0;
+        for (int shard = 0; shard < byShard.size(); shard++) {
+            if (!byShard.get(shard).isEmpty()) targets[count++] = shard;
+        }
+        return Arrays.copyOf(targets, count);
+    }
+
+    /**
+     * Runs {@code call} for each of {@code targets} on its own virtual thread and returns the
+     * results in the order of {@code targets}. No thread outlives the call: on the first
+     * failure the others are interrupted and waited for before it is rethrown.
+     */
+    private <T> List<T> onShards(int[] targets, IntFunction<T> call) {
+        if (targets.length == 0) return List.of();
+        if (targets.length == 1) return List.of(call.apply(targets[0]));
+        Object[] results = new Object[targets.length];
+        List<Future<?>> tasks = new ArrayList<>(targets.length);
+        try (ExecutorService scope = Executors.newThreadPerTaskExecutor(threads)) {
+            ExecutorCompletionService<Object> completed = new ExecutorCompletionService<>(scope);
+            for (int i = 0; i < targets.length; i++) {
+                int index = i;
+                tasks.add(completed.submit(() -> results[index] = call.apply(targets[index])));
+            }
+            try {
+                for (int i = 0; i < targets.length; i++) {
+                    completed.take().get();
+                }
+            } catch (ExecutionException e) {
+                tasks.forEach(task -> task.cancel(true));
+                if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+                if (e.getCause() instanceof Error error) throw error;
+                throw new RuntimeException("Error querying shards", e.getCause());
+            } catch (InterruptedException e) {
+                tasks.forEach(task -> task.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while querying shards", e);
+            }
+        }
+        @SuppressWarnings("unchecked")
+        List<T> list = (List<T>) Arrays.asList(results);
+        return list;
+    }
+
+    /** SplitMix64 finalizer: spreads sequential ids evenly over the ring. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /** Id allocation for one shard from the blocks it reserves in its database. */
+    private final class ShardIds {
+        private final int shard;
+        // The unused rest of the current block, [next, end)
+        private long next;
+        private long end;
+
+        ShardIds(int shard) {
+            this.shard = shard;
+        }
+
+        synchronized long allocate() {
+            while (true) {
+                if (next == end) {
+                    next = shards[shard].reserveIds(ID_BLOCK);
+                    end = next + ID_BLOCK;
+                }
+                long id = next++;
+                if (shardOf(id) == shard) return id;
+            }
+        }
+    }
+}
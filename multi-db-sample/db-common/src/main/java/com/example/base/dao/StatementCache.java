@@ -0,0 +1,76 @@
+package com.example.base.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LRU cache of {@link PreparedStatement}s for one {@link Connection}, keyed by SQL text.
+ *
+ * Callers must not close a statement they got from {@link #prepare(String)}, only its
+ * result sets, and must call {@link #invalidate(String)} if using it failed. Evicted
+ * statements are closed. Statements closed behind the cache's back (e.g. because the
+ * connection was closed) are detected and prepared again. Like the connection itself, a
+ * cached statement must not be used by two threads at once.
+ */
+public class StatementCache implements AutoCloseable {
+    private final Connection connection;
+    private final Map<String, PreparedStatement> statements;
+
+    public StatementCache(Connection connection, int maxSize) {
+        if (maxSize < 1) throw new IllegalArgumentException("maxSize must be >= 1");
+        this.connection = connection;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() <= maxSize) return false;
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    public synchronized PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement stmt = statements.get(sql);
+        if (stmt != null && !stmt.isClosed()) {
+            stmt.clearParameters();
+            return stmt;
+        }
+        stmt = connection.prepareStatement(sql);
+        statements.put(sql, stmt);
+        return stmt;
+    }
+
+    /** Drops and closes the statement for {@code sql}, e.g. after it threw. */
+    public synchronized void invalidate(String sql) {
+        PreparedStatement stmt = statements.remove(sql);
+        if (stmt != null) closeQuietly(stmt);
+    }
+
+    public synchronized int size() {
+        return statements.size();
+    }
+
+    /** Closes every cached statement. The connection stays open. */
+    @Override
+    public void close() {
+        List<PreparedStatement> open;
+        synchronized (this) {
+            open = new ArrayList<>(statements.values());
+            statements.clear();
+        }
+        open.forEach(StatementCache::closeQuietly);
+    }
+
+    private static void closeQuietly(PreparedStatement stmt) {
+        try {
+            stmt.close();
+        } catch (SQLException ignored) {
+            // the connection is probably gone already, which closed the statement anyway
+        }
+    }
+}
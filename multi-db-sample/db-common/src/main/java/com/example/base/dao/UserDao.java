@@ -1,13 +1,62 @@
 package com.example.base.dao;
 
 import com.example.base.entity.User;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserDao {
+    /** Rows per round trip used by {@link #streamAll()}. */
+    int DEFAULT_FETCH_SIZE = 1000;
+
     Optional<User> findById(Long id);
     List<User> findAll();
     void save(User user);
     void update(User user);
     void deleteById(Long id);
-}
\ No newline at end of file
+
+    /**
+     * Insert all users in as few round trips as possible. Generated ids are set on the
+     * users and returned in the same order as the input list.
+     */
+    List<Long> saveAll(List<User> users);
+
+    /** Batched variant of {@link #update(User)}. */
+    void updateAll(List<User> users);
+
+    /** Batched variant of {@link #deleteById(Long)}. Unknown ids are ignored. */
+    void deleteAllById(Collection<Long> ids);
+
+    /** Users whose id is in {@code ids}; missing ids are skipped. No particular order. */
+    List<User> findAllById(Collection<Long> ids);
+
+    /**
+     * Lazily streams every user through a server-side cursor, reading {@code fetchSize}
+     * rows per round trip, so memory use does not grow with the table size. The stream
+     * holds a connection and an open cursor until it is closed; always use it in
+     * try-with-resources.
+     *
+     * On MySQL, Connector/J only honours the fetch size with {@code useCursorFetch=true}
+     * in the JDBC URL.
+     */
+    Stream<User> streamAll(int fetchSize);
+
+    default Stream<User> streamAll() {
+        return streamAll(DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * Keyset page: up to {@code limit} users with an id greater than {@code afterId}, in
+     * ascending id order. Pass {@code null} for the first page and the last id of a page
+     * for the next one; every page costs one index range scan, however deep it is. A
+     * {@code limit} that is not positive is an {@link IllegalArgumentException}.
+     */
+    List<User> findPage(Long afterId, int limit);
+
+    /**
+     * Reverse keyset page: up to {@code limit} users with an id less than {@code beforeId},
+     * in descending id order. Pass {@code null} to start from the newest user.
+     */
+    List<User> findPageBefore(Long beforeId, int limit);
+}
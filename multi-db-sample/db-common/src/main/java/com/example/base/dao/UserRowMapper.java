@@ -0,0 +1,50 @@
+package com.example.base.dao;
+
+import com.example.base.entity.User;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * {@link RowMapper} for {@link User} with the column positions resolved up front, so each
+ * row is read by index instead of searching the column labels on every getXxx call.
+ * Create one per result set with {@link #of(ResultSetMetaData)}.
+ */
+public final class UserRowMapper implements RowMapper<User> {
+    private final int idIndex;
+    private final int nameIndex;
+    private final int emailIndex;
+
+    private UserRowMapper(int idIndex, int nameIndex, int emailIndex) {
+        this.idIndex = idIndex;
+        this.nameIndex = nameIndex;
+        this.emailIndex = emailIndex;
+    }
+
+    /** Resolves the id, name and email columns by label, ignoring case. */
+    public static UserRowMapper of(ResultSetMetaData metaData) throws SQLException {
+        int id = 0;
+        int name = 0;
+        int email = 0;
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            String label = metaData.getColumnLabel(i);
+            if (id == 0 && "id".equalsIgnoreCase(label)) id = i;
+            else if (name == 0 && "name".equalsIgnoreCase(label)) name = i;
+            else if (email == 0 && "email".equalsIgnoreCase(label)) email = i;
+        }
+        if (id == 0 || name == 0 || email == 0) {
+            throw new SQLException("Result set lacks one of the user columns id, name, email");
+        }
+        return new UserRowMapper(id, name, email);
+    }
+
+    @Override
+    public User mapRow(ResultSet rs) throws SQLException {
+        User user = new User();
+        user.setId(rs.getLong(idIndex));
+        user.setName(rs.getString(nameIndex));
+        user.setEmail(rs.getString(emailIndex));
+        return user;
+    }
+}
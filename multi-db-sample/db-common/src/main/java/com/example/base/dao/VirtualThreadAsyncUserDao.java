@@ -0,0 +1,132 @@
+package com.example.base.dao;
+
+import com.example.base.entity.User;
+import com.example.common.PoolConfig;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * {@link AsyncUserDao} over any blocking {@link UserDao}, running each call on its own
+ * virtual thread.
+ *
+ * Callers can have any number of calls in flight, but at most {@code maxConcurrency} run
+ * against the delegate at once; the rest park cheaply on a semaphore. Set the cap to the
+ * connection pool size so the DAO never queues on the pool itself.
+ */
+public class VirtualThreadAsyncUserDao implements AsyncUserDao, AutoCloseable {
+    private final UserDao delegate;
+    private final Semaphore permits;
+    private final ExecutorService executor;
+
+    public VirtualThreadAsyncUserDao(UserDao delegate, int maxConcurrency) {
+        if (maxConcurrency < 1) throw new IllegalArgumentException("maxConcurrency must be >= 1");
+        this.delegate = delegate;
+        this.permits = new Semaphore(maxConcurrency);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("async-user-dao-", 0).factory());
+    }
+
+    /** Caps concurrency at the pool's {@code maxPoolSize}. */
+    public VirtualThreadAsyncUserDao(UserDao delegate, PoolConfig poolConfig) {
+        this(delegate, poolConfig.getMaxPoolSize());
+    }
+
+    @Override
+    public CompletableFuture<Optional<User>> findById(Long id) {
+        return submit(() -> delegate.findById(id));
+    }
+
+    @Override
+    public CompletableFuture<List<User>> findAll() {
+        return submit(delegate::findAll);
+    }
+
+    @Override
+    public CompletableFuture<Void> save(User user) {
+        return run(() -> delegate.save(user));
+    }
+
+    @Override
+    public CompletableFuture<Void> update(User user) {
+        return run(() -> delegate.update(user));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteById(Long id) {
+        return run(() -> delegate.deleteById(id));
+    }
+
+    @Override
+    public CompletableFuture<List<Long>> saveAll(List<User> users) {
+        return submit(() -> delegate.saveAll(users));
+    }
+
+    @Override
+    public CompletableFuture<Void> updateAll(List<User> users) {
+        return run(() -> delegate.updateAll(users));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAllById(Collection<Long> ids) {
+        return run(() -> delegate.deleteAllById(ids));
+    }
+
+    @Override
+    public CompletableFuture<List<User>> findAllById(Collection<Long> ids) {
+        return submit(() -> delegate.findAllById(ids));
+    }
+
+    @Override
+    public CompletableFuture<List<User>> findPage(Long afterId, int limit) {
+        return submit(() -> delegate.findPage(afterId, limit));
+    }
+
+    @Override
+    public CompletableFuture<List<User>> findPageBefore(Long beforeId, int limit) {
+        return submit(() -> delegate.findPageBefore(beforeId, limit));
+    }
+
+    /** Calls currently waiting for a permit. */
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+    /** Stops accepting calls and waits for the ones in flight to finish. */
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    private CompletableFuture<Void> run(Runnable call) {
+        return submit(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> call) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                future.completeExceptionally(e);
+                return;
+            }
+            try {
+                future.complete(call.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                permits.release();
+            }
+        });
+        return future;
+    }
+}
@@ -3,6 +3,11 @@ package com.example.common;
 import java.sql.Connection;
 import java.sql.SQLException;
 
-public interface DatabaseConnection {
+public interface DatabaseConnection extends AutoCloseable {
     Connection getConnection() throws SQLException;
-}
\ No newline at end of file
+
+    /** Releases what the connection source holds, e.g. a pool's connections. Nothing by default. */
+    @Override
+    default void close() {
+    }
+}
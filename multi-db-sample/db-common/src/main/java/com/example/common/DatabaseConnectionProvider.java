@@ -0,0 +1,39 @@
+package com.example.common;
+
+import org.jooq.ConnectionProvider;
+import org.jooq.exception.DataAccessException;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * jOOQ {@link ConnectionProvider} that borrows a connection from a {@link DatabaseConnection}
+ * for each statement (or transaction) and closes it afterwards. Backed by a
+ * {@link PooledDatabaseConnection}, closing hands the connection back to the pool, so a
+ * DSLContext built on this provider can be shared by any number of threads.
+ */
+public class DatabaseConnectionProvider implements ConnectionProvider {
+    private final DatabaseConnection dbConnection;
+
+    public DatabaseConnectionProvider(DatabaseConnection dbConnection) {
+        this.dbConnection = dbConnection;
+    }
+
+    @Override
+    public Connection acquire() {
+        try {
+            return dbConnection.getConnection();
+        } catch (SQLException e) {
+            throw new DataAccessException("Error acquiring connection", e);
+        }
+    }
+
+    @Override
+    public void release(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            throw new DataAccessException("Error releasing connection", e);
+        }
+    }
+}
@@ -1,8 +1,17 @@
 package com.example.common;
 
+import com.example.base.dao.BulkLoader;
 import com.example.base.dao.UserDao;
 
 public interface DatabaseFactory {
     UserDao createUserDao();
+
+    /** A DAO on {@code dbConnection} instead of the last one created, e.g. for a replica. */
+    UserDao createUserDao(DatabaseConnection dbConnection);
+
+    BulkLoader createBulkLoader();
+
+    BulkLoader createBulkLoader(DatabaseConnection dbConnection);
+
     DatabaseConnection createDatabaseConnection(String url, String user, String password);
-}
\ No newline at end of file
+}
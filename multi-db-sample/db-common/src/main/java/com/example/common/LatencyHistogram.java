@@ -0,0 +1,167 @@
+package com.example.common;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear histogram of nanosecond latencies.
+ *
+ * Every power of two is split into 16 linear sub-buckets, so a reported percentile is
+ * within ~6% of the recorded value. {@link #record(long)} only touches atomics and
+ * never allocates after a thread's first call, which makes it safe to call on hot paths
+ * from many threads.
+ *
+ * To keep those threads from contending, the bucket counts and the maximum are striped:
+ * each thread records into one of up to {@value #MAX_STRIPES} arrays picked by its id,
+ * allocated on first use, and the readers merge the stripes. Count and total are
+ * {@link LongAdder}s.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    // Each stripe holds the bucket counts followed by the stripe's maximum
+    private static final int MAX_SLOT = BUCKETS;
+    private static final int MAX_STRIPES = 64;
+    private static final int STRIPES = Math.min(MAX_STRIPES,
+            1 << (32 - Integer.numberOfLeadingZeros(Runtime.getRuntime().availableProcessors() - 1)));
+
+    private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPES);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+
+    public void record(long nanos) {
+        long value = Math.max(0L, nanos);
+        AtomicLongArray stripe = stripe();
+        stripe.incrementAndGet(indexOf(value));
+        long current;
+        while (value > (current = stripe.get(MAX_SLOT)) && !stripe.compareAndSet(MAX_SLOT, current, value)) {
+            // retry until our value is no longer the stripe's maximum or the CAS wins
+        }
+        count.increment();
+        total.add(value);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMaxNanos() {
+        long max = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            AtomicLongArray stripe = stripes.get(i);
+            if (stripe != null) max = Math.max(max, stripe.get(MAX_SLOT));
+        }
+        return max;
+    }
+
+    public double getMeanNanos() {
+        long n = count.sum();
+        return n == 0 ? 0.0 : (double) total.sum() / n;
+    }
+
+    /**
+     * Upper bound of the bucket holding the given percentile (0-100), in nanoseconds.
+     * Returns 0 when nothing has been recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        for (int s = 0; s < STRIPES; s++) {
+            AtomicLongArray stripe = stripes.get(s);
+            if (stripe == null) continue;
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] += stripe.get(i);
+            }
+        }
+        long n = 0;
+        for (long c : snapshot) {
+            n += c;
+        }
+        if (n == 0) return 0L;
+        long max = getMaxNanos();
+        long rank = Math.max(1L, (long) Math.ceil(Math.min(100.0, percentile) / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    public double getValueAtPercentile(double percentile, TimeUnit unit) {
+        return (double) getValueAtPercentile(percentile) / unit.toNanos(1);
+    }
+
+    /** Adds every recording of {@code other} to this histogram. */
+    public void add(LatencyHistogram other) {
+        AtomicLongArray stripe = stripe();
+        for (int s = 0; s < STRIPES; s++) {
+            AtomicLongArray from = other.stripes.get(s);
+            if (from == null) continue;
+            for (int i = 0; i < BUCKETS; i++) {
+                long c = from.get(i);
+                if (c != 0) stripe.addAndGet(i, c);
+            }
+            long otherMax = from.get(MAX_SLOT);
+            long current;
+            while (otherMax > (current = stripe.get(MAX_SLOT)) && !stripe.compareAndSet(MAX_SLOT, current, otherMax)) {
+                // retry
+            }
+        }
+        count.add(other.count.sum());
+        total.add(other.total.sum());
+    }
+
+    public void reset() {
+        for (int s = 0; s < STRIPES; s++) {
+            AtomicLongArray stripe = stripes.get(s);
+            if (stripe == null) continue;
+            for (int i = 0; i <= MAX_SLOT; i++) {
+                stripe.set(i, 0L);
+            }
+        }
+        count.reset();
+        total.reset();
+    }
+
+    /** The calling thread's stripe, allocated by the first thread to use it. */
+    private AtomicLongArray stripe() {
+        long hash = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+        int index = (int) (hash >>> 32) & (STRIPES - 1);
+        AtomicLongArray stripe = stripes.get(index);
+        if (stripe == null) {
+            stripes.compareAndSet(index, null, new AtomicLongArray(MAX_SLOT + 1));
+            stripe = stripes.get(index);
+        }
+        return stripe;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int sub = index % SUB_BUCKETS;
+        long lower = (long) (SUB_BUCKETS + sub) << (exponent - SUB_BUCKET_BITS);
+        return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d mean=%.1fus p50=%.1fus p99=%.1fus max=%.1fus",
+                getCount(),
+                getMeanNanos() / 1_000.0,
+                getValueAtPercentile(50.0, TimeUnit.MICROSECONDS),
+                getValueAtPercentile(99.0, TimeUnit.MICROSECONDS),
+                getMaxNanos() / 1_000.0);
+    }
+}
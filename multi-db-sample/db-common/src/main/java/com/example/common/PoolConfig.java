@@ -0,0 +1,83 @@
+package com.example.common;
+
+import java.time.Duration;
+
+/**
+ * Settings for {@link PooledDatabaseConnection}. Setters return {@code this} so a config
+ * can be built in one expression:
+ *
+ * <pre>
+ * new PoolConfig().maxPoolSize(20).minIdle(5).leakDetectionThreshold(Duration.ofSeconds(30))
+ * </pre>
+ */
+public class PoolConfig {
+    private int maxPoolSize = 10;
+    private int minIdle = 2;
+    private Duration acquireTimeout = Duration.ofSeconds(30);
+    private Duration validationTimeout = Duration.ofSeconds(5);
+    private Duration maxLifetime = Duration.ofMinutes(30);
+    private Duration leakDetectionThreshold = Duration.ZERO;
+    private Duration housekeepingPeriod = Duration.ofSeconds(30);
+
+    /** Upper bound on physical connections, borrowed and idle together. */
+    public PoolConfig maxPoolSize(int maxPoolSize) {
+        if (maxPoolSize < 1) throw new IllegalArgumentException("maxPoolSize must be >= 1");
+        this.maxPoolSize = maxPoolSize;
+        return this;
+    }
+
+    /** Idle connections opened up front and kept ready by the housekeeper. */
+    public PoolConfig minIdle(int minIdle) {
+        if (minIdle < 0) throw new IllegalArgumentException("minIdle must be >= 0");
+        this.minIdle = minIdle;
+        return this;
+    }
+
+    /** How long {@code getConnection()} waits for a free slot before failing. */
+    public PoolConfig acquireTimeout(Duration acquireTimeout) {
+        this.acquireTimeout = requirePositive(acquireTimeout, "acquireTimeout");
+        return this;
+    }
+
+    /** Timeout passed to {@link java.sql.Connection#isValid(int)} when an idle connection is borrowed. */
+    public PoolConfig validationTimeout(Duration validationTimeout) {
+        this.validationTimeout = requirePositive(validationTimeout, "validationTimeout");
+        return this;
+    }
+
+    /** Physical connections older than this are closed instead of being reused. */
+    public PoolConfig maxLifetime(Duration maxLifetime) {
+        this.maxLifetime = requirePositive(maxLifetime, "maxLifetime");
+        return this;
+    }
+
+    /** Log a warning when a connection stays borrowed longer than this. Zero disables detection. */
+    public PoolConfig leakDetectionThreshold(Duration leakDetectionThreshold) {
+        if (leakDetectionThreshold == null || leakDetectionThreshold.isNegative()) {
+            throw new IllegalArgumentException("leakDetectionThreshold must be >= 0");
+        }
+        this.leakDetectionThreshold = leakDetectionThreshold;
+        return this;
+    }
+
+    /** Interval of the background task that retires expired connections, refills min-idle and checks for leaks. */
+    public PoolConfig housekeepingPeriod(Duration housekeepingPeriod) {
+        this.housekeepingPeriod = requirePositive(housekeepingPeriod, "housekeepingPeriod");
+        return this;
+    }
+
+    public int getMaxPoolSize() { return maxPoolSize; }
+    public int getMinIdle() { return Math.min(minIdle, maxPoolSize); }
+    public Duration getAcquireTimeout() { return acquireTimeout; }
+    public Duration getValidationTimeout() { return validationTimeout; }
+    public Duration getMaxLifetime() { return maxLifetime; }
+    public Duration getLeakDetectionThreshold() { return leakDetectionThreshold; }
+    public Duration getHousekeepingPeriod() { return housekeepingPeriod; }
+
+    private static Duration requirePositive(Duration value, String name) {
+        if (value == null || value.isNegative() || value.isZero()) {
+            throw new IllegalArgumentException(name + " must be > 0");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.common;
+
+/**
+ * Point-in-time view of a {@link PooledDatabaseConnection}. The acquire-time histogram is
+ * the pool's live instance, so it keeps accumulating after the snapshot is taken.
+ */
+public class PoolMetrics {
+    private final int active;
+    private final int idle;
+    private final int waiters;
+    private final int maxPoolSize;
+    private final long leaksDetected;
+    private final LatencyHistogram acquireTime;
+
+    PoolMetrics(int active, int idle, int waiters, int maxPoolSize, long leaksDetected, LatencyHistogram acquireTime) {
+        this.active = active;
+        this.idle = idle;
+        this.waiters = waiters;
+        this.maxPoolSize = maxPoolSize;
+        this.leaksDetected = leaksDetected;
+        this.acquireTime = acquireTime;
+    }
+
+    /** Connections currently borrowed. */
+    public int getActive() { return active; }
+
+    /** Open connections waiting in the pool. */
+    public int getIdle() { return idle; }
+
+    public int getTotal() { return active + idle; }
+
+    /** Threads blocked in {@code getConnection()} (an estimate, as reported by the semaphore). */
+    public int getWaiters() { return waiters; }
+
+    public int getMaxPoolSize() { return maxPoolSize; }
+
+    /** Borrows that exceeded the leak detection threshold since the pool was created. */
+    public long getLeaksDetected() { return leaksDetected; }
+
+    /** Time spent inside {@code getConnection()}, including waiting, validation and connecting. */
+    public LatencyHistogram getAcquireTime() { return acquireTime; }
+
+    @Override
+    public String toString() {
+        return "PoolMetrics{active=" + active + ", idle=" + idle + ", waiters=" + waiters
+                + ", max=" + maxPoolSize + ", leaks=" + leaksDetected + ", acquire=[" + acquireTime + "]}";
+    }
+}
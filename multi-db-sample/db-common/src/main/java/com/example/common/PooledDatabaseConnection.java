@@ -0,0 +1,321 @@
+package com.example.common;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded connection pool in front of another {@link DatabaseConnection} (by default a
+ * {@link DefaultDatabaseConnection}, i.e. DriverManager).
+ *
+ * {@link #getConnection()} hands out a proxy whose {@code close()} returns the physical
+ * connection to the pool instead of closing it. Idle connections are validated on borrow,
+ * retired after {@link PoolConfig#getMaxLifetime()}, and kept at
+ * {@link PoolConfig#getMinIdle()} by a daemon housekeeping thread, which also reports
+ * connections that stay borrowed longer than the leak detection threshold.
+ */
+public class PooledDatabaseConnection implements DatabaseConnection, AutoCloseable {
+    private static final System.Logger log = System.getLogger(PooledDatabaseConnection.class.getName());
+
+    private final DatabaseConnection source;
+    private final PoolConfig config;
+    // One permit per connection that may be borrowed; idle connections hold no permit
+    private final Semaphore permits;
+    private final BlockingDeque<PooledEntry> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledEntry> active = ConcurrentHashMap.newKeySet();
+    private final LatencyHistogram acquireTime = new LatencyHistogram();
+    private final AtomicLong leaksDetected = new AtomicLong();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    public PooledDatabaseConnection(String url, String user, String password) {
+        this(new DefaultDatabaseConnection(url, user, password), new PoolConfig());
+    }
+
+    public PooledDatabaseConnection(String url, String user, String password, PoolConfig config) {
+        this(new DefaultDatabaseConnection(url, user, password), config);
+    }
+
+    public PooledDatabaseConnection(DatabaseConnection source, PoolConfig config) {
+        this.source = source;
+        this.config = config;
+        this.permits = new Semaphore(config.getMaxPoolSize(), true);
+        fillMinIdle();
+
+        long period = config.getHousekeepingPeriod().toNanos();
+        if (!config.getLeakDetectionThreshold().isZero()) {
+            period = Math.min(period, Math.max(1L, config.getLeakDetectionThreshold().toNanos() / 2));
+        }
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(config.getAcquireTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new SQLTimeoutException("Timed out after " + config.getAcquireTimeout().toMillis()
+                        + "ms waiting for a connection (active=" + active.size()
+                        + ", max=" + config.getMaxPoolSize() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+        try {
+            PooledEntry entry = pollValidIdle();
+            if (entry == null) {
+                entry = new PooledEntry(source.getConnection());
+            }
+            entry.borrowedAt = System.nanoTime();
+            entry.borrowSite = config.getLeakDetectionThreshold().isZero() ? null : new Throwable("Connection borrowed here");
+            entry.leakReported = false;
+            active.add(entry);
+            acquireTime.record(System.nanoTime() - start);
+            return (Connection) Proxy.newProxyInstance(PooledDatabaseConnection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, new Handle(entry));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public PoolMetrics getMetrics() {
+        return new PoolMetrics(active.size(), idle.size(), permits.getQueueLength(),
+                config.getMaxPoolSize(), leaksDetected.get(), acquireTime);
+    }
+
+    public PoolConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Closes idle connections and stops housekeeping. Borrowed connections are closed
+     * when they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            entry.closePhysical();
+        }
+    }
+
+    private PooledEntry pollValidIdle() {
+        PooledEntry entry;
+        // LIFO: the most recently returned connection is the least likely to have gone stale
+        while ((entry = idle.pollFirst()) != null) {
+            if (entry.isExpired() || !entry.isValid()) {
+                entry.closePhysical();
+                continue;
+            }
+            return entry;
+        }
+        return null;
+    }
+
+    private void release(PooledEntry entry) {
+        active.remove(entry);
+        try {
+            if (closed || entry.isExpired() || !entry.reset()) {
+                entry.closePhysical();
+            } else {
+                idle.offerFirst(entry);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void housekeep() {
+        try {
+            for (PooledEntry entry : idle) {
+                if (entry.isExpired() && idle.remove(entry)) {
+                    entry.closePhysical();
+                }
+            }
+            fillMinIdle();
+            detectLeaks();
+        } catch (RuntimeException e) {
+            log.log(System.Logger.Level.WARNING, "Connection pool housekeeping failed", e);
+        }
+    }
+
+    private void fillMinIdle() {
+        // Take a permit while connecting so prefill never pushes the pool past maxPoolSize
+        while (!closed && idle.size() < config.getMinIdle()
+                && active.size() + idle.size() < config.getMaxPoolSize()
+                && permits.tryAcquire()) {
+            try {
+                idle.offerLast(new PooledEntry(source.getConnection()));
+            } catch (SQLException e) {
+                log.log(System.Logger.Level.WARNING, "Could not open idle connection: " + e.getMessage());
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private void detectLeaks() {
+        long threshold = config.getLeakDetectionThreshold().toNanos();
+        if (threshold == 0) return;
+        long now = System.nanoTime();
+        for (PooledEntry entry : active) {
+            if (!entry.leakReported && now - entry.borrowedAt > threshold) {
+                entry.leakReported = true;
+                leaksDetected.incrementAndGet();
+                log.log(System.Logger.Level.WARNING, "Connection held for more than "
+                        + config.getLeakDetectionThreshold().toMillis() + "ms, possible leak", entry.borrowSite);
+            }
+        }
+    }
+
+    /** A physical connection plus the bookkeeping the pool needs about it. */
+    private final class PooledEntry {
+        final Connection physical;
+        final long createdAt = System.nanoTime();
+        // Session state as opened, restored on every return
+        final boolean initialAutoCommit;
+        final boolean initialReadOnly;
+        final int initialIsolation;
+        final String initialCatalog;
+        final String initialSchema;
+        volatile long borrowedAt;
+        volatile Throwable borrowSite;
+        volatile boolean leakReported;
+
+        PooledEntry(Connection physical) throws SQLException {
+            this.physical = physical;
+            this.initialAutoCommit = physical.getAutoCommit();
+            this.initialReadOnly = physical.isReadOnly();
+            this.initialIsolation = physical.getTransactionIsolation();
+            this.initialCatalog = physical.getCatalog();
+            this.initialSchema = schemaOf(physical);
+        }
+
+        boolean isExpired() {
+            return System.nanoTime() - createdAt > config.getMaxLifetime().toNanos();
+        }
+
+        boolean isValid() {
+            try {
+                return physical.isValid((int) Math.max(1L, config.getValidationTimeout().toSeconds()));
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        /** Undo per-borrow state so the next borrower gets a clean connection. */
+        boolean reset() {
+            try {
+                if (physical.isClosed()) return false;
+                if (!physical.getAutoCommit()) physical.rollback();
+                if (physical.getAutoCommit() != initialAutoCommit) physical.setAutoCommit(initialAutoCommit);
+                if (physical.isReadOnly() != initialReadOnly) physical.setReadOnly(initialReadOnly);
+                if (physical.getTransactionIsolation() != initialIsolation) physical.setTransactionIsolation(initialIsolation);
+                if (!Objects.equals(physical.getCatalog(), initialCatalog)) physical.setCatalog(initialCatalog);
+                if (!Objects.equals(schemaOf(physical), initialSchema)) physical.setSchema(initialSchema);
+                physical.clearWarnings();
+                return true;
+            } catch (SQLException | RuntimeException e) {
+                // A connection we cannot put back into its original state is not reused
+                return false;
+            }
+        }
+
+        void closePhysical() {
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                log.log(System.Logger.Level.DEBUG, "Error closing pooled connection: " + e.getMessage());
+            }
+        }
+    }
+
+    /** getSchema() is JDBC 4.1; older drivers throw instead of answering. */
+    private static String schemaOf(Connection connection) {
+        try {
+            return connection.getSchema();
+        } catch (SQLException | AbstractMethodError | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Invocation handler behind each borrowed proxy; close() hands the connection back.
+     * unwrap() answers with the proxy itself for every JDBC interface it implements, so the
+     * physical connection never escapes. Vendor interfaces such as {@code PGConnection} are
+     * unwrapped from the physical connection; callers must not close what they get back.
+     */
+    private final class Handle implements InvocationHandler {
+        private final PooledEntry entry;
+        private boolean returned;
+
+        Handle(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (this) {
+                        if (!returned) {
+                            returned = true;
+                            release(entry);
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    synchronized (this) {
+                        return returned || entry.physical.isClosed();
+                    }
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + entry.physical + "]";
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) return proxy;
+                    break;
+                case "isWrapperFor":
+                    if (((Class<?>) args[0]).isInstance(proxy)) return true;
+                    break;
+                default:
+                    break;
+            }
+            synchronized (this) {
+                if (returned) throw new SQLException("Connection has already been returned to the pool");
+            }
+            try {
+                return method.invoke(entry.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.common;
+
+import com.example.base.dao.BulkLoader;
+import com.example.base.dao.RoutingUserDao;
+import com.example.base.dao.UserDao;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link DatabaseFactory} for a primary with read replicas, on top of a vendor factory.
+ * {@link #createDatabaseConnection} connects to the primary and {@link #addReplica} to each
+ * replica, each through its own {@link PooledDatabaseConnection}. {@link #createUserDao()}
+ * returns a {@link RoutingUserDao} that writes through the primary and balances reads
+ * across the replicas. Bulk loads go to the primary. {@link #close()} closes the pools this
+ * factory created.
+ *
+ * <pre>
+ * RoutingDatabaseFactory factory = new RoutingDatabaseFactory(new PostgreSQLFactory())
+ *         .readYourWrites(Duration.ofSeconds(1));
+ * factory.createDatabaseConnection("jdbc:postgresql://primary:5432/testdb", user, password);
+ * factory.addReplica("jdbc:postgresql://replica1:5432/testdb", user, password);
+ * factory.addReplica("jdbc:postgresql://replica2:5432/testdb", user, password);
+ * UserDao userDao = factory.createUserDao();
+ * </pre>
+ */
+public class RoutingDatabaseFactory implements DatabaseFactory, AutoCloseable {
+    private final DatabaseFactory delegate;
+    private final List<DatabaseConnection> replicas = new ArrayList<>();
+    private final List<DatabaseConnection> created = new ArrayList<>();
+    private DatabaseConnection primary;
+    private Duration readYourWritesWindow = Duration.ZERO;
+
+    public RoutingDatabaseFactory(DatabaseFactory delegate) {
+        this.delegate = delegate;
+    }
+
+    /** For connections created elsewhere, e.g. with a different pool configuration per database. */
+    public RoutingDatabaseFactory(DatabaseFactory delegate, DatabaseConnection primary, List<? extends DatabaseConnection> replicas) {
+        this.delegate = delegate;
+        this.primary = primary;
+        this.replicas.addAll(replicas);
+    }
+
+    /** See {@link RoutingUserDao}; applies to the DAOs created afterwards. */
+    public RoutingDatabaseFactory readYourWrites(Duration window) {
+        if (window.isNegative()) throw new IllegalArgumentException("window must not be negative");
+        this.readYourWritesWindow = window;
+        return this;
+    }
+
+    /** Connects to the primary. */
+    @Override
+    public DatabaseConnection createDatabaseConnection(String url, String user, String password) {
+        // Not through the delegate: the vendor factories close their previous pool on every call
+        this.primary = pool(url, user, password);
+        return primary;
+    }
+
+    /** Connects to one more replica. */
+    public DatabaseConnection addReplica(String url, String user, String password) {
+        DatabaseConnection replica = pool(url, user, password);
+        replicas.add(replica);
+        return replica;
+    }
+
+    @Override
+    public UserDao createUserDao() {
+        List<UserDao> replicaDaos = new ArrayList<>(replicas.size());
+        for (DatabaseConnection replica : replicas) {
+            replicaDaos.add(delegate.createUserDao(replica));
+        }
+        return new RoutingUserDao(delegate.createUserDao(requirePrimary()), replicaDaos, readYourWritesWindow);
+    }
+
+    /** A plain, unrouted DAO on {@code dbConnection}. */
+    @Override
+    public UserDao createUserDao(DatabaseConnection dbConnection) {
+        return delegate.createUserDao(dbConnection);
+    }
+
+    @Override
+    public BulkLoader createBulkLoader() {
+        return delegate.createBulkLoader(requirePrimary());
+    }
+
+    @Override
+    public BulkLoader createBulkLoader(DatabaseConnection dbConnection) {
+        return delegate.createBulkLoader(dbConnection);
+    }
+
+    public DatabaseConnection getPrimary() {
+        return primary;
+    }
+
+    public List<DatabaseConnection> getReplicas() {
+        return List.copyOf(replicas);
+    }
+
+    /** Closes the pools created by this factory; connections passed to the constructor stay open. */
+    @Override
+    public void close() {
+        for (DatabaseConnection connection : created) {
+            connection.close();
+        }
+        created.clear();
+    }
+
+    private DatabaseConnection pool(String url, String user, String password) {
+        DatabaseConnection connection = new PooledDatabaseConnection(url, user, password);
+        created.add(connection);
+        return connection;
+    }
+
+    private DatabaseConnection requirePrimary() {
+        if (primary == null) throw new IllegalStateException("No primary connection; call createDatabaseConnection first");
+        return primary;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.entity;
+
+import com.example.base.dao.BulkLoader;
+import com.example.base.entity.User;
+import org.jooq.BatchBindStep;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Query;
+import org.jooq.Table;
+
+import java.util.Iterator;
+
+/**
+ * Portable {@link BulkLoader}: one INSERT statement executed as JDBC batches of
+ * {@code batchSize} rows, all inside one transaction. Used for the vendors without a
+ * dedicated bulk path. On MySQL add {@code rewriteBatchedStatements=true} to the JDBC URL,
+ * otherwise Connector/J still sends the batch one row at a time.
+ */
+public class BatchBulkLoader implements BulkLoader {
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private final DSLContext dsl;
+    private final Table<?> userTable;
+    private final Field<String> nameField;
+    private final Field<String> emailField;
+    private final int batchSize;
+
+    public BatchBulkLoader(DSLContext dsl, Table<?> userTable, Field<String> nameField, Field<String> emailField) {
+        this(dsl, userTable, nameField, emailField, DEFAULT_BATCH_SIZE);
+    }
+
+    public BatchBulkLoader(DSLContext dsl, Table<?> userTable, Field<String> nameField, Field<String> emailField,
+                           int batchSize) {
+        if (batchSize <= 0) throw new IllegalArgumentException("batchSize must be positive");
+        this.dsl = dsl;
+        this.userTable = userTable;
+        this.nameField = nameField;
+        this.emailField = emailField;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public long load(Iterator<? extends User> users) {
+        try {
+            return dsl.transactionResult(tx -> {
+                Query insert = tx.dsl().insertInto(userTable, nameField, emailField).values((String) null, null);
+                long loaded = 0;
+                while (users.hasNext()) {
+                    BatchBindStep batch = tx.dsl().batch(insert);
+                    int size = 0;
+                    while (size < batchSize && users.hasNext()) {
+                        User user = users.next();
+                        batch.bind(user.getName(), user.getEmail());
+                        size++;
+                    }
+                    batch.execute();
+                    loaded += size;
+                }
+                return loaded;
+            });
+        } catch (Exception e) {
+            throw new RuntimeException("Error bulk loading users", e);
+        }
+    }
+}
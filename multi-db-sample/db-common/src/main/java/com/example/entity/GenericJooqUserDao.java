@@ -1,14 +1,29 @@
 package com.example.entity;
 
 import com.example.base.entity.User;
-import com.example.base.dao.UserDao;
+import com.example.base.dao.ShardableUserDao;
+import com.example.jooq.QueryTemplate;
+import org.jooq.BatchBindStep;
+import org.jooq.Condition;
+import org.jooq.ConnectionProvider;
 import org.jooq.DSLContext;
 import org.jooq.Field;
+import org.jooq.InsertValuesStep2;
+import org.jooq.InsertValuesStep3;
 import org.jooq.Record;
+import org.jooq.Record1;
 import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.jooq.impl.DefaultConnectionProvider;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Generic JOOQ-based UserDao implementation that is table/field-agnostic.
@@ -22,7 +37,20 @@ import java.util.Optional;
  * - override {@link #convertId(Long)} and {@link #convertNumberToLong(Object)} to
  *   support non-numeric id types (UUID, String, etc.) in concrete subclasses.
  */
-public class GenericJooqUserDao<R extends Record, I> implements UserDao {
+public class GenericJooqUserDao<R extends Record, I> implements ShardableUserDao {
+    /** Rows per statement for the batch operations, fewer where {@link #MAX_BIND_PARAMS} requires. */
+    protected static final int BATCH_CHUNK_SIZE = 1000;
+
+    /**
+     * Bind parameters per statement for multi-row INSERTs and IN-lists. SQL Server allows at
+     * most 2100, the other supported databases more; chunk sizes are derived from this and
+     * the parameters each row binds.
+     */
+    protected static final int MAX_BIND_PARAMS = 2000;
+
+    private static final Table<Record> ID_BLOCKS = DSL.table(DSL.name("user_id_blocks"));
+    private static final Field<Long> NEXT_ID = DSL.field(DSL.name("user_id_blocks", "next_id"), Long.class);
+
     protected final DSLContext dsl;
     protected final Table<R> userTable;
     protected final Field<I> idField;
@@ -30,17 +58,21 @@ public class GenericJooqUserDao<R extends Record, I> implements UserDao {
     protected final Field<String> emailField;
     protected final IdConverter<I> idConverter;
 
+    // id, name and email under User's property names, the id already converted to Long, so
+    // the reads map through the configured RecordMapperProvider (into(User.class))
+    private final Field<?>[] userFields;
+
+    // Single-row statements, rendered once; null when constructed without a DSLContext
+    private final QueryTemplate findByIdTemplate;
+    private final QueryTemplate updateTemplate;
+    private final QueryTemplate deleteByIdTemplate;
+
     public GenericJooqUserDao(DSLContext dsl,
                               Table<R> userTable,
                               Field<I> idField,
                               Field<String> nameField,
                               Field<String> emailField) {
-        this.dsl = dsl;
-        this.userTable = userTable;
-        this.idField = idField;
-        this.nameField = nameField;
-        this.emailField = emailField;
-        this.idConverter = new DefaultIdConverter<>(idField);
+        this(dsl, userTable, idField, nameField, emailField, new DefaultIdConverter<>(idField));
     }
 
     /**
@@ -58,6 +90,14 @@ public class GenericJooqUserDao<R extends Record, I> implements UserDao {
         this.nameField = nameField;
         this.emailField = emailField;
         this.idConverter = idConverter;
+        this.userFields = userFields();
+        Field<I> id = DSL.val(null, idField);
+        this.findByIdTemplate = new QueryTemplate(dsl, dsl.select(userFields).from(userTable).where(idField.eq(id)));
+        this.updateTemplate = new QueryTemplate(dsl, dsl.update(userTable)
+                .set(nameField, (String) null)
+                .set(emailField, (String) null)
+                .where(idField.eq(id)));
+        this.deleteByIdTemplate = new QueryTemplate(dsl, dsl.deleteFrom(userTable).where(idField.eq(id)));
     }
 
     /**
@@ -65,12 +105,7 @@ public class GenericJooqUserDao<R extends Record, I> implements UserDao {
      * Allows testing id conversion helpers without a jOOQ runtime.
      */
     GenericJooqUserDao(Table<R> userTable, Field<I> idField, Field<String> nameField, Field<String> emailField) {
-        this.dsl = null;
-        this.userTable = userTable;
-        this.idField = idField;
-        this.nameField = nameField;
-        this.emailField = emailField;
-        this.idConverter = new DefaultIdConverter<>(idField);
+        this(userTable, idField, nameField, emailField, new DefaultIdConverter<>(idField));
     }
 
     GenericJooqUserDao(Table<R> userTable, Field<I> idField, Field<String> nameField, Field<String> emailField, IdConverter<I> idConverter) {
@@ -80,18 +115,18 @@ public class GenericJooqUserDao<R extends Record, I> implements UserDao {
         this.nameField = nameField;
         this.emailField = emailField;
         this.idConverter = idConverter;
+        this.userFields = userFields();
+        this.findByIdTemplate = null;
+        this.updateTemplate = null;
+        this.deleteByIdTemplate = null;
     }
 
     @Override
     public Optional<User> findById(Long id) {
         try {
-            var record = dsl.selectFrom(userTable).where(idField.eq(convertId(id))).fetchOne();
+            Record record = findByIdTemplate.fetchOne(convertId(id));
             if (record != null) {
-                User user = new User();
-                user.setId(convertNumberToLong(record.get(idField)));
-                user.setName(record.get(nameField));
-                user.setEmail(record.get(emailField));
-                return Optional.of(user);
+                return Optional.of(record.into(User.class));
             }
         } catch (Exception e) {
             throw new RuntimeException("Error finding user by id", e);
@@ -102,20 +137,92 @@ public class GenericJooqUserDao<R extends Record, I> implements UserDao {
     @Override
     public List<User> findAll() {
         try {
-            return dsl.selectFrom(userTable)
-                    .fetch()
-                    .map(r -> {
-                        User user = new User();
-                        user.setId(convertNumberToLong(r.get(idField)));
-                        user.setName(r.get(nameField));
-                        user.setEmail(r.get(emailField));
-                        return user;
-                    });
+            return dsl.select(userFields)
+                    .from(userTable)
+                    .fetchInto(User.class);
         } catch (Exception e) {
             throw new RuntimeException("Error finding all users", e);
         }
     }
 
+    @Override
+    public List<User> findPage(Long afterId, int limit) {
+        if (limit <= 0) throw new IllegalArgumentException("limit must be positive");
+        Condition after = afterId == null ? DSL.noCondition() : idField.gt(convertId(afterId));
+        try {
+            return dsl.select(userFields)
+                    .from(userTable)
+                    .where(after)
+                    .orderBy(idField.asc())
+                    .limit(limit)
+                    .fetchInto(User.class);
+        } catch (Exception e) {
+            throw new RuntimeException("Error finding user page", e);
+        }
+    }
+
+    @Override
+    public List<User> findPageBefore(Long beforeId, int limit) {
+        if (limit <= 0) throw new IllegalArgumentException("limit must be positive");
+        Condition before = beforeId == null ? DSL.noCondition() : idField.lt(convertId(beforeId));
+        try {
+            return dsl.select(userFields)
+                    .from(userTable)
+                    .where(before)
+                    .orderBy(idField.desc())
+                    .limit(limit)
+                    .fetchInto(User.class);
+        } catch (Exception e) {
+            throw new RuntimeException("Error finding user page", e);
+        }
+    }
+
+    /**
+     * Pins one connection from the configured ConnectionProvider for the lifetime of the
+     * stream, since the cursor cannot move between connections. Auto-commit is switched
+     * off while the cursor is open because PostgreSQL ignores the fetch size otherwise.
+     */
+    @Override
+    public Stream<User> streamAll(int fetchSize) {
+        ConnectionProvider provider = dsl.configuration().connectionProvider();
+        Connection connection = provider.acquire();
+        boolean restoreAutoCommit = false;
+        try {
+            restoreAutoCommit = connection.getAutoCommit();
+            if (restoreAutoCommit) connection.setAutoCommit(false);
+            Stream<User> users = dsl.configuration()
+                    .derive(new DefaultConnectionProvider(connection))
+                    .dsl()
+                    .select(userFields)
+                    .from(userTable)
+                    .fetchSize(fetchSize)
+                    .fetchStreamInto(User.class);
+            boolean autoCommit = restoreAutoCommit;
+            // Closing the stream closes its cursor first
+            return users.onClose(() -> endStream(provider, connection, autoCommit));
+        } catch (Exception e) {
+            try {
+                endStream(provider, connection, restoreAutoCommit);
+            } catch (RuntimeException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw new RuntimeException("Error streaming users", e);
+        }
+    }
+
+    private static void endStream(ConnectionProvider provider, Connection connection, boolean restoreAutoCommit) {
+        try {
+            if (restoreAutoCommit) {
+                connection.commit();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error closing user stream", e);
+        } finally {
+            provider.release(connection);
+        }
+    }
+
     /**
      * Convert a long id to the concrete field type. Delegates to configured IdConverter.
      * Subclasses can override convertId/convertNumberToLong for custom behavior, but
@@ -129,6 +236,20 @@ public class GenericJooqUserDao<R extends Record, I> implements UserDao {
         return idConverter.toLong(value);
     }
 
+    /**
+     * The columns the reads select. Aliasing them to User's property names lets the
+     * configured RecordMapperProvider, e.g. the GeneratedRecordMapperProvider the vendor
+     * JooqContexts install, map rows whatever the table's column names are, and the id
+     * goes through {@link #convertNumberToLong} on the way out.
+     */
+    private Field<?>[] userFields() {
+        return new Field<?>[] {
+                idField.convertFrom(Long.class, id -> id == null ? null : convertNumberToLong(id)).as("id"),
+                nameField.as("name"),
+                emailField.as("email")
+        };
+    }
+
     /**
      * Strategy interface to convert between repository id types and Long used by the
      * application layer. Supply a custom implementation to support UUIDs or other ids.
@@ -195,11 +316,7 @@ public class GenericJooqUserDao<R extends Record, I> implements UserDao {
     @Override
     public void update(User user) {
         try {
-            dsl.update(userTable)
-                    .set(nameField, user.getName())
-                    .set(emailField, user.getEmail())
-                    .where(idField.eq(convertId(user.getId())))
-                    .execute();
+            updateTemplate.execute(user.getName(), user.getEmail(), convertId(user.getId()));
         } catch (Exception e) {
             throw new RuntimeException("Error updating user", e);
         }
@@ -208,9 +325,179 @@ public class GenericJooqUserDao<R extends Record, I> implements UserDao {
     @Override
     public void deleteById(Long id) {
         try {
-            dsl.deleteFrom(userTable).where(idField.eq(convertId(id))).execute();
+            deleteByIdTemplate.execute(convertId(id));
         } catch (Exception e) {
             throw new RuntimeException("Error deleting user", e);
         }
     }
+
+    /**
+     * Inserts each chunk as one multi-row INSERT ... RETURNING, all chunks in a single
+     * transaction. Relies on the database returning generated ids in VALUES order, which
+     * holds for PostgreSQL, MySQL and H2; see {@link #insertReturnsIdsInOrder()} for the
+     * others. The ids are set on the users once the transaction has committed, so users
+     * of a rolled back call keep no id.
+     */
+    @Override
+    public List<Long> saveAll(List<User> users) {
+        List<Long> ids = new ArrayList<>(users.size());
+        if (users.isEmpty()) return ids;
+        try {
+            dsl.transaction(tx -> {
+                if (!insertReturnsIdsInOrder()) {
+                    for (User user : users) {
+                        Record1<I> generated = tx.dsl().insertInto(userTable, nameField, emailField)
+                                .values(user.getName(), user.getEmail())
+                                .returningResult(idField)
+                                .fetchOne();
+                        if (generated == null) throw new IllegalStateException("No generated id returned");
+                        ids.add(convertNumberToLong(generated.value1()));
+                    }
+                    return;
+                }
+                for (List<User> chunk : chunks(users, 2)) {
+                    InsertValuesStep2<R, String, String> insert = tx.dsl().insertInto(userTable, nameField, emailField);
+                    for (User user : chunk) {
+                        insert = insert.values(user.getName(), user.getEmail());
+                    }
+                    List<Record1<I>> generated = insert.returningResult(idField).fetch();
+                    if (generated.size() != chunk.size()) {
+                        throw new IllegalStateException("Expected " + chunk.size() + " generated ids but got " + generated.size());
+                    }
+                    for (Record1<I> id : generated) {
+                        ids.add(convertNumberToLong(id.value1()));
+                    }
+                }
+            });
+        } catch (Exception e) {
+            throw new RuntimeException("Error saving users", e);
+        }
+        for (int i = 0; i < users.size(); i++) {
+            users.get(i).setId(ids.get(i));
+        }
+        return ids;
+    }
+
+    /**
+     * Whether a multi-row INSERT returns the generated ids in VALUES order. When not,
+     * {@link #saveAll} inserts one row per statement instead. SQL Server does not guarantee
+     * the order of OUTPUT rows, so its DAO returns {@code false}.
+     */
+    protected boolean insertReturnsIdsInOrder() {
+        return true;
+    }
+
+    @Override
+    public long reserveIds(int count) {
+        if (count <= 0) throw new IllegalArgumentException("count must be positive");
+        try {
+            return dsl.transactionResult(tx -> {
+                // Locks the counter row until commit, so concurrent reservations queue up
+                if (tx.dsl().update(ID_BLOCKS).set(NEXT_ID, NEXT_ID.plus(count)).execute() != 1) {
+                    throw new IllegalStateException("user_id_blocks must hold exactly one row");
+                }
+                return tx.dsl().select(NEXT_ID).from(ID_BLOCKS).fetchSingle(NEXT_ID) - count;
+            });
+        } catch (Exception e) {
+            throw new RuntimeException("Error reserving user ids", e);
+        }
+    }
+
+    /** Multi-row INSERTs of the users' own ids, chunked like {@link #saveAll}, in one transaction. */
+    @Override
+    public void insertWithIds(List<User> users) {
+        for (User user : users) {
+            if (user.getId() == null) throw new IllegalArgumentException("Every user needs an id");
+        }
+        if (users.isEmpty()) return;
+        try {
+            dsl.transaction(tx -> withExplicitIds(tx.dsl(), () -> {
+                for (List<User> chunk : chunks(users, 3)) {
+                    InsertValuesStep3<R, I, String, String> insert = tx.dsl().insertInto(userTable, idField, nameField, emailField);
+                    for (User user : chunk) {
+                        insert = insert.values(convertId(user.getId()), user.getName(), user.getEmail());
+                    }
+                    insert.execute();
+                }
+            }));
+        } catch (Exception e) {
+            throw new RuntimeException("Error inserting users", e);
+        }
+    }
+
+    /**
+     * Runs {@code insert}, which writes the id column explicitly, inside the transaction of
+     * {@code tx}. SQL Server rejects that on an IDENTITY column unless
+     * {@code IDENTITY_INSERT} is on, so its DAO switches it on around the insert.
+     */
+    protected void withExplicitIds(DSLContext tx, Runnable insert) {
+        insert.run();
+    }
+
+    /** One JDBC batch of bound UPDATEs per chunk, all chunks in a single transaction. */
+    @Override
+    public void updateAll(List<User> users) {
+        if (users.isEmpty()) return;
+        try {
+            dsl.transaction(tx -> {
+                for (List<User> chunk : chunks(users, 0)) {
+                    BatchBindStep batch = updateTemplate.batch(tx.dsl());
+                    for (User user : chunk) {
+                        batch.bind(user.getName(), user.getEmail(), convertId(user.getId()));
+                    }
+                    batch.execute();
+                }
+            });
+        } catch (Exception e) {
+            throw new RuntimeException("Error updating users", e);
+        }
+    }
+
+    @Override
+    public void deleteAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) return;
+        try {
+            dsl.transaction(tx -> {
+                for (List<Long> chunk : chunks(new ArrayList<>(new LinkedHashSet<>(ids)), 1)) {
+                    tx.dsl().deleteFrom(userTable).where(idField.in(convertIds(chunk))).execute();
+                }
+            });
+        } catch (Exception e) {
+            throw new RuntimeException("Error deleting users", e);
+        }
+    }
+
+    @Override
+    public List<User> findAllById(Collection<Long> ids) {
+        List<User> users = new ArrayList<>(ids.size());
+        try {
+            for (List<Long> chunk : chunks(new ArrayList<>(new LinkedHashSet<>(ids)), 1)) {
+                users.addAll(dsl.select(userFields)
+                        .from(userTable)
+                        .where(idField.in(convertIds(chunk)))
+                        .fetchInto(User.class));
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Error finding users by id", e);
+        }
+        return users;
+    }
+
+    private List<I> convertIds(List<Long> ids) {
+        List<I> converted = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            converted.add(convertId(id));
+        }
+        return converted;
+    }
+
+    /** Splits {@code items} so that no statement binds more than {@link #MAX_BIND_PARAMS}; 0 for JDBC batches. */
+    private static <T> List<List<T>> chunks(List<T> items, int paramsPerRow) {
+        int size = paramsPerRow == 0 ? BATCH_CHUNK_SIZE : Math.min(BATCH_CHUNK_SIZE, MAX_BIND_PARAMS / paramsPerRow);
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += size) {
+            chunks.add(items.subList(from, Math.min(items.size(), from + size)));
+        }
+        return chunks;
+    }
 }
@@ -0,0 +1,193 @@
+package com.example.base.dao;
+
+import com.example.base.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class CachingUserDaoTest {
+    private UserDao delegate;
+    private final AtomicLong now = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(UserDao.class);
+        when(delegate.findById(anyLong())).thenAnswer(inv -> {
+            long id = inv.getArgument(0);
+            return id < 0 ? Optional.empty() : Optional.of(new User(id, "user" + id, "user" + id + "@example.com"));
+        });
+    }
+
+    @Test
+    void repeatedLookupsHitTheCache() {
+        CachingUserDao dao = new CachingUserDao(delegate, 10);
+
+        assertEquals("user1", dao.findById(1L).orElseThrow().getName());
+        assertEquals("user1", dao.findById(1L).orElseThrow().getName());
+        assertFalse(dao.findById(-1L).isPresent());
+
+        verify(delegate, times(1)).findById(1L);
+        CacheStats stats = dao.getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    void returnedUsersAreCopies() {
+        CachingUserDao dao = new CachingUserDao(delegate, 10);
+        dao.findById(1L).orElseThrow().setName("mutated");
+        assertEquals("user1", dao.findById(1L).orElseThrow().getName());
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        CachingUserDao dao = new CachingUserDao(delegate, 2);
+        dao.findById(1L);
+        dao.findById(2L);
+        dao.findById(1L); // 2 is now the eldest
+        dao.findById(3L);
+
+        assertEquals(2, dao.size());
+        assertEquals(1, dao.getStats().getEvictions());
+        dao.findById(1L);
+        verify(delegate, times(1)).findById(1L);
+        dao.findById(2L);
+        verify(delegate, times(2)).findById(2L);
+    }
+
+    @Test
+    void entriesExpireAfterTtl() {
+        CachingUserDao dao = new CachingUserDao(delegate, 10, Duration.ofSeconds(5), now::get);
+        dao.findById(1L);
+        now.addAndGet(Duration.ofSeconds(4).toNanos());
+        dao.findById(1L);
+        verify(delegate, times(1)).findById(1L);
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        dao.findById(1L);
+        verify(delegate, times(2)).findById(1L);
+        assertEquals(1, dao.getStats().getExpirations());
+    }
+
+    @Test
+    void writesInvalidate() {
+        CachingUserDao dao = new CachingUserDao(delegate, 10);
+        dao.findById(1L);
+        dao.findById(2L);
+        dao.findById(3L);
+        assertEquals(3, dao.size());
+
+        dao.update(new User(1L, "renamed", "x@example.com"));
+        dao.deleteById(2L);
+        dao.deleteAllById(List.of(3L));
+        assertEquals(0, dao.size());
+        verify(delegate).update(any());
+        verify(delegate).deleteById(2L);
+
+        // invalidation happens even when the delegate fails
+        dao.findById(4L);
+        doThrow(new RuntimeException("boom")).when(delegate).deleteById(4L);
+        assertThrows(RuntimeException.class, () -> dao.deleteById(4L));
+        assertEquals(0, dao.size());
+    }
+
+    @Test
+    void findAllByIdOnlyFetchesMisses() {
+        when(delegate.findAllById(any())).thenAnswer(inv -> {
+            List<Long> ids = List.copyOf(inv.getArgument(0));
+            return ids.stream().map(id -> new User(id, "user" + id, "user" + id + "@example.com")).toList();
+        });
+        CachingUserDao dao = new CachingUserDao(delegate, 10);
+        dao.findById(1L);
+
+        List<User> users = dao.findAllById(List.of(1L, 2L, 2L));
+        assertEquals(2, users.size());
+        verify(delegate).findAllById(List.of(2L));
+    }
+
+    @Test
+    void invalidatingAnIdOnlyDropsInFlightLoadsOfThatId() throws Exception {
+        CountDownLatch loading = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.findById(anyLong())).thenAnswer(inv -> {
+            long id = inv.getArgument(0);
+            loading.countDown();
+            release.await();
+            return Optional.of(new User(id, "user" + id, "user" + id + "@example.com"));
+        });
+        CachingUserDao dao = new CachingUserDao(delegate, 10);
+
+        CompletableFuture<Optional<User>> first = CompletableFuture.supplyAsync(() -> dao.findById(1L));
+        CompletableFuture<Optional<User>> second = CompletableFuture.supplyAsync(() -> dao.findById(2L));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        dao.invalidate(2L);
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+
+        // The load of 1 is kept; the load of 2 may have read the row before the write
+        dao.findById(1L);
+        dao.findById(2L);
+        verify(delegate, times(1)).findById(1L);
+        verify(delegate, times(2)).findById(2L);
+    }
+
+    @Test
+    void hitsDoNotWaitForASlowLoad() throws Exception {
+        CachingUserDao dao = new CachingUserDao(delegate, 10);
+        dao.findById(1L);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.findById(2L)).thenAnswer(inv -> {
+            loading.countDown();
+            release.await();
+            return Optional.of(new User(2L, "user2", "user2@example.com"));
+        });
+
+        CompletableFuture<Optional<User>> slow = CompletableFuture.supplyAsync(() -> dao.findById(2L));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        try {
+            assertEquals("user1", dao.findById(1L).orElseThrow().getName());
+        } finally {
+            release.countDown();
+        }
+        assertEquals("user2", slow.get(5, TimeUnit.SECONDS).orElseThrow().getName());
+        verify(delegate, times(1)).findById(1L);
+    }
+
+    @Test
+    void hitsRacingWithEvictionsAndInvalidationsSeeConsistentEntries() throws Exception {
+        // Small enough that the index is rewritten constantly under the readers
+        CachingUserDao dao = new CachingUserDao(delegate, 32);
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int seed = t;
+            workers.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    long id = (i * 31L + seed * 7L) % 200;
+                    if (i % 97 == 0) {
+                        dao.invalidate(id);
+                    } else {
+                        assertEquals("user" + id, dao.findById(id).orElseThrow().getName());
+                    }
+                }
+            }));
+        }
+        CompletableFuture.allOf(workers.toArray(new CompletableFuture[0])).get(60, TimeUnit.SECONDS);
+        assertTrue(dao.size() <= 32);
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.base.dao;
+
+import com.example.base.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class GroupCommitUserDaoTest {
+    private final AtomicLong sequence = new AtomicLong();
+
+    private UserDao delegate() {
+        UserDao delegate = mock(UserDao.class);
+        when(delegate.saveAll(anyList())).thenAnswer(inv -> {
+            List<User> users = inv.getArgument(0);
+            if (users.stream().anyMatch(u -> u.getName().equals("bad"))) throw new RuntimeException("Error saving users");
+            List<Long> ids = new ArrayList<>();
+            for (User u : users) {
+                u.setId(sequence.incrementAndGet());
+                ids.add(u.getId());
+            }
+            return ids;
+        });
+        return delegate;
+    }
+
+    @Test
+    void concurrentSavesShareBatchesAndGetTheirOwnIds() throws Exception {
+        UserDao delegate = delegate();
+        int callers = 400;
+        try (GroupCommitUserDao dao = new GroupCommitUserDao(delegate, 50, Duration.ofMillis(20));
+             ExecutorService pool = Executors.newFixedThreadPool(64)) {
+            List<Future<User>> saves = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                User user = new User("user" + i, "user" + i + "@example.com");
+                saves.add(pool.submit(() -> {
+                    dao.save(user);
+                    return user;
+                }));
+            }
+            Set<Long> ids = new HashSet<>();
+            for (Future<User> save : saves) {
+                assertNotNull(save.get().getId());
+                ids.add(save.get().getId());
+            }
+            assertEquals(callers, ids.size());
+            assertEquals(callers, dao.getSavedCount());
+            assertTrue(dao.getBatchCount() < callers / 2, "batches: " + dao.getBatchCount());
+        }
+        verify(delegate, never()).save(any());
+    }
+
+    @Test
+    void batchIsCutAtMaxSize() {
+        UserDao delegate = delegate();
+        try (GroupCommitUserDao dao = new GroupCommitUserDao(delegate, 3, Duration.ofSeconds(10))) {
+            List<CompletableFuture<Long>> futures = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                futures.add(dao.saveAsync(new User("u" + i, "u" + i + "@example.com")));
+            }
+            // completes well before the 10s linger because the batch is full
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).orTimeout(5, TimeUnit.SECONDS).join();
+        }
+    }
+
+    @Test
+    void badRowOnlyFailsItsOwnCaller() {
+        UserDao delegate = delegate();
+        try (GroupCommitUserDao dao = new GroupCommitUserDao(delegate, 10, Duration.ofMillis(100))) {
+            CompletableFuture<Long> good = dao.saveAsync(new User("good", "good@example.com"));
+            CompletableFuture<Long> bad = dao.saveAsync(new User("bad", "bad@example.com"));
+
+            assertNotNull(good.join());
+            assertThrows(RuntimeException.class, bad::join);
+            assertThrows(RuntimeException.class, () -> dao.save(new User("bad", "bad@example.com")));
+        }
+        verify(delegate, never()).save(any());
+    }
+
+    @Test
+    void usersRetriedAfterAFailedBatchGetTheirGeneratedIds() throws SQLException {
+        try (Connection conn = DriverManager.getConnection("jdbc:h2:mem:groupcommit;DB_CLOSE_DELAY=-1")) {
+            try (Statement st = conn.createStatement()) {
+                st.execute("CREATE TABLE users (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(255), email VARCHAR(255))");
+            }
+            try (GroupCommitUserDao dao = new GroupCommitUserDao(new JdbcUserDao(conn), 10, Duration.ofMillis(100))) {
+                User good = new User("good", "good@example.com");
+                CompletableFuture<Long> saved = dao.saveAsync(good);
+                CompletableFuture<Long> tooLong = dao.saveAsync(new User("x".repeat(300), "bad@example.com"));
+
+                assertThrows(CompletionException.class, tooLong::join);
+                Long id = saved.join();
+                assertNotNull(id);
+                assertEquals(id, good.getId());
+                assertEquals("good", dao.findById(id).orElseThrow().getName());
+            } finally {
+                try (Statement st = conn.createStatement()) {
+                    st.execute("DROP TABLE IF EXISTS users");
+                }
+            }
+        }
+    }
+
+    @Test
+    void closeFlushesPendingSaves() {
+        UserDao delegate = delegate();
+        GroupCommitUserDao dao = new GroupCommitUserDao(delegate, 100, Duration.ofSeconds(30));
+        CompletableFuture<Long> pending = dao.saveAsync(new User("late", "late@example.com"));
+        dao.close();
+        assertTrue(pending.isDone());
+        assertNotNull(pending.join());
+        assertThrows(IllegalStateException.class, () -> dao.saveAsync(new User("x", "x@example.com")));
+    }
+
+    @Test
+    void anErrorFailsItsBatchAndTheFlusherCarriesOn() {
+        UserDao delegate = mock(UserDao.class);
+        when(delegate.saveAll(anyList())).thenThrow(new StackOverflowError()).thenReturn(List.of(7L));
+        try (GroupCommitUserDao dao = new GroupCommitUserDao(delegate, 10, Duration.ofMillis(10))) {
+            CompletableFuture<Long> failed = dao.saveAsync(new User("first", "first@example.com"));
+            CompletionException e = assertThrows(CompletionException.class, () -> failed.orTimeout(5, TimeUnit.SECONDS).join());
+            assertInstanceOf(StackOverflowError.class, e.getCause());
+
+            assertEquals(7L, dao.saveAsync(new User("second", "second@example.com")).orTimeout(5, TimeUnit.SECONDS).join());
+        }
+    }
+
+    @Test
+    void savesRacingWithCloseAreWrittenOrFailed() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            GroupCommitUserDao dao = new GroupCommitUserDao(delegate(), 10, Duration.ofMillis(1));
+            CompletableFuture<CompletableFuture<Long>> racing = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return dao.saveAsync(new User("racing", "racing@example.com"));
+                } catch (IllegalStateException e) {
+                    return CompletableFuture.failedFuture(e);
+                }
+            });
+            dao.close();
+            CompletableFuture<Long> save = racing.get(5, TimeUnit.SECONDS);
+            // Either written or failed as closed, but never left pending
+            try {
+                assertNotNull(save.get(5, TimeUnit.SECONDS));
+            } catch (ExecutionException e) {
+                assertInstanceOf(IllegalStateException.class, e.getCause());
+            }
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.base.dao;
+
+import com.example.base.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class JdbcUserDaoTest {
+    private Connection conn;
+    private JdbcUserDao dao;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:jdbcdao;DB_CLOSE_DELAY=-1");
+        try (Statement st = conn.createStatement()) {
+            st.execute("CREATE TABLE users (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(255), email VARCHAR(255))");
+        }
+        dao = new JdbcUserDao(conn);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS users");
+        }
+        conn.close();
+    }
+
+    @Test
+    void crudFlow() {
+        dao.save(new User("Alice", "alice@example.com"));
+        List<User> all = dao.findAll();
+        assertEquals(1, all.size());
+        User alice = all.get(0);
+
+        alice.setName("Alice Smith");
+        dao.update(alice);
+        assertEquals("Alice Smith", dao.findById(alice.getId()).orElseThrow().getName());
+
+        dao.deleteById(alice.getId());
+        assertFalse(dao.findById(alice.getId()).isPresent());
+    }
+
+    @Test
+    void batchCrudFlow() throws SQLException {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            users.add(new User("user" + i, "user" + i + "@example.com"));
+        }
+        List<Long> ids = dao.saveAll(users);
+        assertEquals(2500, new HashSet<>(ids).size());
+        for (int i = 0; i < users.size(); i++) {
+            assertEquals(ids.get(i), users.get(i).getId());
+            assertEquals("user" + i, dao.findById(ids.get(i)).orElseThrow().getName());
+        }
+        assertTrue(conn.getAutoCommit(), "auto-commit is restored after the batch");
+
+        users.forEach(u -> u.setEmail("changed@example.com"));
+        dao.updateAll(users);
+        List<User> found = dao.findAllById(ids);
+        assertEquals(2500, found.size());
+        assertTrue(found.stream().allMatch(u -> u.getEmail().equals("changed@example.com")));
+
+        dao.deleteAllById(ids.subList(1000, 2500));
+        assertEquals(1000, dao.findAll().size());
+        assertEquals(1000, dao.findAllById(ids).size());
+    }
+
+    @Test
+    void failedBatchIsRolledBack() {
+        List<User> users = List.of(new User("ok", "ok@example.com"), new User("x".repeat(300), "too-long@example.com"));
+        assertThrows(RuntimeException.class, () -> dao.saveAll(users));
+        assertTrue(dao.findAll().isEmpty());
+        assertNull(users.get(0).getId(), "ids are only set once committed");
+    }
+
+    @Test
+    void insertWithIdsKeepsTheIdsAndReservedBlocksDoNotOverlap() throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("CREATE TABLE user_id_blocks (next_id BIGINT NOT NULL)");
+            st.execute("INSERT INTO user_id_blocks VALUES (100)");
+        }
+        try {
+            long first = dao.reserveIds(2);
+            assertEquals(100, first);
+            assertEquals(102, dao.reserveIds(10));
+            conn.setAutoCommit(false);
+            try {
+                assertThrows(IllegalStateException.class, () -> dao.reserveIds(1), "a rollback would give the block out twice");
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            dao.insertWithIds(List.of(new User(first, "Alice", "alice@example.com"), new User(first + 1, "Bob", "bob@example.com")));
+
+            assertEquals("Bob", dao.findById(101L).orElseThrow().getName());
+            assertThrows(IllegalArgumentException.class, () -> dao.insertWithIds(List.of(new User("Carol", "carol@example.com"))));
+        } finally {
+            try (Statement st = conn.createStatement()) {
+                st.execute("DROP TABLE user_id_blocks");
+            }
+        }
+    }
+
+    @Test
+    void streamAllClosesCursorAndRestoresAutoCommit() throws SQLException {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            users.add(new User("user" + i, "user" + i + "@example.com"));
+        }
+        dao.saveAll(users);
+
+        try (Stream<User> stream = dao.streamAll(20)) {
+            assertEquals(5, stream.limit(5).count());
+            assertFalse(conn.getAutoCommit(), "the cursor runs with auto-commit off");
+        }
+        assertTrue(conn.getAutoCommit());
+
+        try (Stream<User> stream = dao.streamAll(20)) {
+            assertEquals(250, stream.map(User::getId).distinct().count());
+        }
+    }
+
+    @Test
+    void closingAStreamDoesNotCommitOtherWorkOnTheConnection() {
+        try (Stream<User> stream = dao.streamAll(20)) {
+            assertEquals(0, stream.count());
+            dao.save(new User("uncommitted", "uncommitted@example.com"));
+        }
+
+        assertTrue(dao.findAll().isEmpty());
+    }
+
+    @Test
+    void keysetPagesWalkTheTableInBothDirections() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 95; i++) {
+            users.add(new User("user" + i, "user" + i + "@example.com"));
+        }
+        List<Long> ids = dao.saveAll(users);
+
+        List<Long> forward = new ArrayList<>();
+        Long after = null;
+        List<User> page;
+        while (!(page = dao.findPage(after, 10)).isEmpty()) {
+            assertTrue(page.size() <= 10);
+            page.forEach(u -> forward.add(u.getId()));
+            after = page.get(page.size() - 1).getId();
+        }
+        assertEquals(ids, forward);
+
+        List<User> newest = dao.findPageBefore(null, 10);
+        assertEquals(ids.get(94), newest.get(0).getId());
+        List<User> older = dao.findPageBefore(newest.get(9).getId(), 10);
+        assertEquals(ids.subList(75, 85).reversed(), older.stream().map(User::getId).toList());
+        assertTrue(dao.findPageBefore(ids.get(0), 10).isEmpty());
+
+        assertEquals(95, dao.findPage(null, Integer.MAX_VALUE).size());
+        assertThrows(IllegalArgumentException.class, () -> dao.findPage(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> dao.findPageBefore(null, -1));
+    }
+
+    @Test
+    void statementsArePreparedOnceAndClosedWithTheDao() throws SQLException {
+        Connection spied = spy(conn);
+        List<PreparedStatement> prepared = new ArrayList<>();
+        doAnswer(inv -> {
+            PreparedStatement stmt = (PreparedStatement) inv.callRealMethod();
+            prepared.add(stmt);
+            return stmt;
+        }).when(spied).prepareStatement(anyString());
+
+        JdbcUserDao cached = new JdbcUserDao(spied);
+        for (int i = 0; i < 5; i++) {
+            User user = new User("user" + i, "user" + i + "@example.com");
+            cached.save(user);
+            cached.findById((long) i + 1).orElseThrow();
+            cached.update(new User((long) i + 1, "renamed", "renamed@example.com"));
+        }
+        cached.deleteById(1L);
+        assertEquals(4, cached.findAll().size());
+        assertEquals(5, prepared.size(), "one prepare per distinct statement");
+
+        cached.close();
+        for (PreparedStatement stmt : prepared) {
+            assertTrue(stmt.isClosed());
+        }
+        assertFalse(conn.isClosed());
+    }
+
+    @Test
+    void statementCacheEvictsAndReprepares() throws SQLException {
+        try (StatementCache cache = new StatementCache(conn, 2)) {
+            PreparedStatement a = cache.prepare("SELECT 1");
+            assertSame(a, cache.prepare("SELECT 1"));
+            PreparedStatement b = cache.prepare("SELECT 2");
+            cache.prepare("SELECT 1"); // touch a, so b is the eldest
+            cache.prepare("SELECT 3");
+            assertTrue(b.isClosed());
+            assertFalse(a.isClosed());
+            assertEquals(2, cache.size());
+
+            // closed behind the cache's back, e.g. by the connection going away
+            a.close();
+            PreparedStatement again = cache.prepare("SELECT 1");
+            assertNotSame(a, again);
+            assertFalse(again.isClosed());
+        }
+    }
+
+    @Test
+    void uncachedDaoStillWorks() {
+        JdbcUserDao uncached = new JdbcUserDao(conn, 0);
+        uncached.save(new User("Bob", "bob@example.com"));
+        assertEquals("Bob", uncached.findAll().get(0).getName());
+        uncached.close();
+    }
+
+    @Test
+    void rowMapperResolvesColumnsByLabel() throws SQLException {
+        dao.save(new User("Carol", "carol@example.com"));
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT email AS EMAIL, 42 AS extra, name, id FROM users")) {
+            RowMapper<User> mapper = UserRowMapper.of(rs.getMetaData());
+            assertTrue(rs.next());
+            User user = mapper.mapRow(rs);
+            assertEquals("Carol", user.getName());
+            assertEquals("carol@example.com", user.getEmail());
+            assertNotNull(user.getId());
+        }
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT id, name FROM users")) {
+            assertThrows(SQLException.class, () -> UserRowMapper.of(rs.getMetaData()));
+        }
+    }
+}
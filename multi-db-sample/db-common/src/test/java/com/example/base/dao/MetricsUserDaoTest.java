@@ -0,0 +1,83 @@
+package com.example.base.dao;
+
+import com.example.base.entity.User;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class MetricsUserDaoTest {
+
+    @Test
+    void countsCallsAndErrorsPerOperation() {
+        UserDao delegate = mock(UserDao.class);
+        when(delegate.findById(1L)).thenReturn(Optional.of(new User(1L, "user1", "user1@example.com")));
+        doThrow(new IllegalStateException("boom")).when(delegate).update(any());
+        MetricsUserDao dao = new MetricsUserDao(delegate, "test");
+
+        assertEquals("user1", dao.findById(1L).orElseThrow().getName());
+        dao.findById(1L);
+        assertThrows(IllegalStateException.class, () -> dao.update(new User(1L, "x", "x@example.com")));
+
+        OperationMetrics findById = dao.getMetrics(MetricsUserDao.Operation.FIND_BY_ID);
+        assertEquals(2, findById.getCalls());
+        assertEquals(0, findById.getErrors());
+        assertEquals(2, findById.getLatency().getCount());
+        OperationMetrics update = dao.getMetrics(MetricsUserDao.Operation.UPDATE);
+        assertEquals(1, update.getCalls());
+        assertEquals(1, update.getErrors());
+        assertEquals(0, update.getInFlight());
+        assertEquals(0, dao.getMetrics(MetricsUserDao.Operation.SAVE).getCalls());
+    }
+
+    @Test
+    void tracksCallsInFlight() throws Exception {
+        UserDao delegate = mock(UserDao.class);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(inv -> {
+            entered.countDown();
+            release.await();
+            return null;
+        }).when(delegate).save(any());
+        MetricsUserDao dao = new MetricsUserDao(delegate, "test");
+
+        Thread caller = Thread.ofPlatform().start(() -> dao.save(new User("a", "a@example.com")));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        OperationMetrics save = dao.getMetrics(MetricsUserDao.Operation.SAVE);
+        assertEquals(1, save.getInFlight());
+        assertEquals(0, save.getCalls());
+
+        release.countDown();
+        caller.join();
+        assertEquals(0, save.getInFlight());
+        assertEquals(1, save.getCalls());
+    }
+
+    @Test
+    void publishesOperationsAsMBeans() throws Exception {
+        UserDao delegate = mock(UserDao.class);
+        when(delegate.findById(any())).thenReturn(Optional.empty());
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("com.example.dao:type=UserDao,name=" + ObjectName.quote("mbeanTest") + ",operation=findById");
+
+        try (MetricsUserDao dao = new MetricsUserDao(delegate, "mbeanTest").registerMBeans()) {
+            dao.findById(7L);
+            assertEquals(1L, server.getAttribute(name, "Calls"));
+            assertEquals(0L, server.getAttribute(name, "InFlight"));
+            assertTrue((Double) server.getAttribute(name, "MaxMicros") >= 0);
+
+            server.invoke(name, "reset", null, null);
+            assertEquals(0L, server.getAttribute(name, "Calls"));
+        }
+        assertFalse(server.isRegistered(name));
+    }
+}
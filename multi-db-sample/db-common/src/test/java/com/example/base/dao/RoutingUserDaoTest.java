@@ -0,0 +1,143 @@
+package com.example.base.dao;
+
+import com.example.base.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class RoutingUserDaoTest {
+    private UserDao primary;
+    private UserDao replica1;
+    private UserDao replica2;
+    private final AtomicLong now = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        primary = mock(UserDao.class);
+        replica1 = mock(UserDao.class);
+        replica2 = mock(UserDao.class);
+        for (UserDao dao : List.of(primary, replica1, replica2)) {
+            when(dao.findById(anyLong())).thenReturn(Optional.empty());
+        }
+    }
+
+    @Test
+    void writesGoToThePrimaryAndReadsToReplicas() {
+        RoutingUserDao dao = new RoutingUserDao(primary, List.of(replica1, replica2));
+
+        dao.save(new User("Alice", "alice@example.com"));
+        dao.deleteAllById(List.of(1L));
+        for (int i = 0; i < 100; i++) {
+            dao.findById(1L);
+        }
+
+        verify(primary).save(any());
+        verify(primary).deleteAllById(any());
+        verify(primary, never()).findById(anyLong());
+        // Idle replicas tie, and ties are broken at random
+        verify(replica1, atLeastOnce()).findById(1L);
+        verify(replica2, atLeastOnce()).findById(1L);
+    }
+
+    @Test
+    void withoutReplicasEverythingGoesToThePrimary() {
+        RoutingUserDao dao = new RoutingUserDao(primary, List.of(), Duration.ofSeconds(1));
+
+        dao.findById(1L);
+        dao.findAll();
+
+        verify(primary).findById(1L);
+        verify(primary).findAll();
+    }
+
+    @Test
+    void readsAvoidTheReplicaWithMoreReadsInFlight() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(replica1.findById(-1L)).thenAnswer(inv -> {
+            blocked.countDown();
+            release.await();
+            return Optional.empty();
+        });
+        when(replica2.findById(-1L)).thenAnswer(inv -> {
+            blocked.countDown();
+            release.await();
+            return Optional.empty();
+        });
+        RoutingUserDao dao = new RoutingUserDao(primary, List.of(replica1, replica2));
+
+        CompletableFuture<Optional<User>> slow = CompletableFuture.supplyAsync(() -> dao.findById(-1L));
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        int busy = dao.getOutstandingReads(0) == 1 ? 0 : 1;
+        assertEquals(1, dao.getOutstandingReads(busy));
+
+        for (int i = 0; i < 50; i++) {
+            dao.findById(1L);
+        }
+        release.countDown();
+        slow.get(5, TimeUnit.SECONDS);
+
+        UserDao idle = busy == 0 ? replica2 : replica1;
+        verify(idle, times(50)).findById(1L);
+        verify(busy == 0 ? replica1 : replica2, never()).findById(1L);
+        assertEquals(0, dao.getOutstandingReads(busy));
+    }
+
+    @Test
+    void readsFollowTheThreadsOwnWritesForTheWindow() throws Exception {
+        RoutingUserDao dao = new RoutingUserDao(primary, List.of(replica1), Duration.ofSeconds(1), now::get);
+
+        dao.update(new User(1L, "Alice", "alice@example.com"));
+        dao.findById(1L);
+        verify(primary).findById(1L);
+
+        // Another thread has not written, so it still reads from the replica
+        CompletableFuture.runAsync(() -> dao.findById(2L)).get(5, TimeUnit.SECONDS);
+        verify(replica1).findById(2L);
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        dao.findById(1L);
+        verify(replica1).findById(1L);
+        verify(primary, times(1)).findById(1L);
+    }
+
+    @Test
+    void failedWritesStillOpenTheWindow() {
+        doThrow(new RuntimeException("lost connection")).when(primary).save(any());
+        RoutingUserDao dao = new RoutingUserDao(primary, List.of(replica1), Duration.ofSeconds(1), now::get);
+
+        assertThrows(RuntimeException.class, () -> dao.save(new User("Alice", "alice@example.com")));
+        dao.findById(1L);
+
+        verify(primary).findById(1L);
+        verify(replica1, never()).findById(anyLong());
+    }
+
+    @Test
+    void streamsCountAsInFlightUntilClosed() {
+        when(replica1.streamAll(anyInt())).thenReturn(Stream.of(new User(1L, "Alice", "alice@example.com")));
+        RoutingUserDao dao = new RoutingUserDao(primary, List.of(replica1));
+
+        try (Stream<User> users = dao.streamAll(100)) {
+            assertEquals(1, dao.getOutstandingReads(0));
+            assertEquals(1, users.count());
+        }
+
+        assertEquals(0, dao.getOutstandingReads(0));
+        verify(primary, never()).streamAll(anyInt());
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.base.dao;
+
+import com.example.base.entity.User;
+import com.example.common.H2UserDatabases;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/** Three shards as separate H2 databases, each with its own {@code users} table. */
+public class ShardedUserDaoTest {
+    private static final int SHARDS = 3;
+
+    private final List<UserDao> shards = new ArrayList<>();
+    private H2UserDatabases databases;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        databases = new H2UserDatabases(List.of("shard0", "shard1", "shard2"));
+        for (int i = 0; i < SHARDS; i++) {
+            shards.add(H2UserDatabases.userDao(databases.databaseConnection(i)));
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        databases.close();
+    }
+
+    private static List<User> users(int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(new User("user" + i, "user" + i + "@example.com"));
+        }
+        return users;
+    }
+
+    @Test
+    void usersAreStoredOnTheShardTheirIdHashesTo() {
+        ShardedUserDao dao = new ShardedUserDao(shards);
+
+        List<User> users = users(30);
+        users.forEach(dao::save);
+
+        Set<Long> ids = users.stream().map(User::getId).collect(Collectors.toSet());
+        assertEquals(30, ids.size());
+        for (User user : users) {
+            int shard = dao.shardOf(user.getId());
+            assertEquals(user.getName(), shards.get(shard).findById(user.getId()).orElseThrow().getName());
+            assertEquals(user.getName(), dao.findById(user.getId()).orElseThrow().getName());
+        }
+        // New users are spread over the shards in turn
+        for (UserDao shard : shards) {
+            assertEquals(10, shard.findAll().size());
+        }
+    }
+
+    @Test
+    void findAllMergesEveryShardInIdOrder() {
+        ShardedUserDao dao = new ShardedUserDao(shards);
+        List<Long> saved = dao.saveAll(users(50));
+
+        List<User> all = dao.findAll();
+
+        assertEquals(saved.stream().sorted().toList(), all.stream().map(User::getId).toList());
+    }
+
+    @Test
+    void updatesAndDeletesReachTheOwningShard() {
+        ShardedUserDao dao = new ShardedUserDao(shards);
+        List<User> users = users(20);
+        dao.saveAll(users);
+
+        User first = users.get(0);
+        first.setName("renamed");
+        dao.update(first);
+        dao.deleteById(users.get(1).getId());
+        users.subList(2, 10).forEach(user -> user.setName("batch"));
+        dao.updateAll(users.subList(2, 10));
+        dao.deleteAllById(users.subList(10, 20).stream().map(User::getId).toList());
+
+        assertEquals("renamed", dao.findById(first.getId()).orElseThrow().getName());
+        assertTrue(dao.findById(users.get(1).getId()).isEmpty());
+        List<User> remaining = dao.findAll();
+        assertEquals(9, remaining.size());
+        assertEquals(8, dao.findAllById(users.subList(2, 20).stream().map(User::getId).toList()).size());
+        assertTrue(remaining.subList(1, 9).stream().allMatch(user -> user.getName().equals("batch")));
+    }
+
+    @Test
+    void daosOfSeparateProcessesNeverHandOutTheSameId() {
+        // Each instance has its own allocators, as two processes would
+        ShardedUserDao first = new ShardedUserDao(shards);
+        ShardedUserDao second = new ShardedUserDao(shards);
+        Set<Long> ids = new HashSet<>();
+
+        for (int round = 0; round < 3; round++) {
+            first.saveAll(users(500)).forEach(id -> assertTrue(ids.add(id), "duplicate id " + id));
+            second.saveAll(users(500)).forEach(id -> assertTrue(ids.add(id), "duplicate id " + id));
+        }
+
+        assertEquals(3000, first.findAll().size());
+    }
+
+    @Test
+    void savingALoadedUserAgainInsertsItUnderANewId() {
+        ShardedUserDao dao = new ShardedUserDao(shards);
+        User alice = new User("Alice", "alice@example.com");
+        dao.save(alice);
+        Long firstId = alice.getId();
+
+        dao.save(dao.findById(firstId).orElseThrow());
+
+        assertEquals(2, dao.findAll().size());
+        assertTrue(dao.findById(firstId).isPresent());
+    }
+
+    @Test
+    void shardsThatCannotInsertPresetIdsAreRejected() {
+        List<UserDao> withPlainDao = new ArrayList<>(shards);
+        withPlainDao.add(mock(UserDao.class));
+
+        assertThrows(IllegalArgumentException.class, () -> new ShardedUserDao(withPlainDao));
+    }
+
+    @Test
+    void pagesMergeAcrossShards() {
+        ShardedUserDao dao = new ShardedUserDao(shards);
+        List<Long> sorted = dao.saveAll(users(40)).stream().sorted().toList();
+
+        assertEquals(sorted.subList(0, 7), dao.findPage(null, 7).stream().map(User::getId).toList());
+        assertEquals(sorted.subList(8, 15), dao.findPage(sorted.get(7), 7).stream().map(User::getId).toList());
+        assertEquals(sorted.subList(33, 40).reversed(), dao.findPageBefore(null, 7).stream().map(User::getId).toList());
+        try (Stream<User> all = dao.streamAll(10)) {
+            assertEquals(40, all.count());
+        }
+    }
+
+    @Test
+    void addingAShardOnlyMovesIdsToTheNewShard() {
+        ShardedUserDao three = new ShardedUserDao(shards);
+        List<UserDao> four = new ArrayList<>(shards);
+        four.add(mock(ShardableUserDao.class));
+        ShardedUserDao grown = new ShardedUserDao(four);
+
+        int moved = 0;
+        for (long id = 1; id <= 10_000; id++) {
+            int shard = grown.shardOf(id);
+            if (shard != three.shardOf(id)) {
+                assertEquals(3, shard);
+                moved++;
+            }
+        }
+        assertTrue(moved > 1_500 && moved < 3_500, "moved " + moved);
+    }
+
+    @Test
+    void rebalanceMovesUsersToAnAppendedShardAndSeedsItsCounter() {
+        List<Long> ids = new ShardedUserDao(shards.subList(0, 2)).saveAll(users(300));
+        ShardedUserDao three = new ShardedUserDao(shards);
+        long expected = ids.stream().filter(id -> three.shardOf(id) == 2).count();
+        assertTrue(expected > 0);
+
+        assertEquals(expected, three.rebalance(2));
+        assertEquals(0, three.rebalance(2));
+
+        for (Long id : ids) {
+            assertTrue(shards.get(three.shardOf(id)).findById(id).isPresent(), "user " + id + " on its shard");
+        }
+        assertEquals(300, three.findAll().size());
+        // The new shard's counter starts above the ids it received
+        Set<Long> all = new HashSet<>(ids);
+        three.saveAll(users(300)).forEach(id -> assertTrue(all.add(id), "duplicate id " + id));
+        assertEquals(600, three.findAll().size());
+    }
+
+    @Test
+    void shardsAreQueriedInParallel() {
+        CountDownLatch allStarted = new CountDownLatch(SHARDS);
+        List<UserDao> waiting = new ArrayList<>();
+        for (int i = 0; i < SHARDS; i++) {
+            UserDao shard = mock(ShardableUserDao.class);
+            when(shard.findAll()).thenAnswer(inv -> {
+                allStarted.countDown();
+                // Only returns once every shard has been called, which needs them to run at once
+                assertTrue(allStarted.await(5, TimeUnit.SECONDS));
+                return List.of();
+            });
+            waiting.add(shard);
+        }
+
+        assertTrue(new ShardedUserDao(waiting).findAll().isEmpty());
+    }
+
+    @Test
+    void aFailingShardFailsTheCallAndStopsTheOthers() {
+        UserDao failing = mock(ShardableUserDao.class);
+        when(failing.findAll()).thenThrow(new RuntimeException("Error finding all users"));
+        UserDao slow = mock(ShardableUserDao.class);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(slow.findAll()).thenAnswer(inv -> {
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return List.of();
+        });
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> new ShardedUserDao(List.of(slow, failing)).findAll());
+
+        assertEquals("Error finding all users", e.getMessage());
+        assertEquals(0, interrupted.getCount());
+    }
+}
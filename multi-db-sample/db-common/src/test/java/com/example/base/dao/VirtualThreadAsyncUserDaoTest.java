@@ -0,0 +1,57 @@
+package com.example.base.dao;
+
+import com.example.base.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class VirtualThreadAsyncUserDaoTest {
+
+    @Test
+    void concurrencyNeverExceedsTheCap() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        UserDao delegate = mock(UserDao.class);
+        when(delegate.findById(anyLong())).thenAnswer(inv -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(2);
+            running.decrementAndGet();
+            return Optional.of(new User(inv.getArgument(0), "u", "u@example.com"));
+        });
+
+        try (VirtualThreadAsyncUserDao dao = new VirtualThreadAsyncUserDao(delegate, 4)) {
+            List<CompletableFuture<Optional<User>>> futures = new ArrayList<>();
+            for (long id = 0; id < 2_000; id++) {
+                futures.add(dao.findById(id));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals(i, futures.get(i).join().orElseThrow().getId());
+            }
+        }
+        assertTrue(peak.get() <= 4, "peak concurrency " + peak.get());
+        assertTrue(peak.get() > 1, "calls should overlap");
+    }
+
+    @Test
+    void delegateFailuresCompleteTheFutureExceptionally() {
+        UserDao delegate = mock(UserDao.class);
+        doThrow(new RuntimeException("Error deleting user")).when(delegate).deleteById(1L);
+
+        try (VirtualThreadAsyncUserDao dao = new VirtualThreadAsyncUserDao(delegate, 2)) {
+            CompletionException e = assertThrows(CompletionException.class, () -> dao.deleteById(1L).join());
+            assertEquals("Error deleting user", e.getCause().getMessage());
+            assertNull(dao.deleteById(2L).join());
+        }
+        verify(delegate).deleteById(2L);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.common;
+
+import com.example.entity.GenericJooqUserDao;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.SQLDialect;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Named in-memory H2 databases for tests that need several, e.g. shards or replicas. Each
+ * gets a {@code "users"} table and the {@code "user_id_blocks"} counter, and stays open
+ * through a keep-alive connection until {@link #close()} drops the tables.
+ */
+public final class H2UserDatabases implements AutoCloseable {
+    public static final Table<Record> USERS = DSL.table(DSL.name("users"));
+    public static final Field<Long> ID = DSL.field(DSL.name("users", "id"), Long.class);
+    public static final Field<String> NAME = DSL.field(DSL.name("users", "name"), String.class);
+    public static final Field<String> EMAIL = DSL.field(DSL.name("users", "email"), String.class);
+
+    private final List<String> names;
+    private final Connection[] keepAlive;
+
+    public H2UserDatabases(List<String> names) throws SQLException {
+        this.names = List.copyOf(names);
+        this.keepAlive = new Connection[names.size()];
+        for (int i = 0; i < names.size(); i++) {
+            keepAlive[i] = DriverManager.getConnection(url(i), "sa", "");
+            try (Statement st = keepAlive[i].createStatement()) {
+                st.execute("CREATE TABLE \"users\" (\"id\" BIGINT AUTO_INCREMENT PRIMARY KEY, \"name\" VARCHAR(255), \"email\" VARCHAR(255))");
+                st.execute("CREATE TABLE \"user_id_blocks\" (\"next_id\" BIGINT NOT NULL)");
+                st.execute("INSERT INTO \"user_id_blocks\" VALUES (1)");
+            }
+        }
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    public String url(int database) {
+        return "jdbc:h2:mem:" + names.get(database) + ";DB_CLOSE_DELAY=-1";
+    }
+
+    /** The keep-alive connection, for setting up rows behind the DAOs' back. */
+    public Connection connection(int database) {
+        return keepAlive[database];
+    }
+
+    public DatabaseConnection databaseConnection(int database) {
+        return new DefaultDatabaseConnection(url(database), "sa", "");
+    }
+
+    public static DSLContext dsl(DatabaseConnection dbConnection) {
+        return DSL.using(new DatabaseConnectionProvider(dbConnection), SQLDialect.H2);
+    }
+
+    /** A GenericJooqUserDao over the {@code "users"} table, as the vendor modules build theirs. */
+    public static GenericJooqUserDao<Record, Long> userDao(DatabaseConnection dbConnection) {
+        return new GenericJooqUserDao<>(dsl(dbConnection), USERS, ID, NAME, EMAIL);
+    }
+
+    @Override
+    public void close() throws SQLException {
+        for (Connection conn : keepAlive) {
+            try (Statement st = conn.createStatement()) {
+                st.execute("DROP TABLE IF EXISTS \"users\"");
+                st.execute("DROP TABLE IF EXISTS \"user_id_blocks\"");
+            }
+            conn.close();
+        }
+    }
+}
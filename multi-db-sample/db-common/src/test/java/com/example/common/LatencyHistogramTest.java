@@ -0,0 +1,72 @@
+package com.example.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+    @Test
+    void percentilesStayWithinBucketPrecision() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (long v = 1; v <= 10_000; v++) {
+            h.record(v * 1_000);
+        }
+        assertEquals(10_000, h.getCount());
+        assertEquals(10_000_000, h.getMaxNanos());
+        assertEquals(5_000_000, h.getValueAtPercentile(50.0), 5_000_000 * 0.07);
+        assertEquals(9_900_000, h.getValueAtPercentile(99.0), 9_900_000 * 0.07);
+        assertEquals(10_000_000, h.getValueAtPercentile(100.0));
+    }
+
+    @Test
+    void bucketBoundsCoverEveryValue() {
+        long[] samples = {0, 1, 15, 16, 17, 31, 32, 1_000, 123_456_789, Long.MAX_VALUE};
+        for (long v : samples) {
+            int index = LatencyHistogram.indexOf(v);
+            assertTrue(LatencyHistogram.upperBoundOf(index) >= v, "upper bound below " + v);
+            if (index > 0) {
+                assertTrue(LatencyHistogram.upperBoundOf(index - 1) < v, "previous bucket covers " + v);
+            }
+        }
+    }
+
+    @Test
+    void addAndReset() {
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram();
+        a.record(100);
+        b.record(200);
+        a.add(b);
+        assertEquals(2, a.getCount());
+        assertEquals(200, a.getMaxNanos());
+        a.reset();
+        assertEquals(0, a.getCount());
+        assertEquals(0, a.getValueAtPercentile(99.0));
+    }
+
+    @Test
+    void concurrentRecordingsAreAllCounted() throws Exception {
+        LatencyHistogram h = new LatencyHistogram();
+        int threads = 16;
+        int perThread = 10_000;
+        List<Thread> recorders = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long base = (t + 1) * 1_000L;
+            recorders.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    h.record(base + i % 100);
+                }
+            }));
+        }
+        for (Thread recorder : recorders) {
+            recorder.join();
+        }
+
+        assertEquals((long) threads * perThread, h.getCount());
+        assertEquals(threads * 1_000L + 99, h.getMaxNanos());
+        assertTrue(h.getValueAtPercentile(100.0) >= threads * 1_000L);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongObjectHashMapTest {
+
+    @Test
+    void basicOperations() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        assertNull(map.put(0L, "zero"));
+        assertNull(map.put(-1L, "minus one"));
+        assertNull(map.put(Long.MAX_VALUE, "max"));
+        assertEquals("zero", map.put(0L, "ZERO"));
+
+        assertEquals(3, map.size());
+        assertEquals("ZERO", map.get(0L));
+        assertEquals("minus one", map.get(-1L));
+        assertEquals("max", map.get(Long.MAX_VALUE));
+        assertNull(map.get(42L));
+
+        assertEquals("minus one", map.remove(-1L));
+        assertNull(map.remove(-1L));
+        assertFalse(map.containsKey(-1L));
+        assertEquals(2, map.size());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(0L));
+        assertThrows(NullPointerException.class, () -> map.put(1L, null));
+    }
+
+    @Test
+    void behavesLikeHashMapUnderRandomOperations() {
+        LongObjectHashMap<Long> map = new LongObjectHashMap<>();
+        Map<Long, Long> reference = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            // small key space so removals hit existing keys and probe runs collide
+            long key = random.nextInt(5_000) * (random.nextBoolean() ? 1L : -1_000_003L);
+            switch (random.nextInt(3)) {
+                case 0, 1 -> assertEquals(reference.put(key, (long) i), map.put(key, (long) i));
+                default -> assertEquals(reference.remove(key), map.remove(key));
+            }
+        }
+        assertEquals(reference.size(), map.size());
+        reference.forEach((k, v) -> assertEquals(v, map.get(k)));
+
+        Map<Long, Long> seen = new HashMap<>();
+        map.forEach(seen::put);
+        assertEquals(reference, seen);
+    }
+
+    @Test
+    void growsPastInitialCapacity() {
+        LongObjectHashMap<Integer> map = new LongObjectHashMap<>(4);
+        for (int i = 0; i < 100_000; i++) {
+            map.put(i * 31L, i);
+        }
+        assertEquals(100_000, map.size());
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals(i, map.get(i * 31L));
+        }
+    }
+}
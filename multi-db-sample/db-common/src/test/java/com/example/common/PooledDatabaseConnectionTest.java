@@ -0,0 +1,167 @@
+package com.example.common;
+
+import org.h2.jdbc.JdbcConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PooledDatabaseConnectionTest {
+    private PooledDatabaseConnection pool;
+
+    private PooledDatabaseConnection newPool(PoolConfig config) {
+        String url = "jdbc:h2:mem:pool-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        pool = new PooledDatabaseConnection(url, "sa", "", config);
+        return pool;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) pool.close();
+    }
+
+    @Test
+    void returnedConnectionIsReused() throws SQLException {
+        newPool(new PoolConfig().minIdle(0));
+        JdbcConnection physical;
+        try (Connection c = pool.getConnection()) {
+            physical = c.unwrap(JdbcConnection.class);
+        }
+        try (Connection c = pool.getConnection()) {
+            assertSame(physical, c.unwrap(JdbcConnection.class));
+        }
+        assertEquals(1, pool.getMetrics().getTotal());
+        assertEquals(2, pool.getMetrics().getAcquireTime().getCount());
+    }
+
+    @Test
+    void prefillsMinIdle() {
+        newPool(new PoolConfig().maxPoolSize(5).minIdle(3));
+        PoolMetrics metrics = pool.getMetrics();
+        assertEquals(3, metrics.getIdle());
+        assertEquals(0, metrics.getActive());
+    }
+
+    @Test
+    void acquireTimesOutWhenPoolIsExhausted() throws SQLException {
+        newPool(new PoolConfig().maxPoolSize(2).minIdle(0).acquireTimeout(Duration.ofMillis(100)));
+        try (Connection a = pool.getConnection(); Connection b = pool.getConnection()) {
+            assertEquals(2, pool.getMetrics().getActive());
+            assertThrows(SQLTimeoutException.class, () -> pool.getConnection());
+        }
+        assertEquals(0, pool.getMetrics().getActive());
+        assertEquals(2, pool.getMetrics().getIdle());
+    }
+
+    @Test
+    void returnedHandleCannotBeUsed() throws SQLException {
+        newPool(new PoolConfig().minIdle(0));
+        Connection c = pool.getConnection();
+        c.close();
+        assertTrue(c.isClosed());
+        assertThrows(SQLException.class, c::createStatement);
+        // closing twice must not hand the same connection back twice
+        c.close();
+        assertEquals(1, pool.getMetrics().getIdle());
+    }
+
+    @Test
+    void brokenIdleConnectionIsReplacedOnBorrow() throws SQLException {
+        newPool(new PoolConfig().minIdle(0));
+        JdbcConnection physical;
+        try (Connection c = pool.getConnection()) {
+            physical = c.unwrap(JdbcConnection.class);
+        }
+        physical.close(); // simulate the server dropping an idle connection
+        try (Connection c = pool.getConnection()) {
+            assertNotSame(physical, c.unwrap(JdbcConnection.class));
+            assertTrue(c.isValid(1));
+        }
+    }
+
+    @Test
+    void connectionsPastMaxLifetimeAreRetired() throws Exception {
+        newPool(new PoolConfig().minIdle(0).maxLifetime(Duration.ofMillis(50)));
+        JdbcConnection physical;
+        try (Connection c = pool.getConnection()) {
+            physical = c.unwrap(JdbcConnection.class);
+        }
+        Thread.sleep(100);
+        try (Connection c = pool.getConnection()) {
+            assertNotSame(physical, c.unwrap(JdbcConnection.class));
+        }
+        assertTrue(physical.isClosed());
+    }
+
+    @Test
+    void uncommittedWorkIsRolledBackOnReturn() throws SQLException {
+        newPool(new PoolConfig().maxPoolSize(1).minIdle(0));
+        try (Connection c = pool.getConnection(); Statement st = c.createStatement()) {
+            st.execute("CREATE TABLE t (id INT)");
+        }
+        try (Connection c = pool.getConnection(); Statement st = c.createStatement()) {
+            c.setAutoCommit(false);
+            st.executeUpdate("INSERT INTO t VALUES (1)");
+        }
+        try (Connection c = pool.getConnection(); Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM t")) {
+            assertTrue(c.getAutoCommit());
+            assertTrue(rs.next());
+            assertEquals(0, rs.getInt(1));
+        }
+    }
+
+    @Test
+    void reportsConnectionsHeldPastLeakThreshold() throws Exception {
+        newPool(new PoolConfig().minIdle(0).leakDetectionThreshold(Duration.ofMillis(50)));
+        try (Connection c = pool.getConnection()) {
+            long deadline = System.currentTimeMillis() + 2_000;
+            while (pool.getMetrics().getLeaksDetected() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(1, pool.getMetrics().getLeaksDetected());
+        }
+    }
+
+    @Test
+    void unwrapNeverHandsOutThePhysicalConnection() throws SQLException {
+        newPool(new PoolConfig().minIdle(0));
+        try (Connection c = pool.getConnection()) {
+            assertSame(c, c.unwrap(Connection.class));
+            assertTrue(c.isWrapperFor(Connection.class));
+            assertTrue(c.isWrapperFor(JdbcConnection.class));
+            c.unwrap(Connection.class).close();
+        }
+        assertEquals(1, pool.getMetrics().getIdle());
+        assertEquals(0, pool.getMetrics().getActive());
+    }
+
+    @Test
+    void sessionStateIsRestoredOnReturn() throws SQLException {
+        newPool(new PoolConfig().maxPoolSize(1).minIdle(0));
+        int isolation;
+        String schema;
+        try (Connection c = pool.getConnection(); Statement st = c.createStatement()) {
+            isolation = c.getTransactionIsolation();
+            schema = c.getSchema();
+            st.execute("CREATE SCHEMA other");
+            c.setReadOnly(true);
+            c.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+            c.setSchema("OTHER");
+        }
+        try (Connection c = pool.getConnection()) {
+            assertFalse(c.isReadOnly());
+            assertEquals(isolation, c.getTransactionIsolation());
+            assertEquals(schema, c.getSchema());
+        }
+        assertEquals(1, pool.getMetrics().getTotal());
+    }
+}
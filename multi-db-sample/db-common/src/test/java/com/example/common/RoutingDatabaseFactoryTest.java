@@ -0,0 +1,149 @@
+package com.example.common;
+
+import com.example.base.dao.BulkLoader;
+import com.example.base.dao.RoutingUserDao;
+import com.example.base.dao.UserDao;
+import com.example.base.entity.User;
+import com.example.entity.BatchBulkLoader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** One primary and two replicas as separate H2 databases, without replication between them. */
+public class RoutingDatabaseFactoryTest {
+    /** Builds GenericJooqUserDaos over H2, the way the vendor modules do over their databases. */
+    private static class H2Factory implements DatabaseFactory {
+        private DatabaseConnection dbConnection;
+
+        @Override
+        public UserDao createUserDao() {
+            return createUserDao(dbConnection);
+        }
+
+        @Override
+        public UserDao createUserDao(DatabaseConnection dbConnection) {
+            return H2UserDatabases.userDao(dbConnection);
+        }
+
+        @Override
+        public BulkLoader createBulkLoader() {
+            return createBulkLoader(dbConnection);
+        }
+
+        @Override
+        public BulkLoader createBulkLoader(DatabaseConnection dbConnection) {
+            return new BatchBulkLoader(H2UserDatabases.dsl(dbConnection), H2UserDatabases.USERS, H2UserDatabases.NAME, H2UserDatabases.EMAIL);
+        }
+
+        @Override
+        public DatabaseConnection createDatabaseConnection(String url, String user, String password) {
+            this.dbConnection = new DefaultDatabaseConnection(url, user, password);
+            return dbConnection;
+        }
+    }
+
+    private final List<RoutingDatabaseFactory> factories = new ArrayList<>();
+    private H2UserDatabases databases;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        databases = new H2UserDatabases(List.of("routing_primary", "routing_replica1", "routing_replica2"));
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        factories.forEach(RoutingDatabaseFactory::close);
+        databases.close();
+    }
+
+    private RoutingDatabaseFactory factory() {
+        RoutingDatabaseFactory factory = new RoutingDatabaseFactory(new H2Factory());
+        factories.add(factory);
+        factory.createDatabaseConnection(databases.url(0), "sa", "");
+        factory.addReplica(databases.url(1), "sa", "");
+        factory.addReplica(databases.url(2), "sa", "");
+        return factory;
+    }
+
+    private void insert(int database, String name) throws SQLException {
+        try (Statement st = databases.connection(database).createStatement()) {
+            st.execute("INSERT INTO \"users\" (\"name\", \"email\") VALUES ('" + name + "', '" + name + "@example.com')");
+        }
+    }
+
+    @Test
+    void writesLandOnThePrimaryAndReadsComeFromBothReplicas() throws SQLException {
+        RoutingDatabaseFactory factory = factory();
+        UserDao dao = factory.createUserDao();
+        insert(1, "replica1");
+        insert(2, "replica2");
+
+        User alice = new User("Alice", "alice@example.com");
+        dao.save(alice);
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            dao.findAll().forEach(user -> seen.add(user.getName()));
+        }
+
+        assertEquals(Set.of("replica1", "replica2"), seen);
+        assertEquals("Alice", factory.createUserDao(factory.getPrimary()).findById(alice.getId()).orElseThrow().getName());
+        assertEquals(2, ((RoutingUserDao) dao).getReplicaCount());
+    }
+
+    @Test
+    void readYourWritesSendsTheNextReadsToThePrimary() {
+        UserDao dao = factory().readYourWrites(Duration.ofMinutes(1)).createUserDao();
+
+        User alice = new User("Alice", "alice@example.com");
+        dao.save(alice);
+
+        assertEquals("Alice", dao.findById(alice.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void withoutReadYourWritesAFreshWriteIsNotVisibleOnTheReplicas() {
+        UserDao dao = factory().createUserDao();
+
+        User alice = new User("Alice", "alice@example.com");
+        dao.save(alice);
+
+        assertTrue(dao.findById(alice.getId()).isEmpty());
+    }
+
+    @Test
+    void bulkLoadsGoToThePrimary() {
+        RoutingDatabaseFactory factory = factory();
+
+        factory.createBulkLoader().load(List.of(new User("a", "a@example.com"), new User("b", "b@example.com")).iterator());
+
+        assertEquals(2, factory.createUserDao(factory.getPrimary()).findAll().size());
+        assertTrue(factory.createUserDao(factory.getReplicas().get(0)).findAll().isEmpty());
+    }
+
+    @Test
+    void closeShutsDownThePoolsItCreated() throws SQLException {
+        RoutingDatabaseFactory factory = factory();
+
+        factory.close();
+
+        assertThrows(SQLException.class, () -> factory.getPrimary().getConnection());
+        assertThrows(SQLException.class, () -> factory.getReplicas().get(1).getConnection());
+    }
+
+    @Test
+    void requiresAPrimary() {
+        RoutingDatabaseFactory factory = new RoutingDatabaseFactory(new H2Factory());
+
+        assertThrows(IllegalStateException.class, factory::createUserDao);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.entity;
+
+import com.example.base.entity.User;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchBulkLoaderTest {
+    private final Table<?> usersTable = DSL.table(DSL.name("bulk_users"));
+    private final Field<String> nameField = DSL.field(DSL.name("name"), String.class);
+    private final Field<String> emailField = DSL.field(DSL.name("email"), String.class);
+
+    private Connection conn;
+    private DSLContext dsl;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:bulk;DB_CLOSE_DELAY=-1");
+        dsl = DSL.using(conn);
+        dsl.execute("CREATE TABLE \"bulk_users\" (\"id\" INT AUTO_INCREMENT PRIMARY KEY, \"name\" VARCHAR(255), \"email\" VARCHAR(255))");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        if (dsl != null) dsl.execute("DROP TABLE IF EXISTS \"bulk_users\"");
+        if (conn != null) conn.close();
+    }
+
+    @Test
+    void loadsRowsLazilyInBatches() {
+        BatchBulkLoader loader = new BatchBulkLoader(dsl, usersTable, nameField, emailField, 1000);
+        Iterator<User> users = IntStream.range(0, 2500)
+                .mapToObj(i -> new User("user" + i, i % 10 == 0 ? null : "user" + i + "@example.com"))
+                .iterator();
+
+        assertEquals(2500, loader.load(users));
+        assertEquals(2500, dsl.fetchCount(usersTable));
+        assertEquals(250, dsl.fetchCount(usersTable, emailField.isNull()));
+        assertEquals("user2499", dsl.select(nameField).from(usersTable)
+                .orderBy(DSL.field(DSL.name("id")).desc()).limit(1).fetchOne(nameField));
+    }
+
+    @Test
+    void emptyInputLoadsNothing() {
+        BatchBulkLoader loader = new BatchBulkLoader(dsl, usersTable, nameField, emailField);
+
+        assertEquals(0, loader.load(List.of()));
+        assertEquals(0, dsl.fetchCount(usersTable));
+    }
+
+    @Test
+    void failedLoadIsRolledBack() {
+        BatchBulkLoader loader = new BatchBulkLoader(dsl, usersTable, nameField, emailField, 100);
+        Iterator<User> users = IntStream.range(0, 1000)
+                .mapToObj(i -> {
+                    if (i == 750) throw new IllegalStateException("source failed");
+                    return new User("user" + i, "user" + i + "@example.com");
+                })
+                .iterator();
+
+        assertThrows(RuntimeException.class, () -> loader.load(users));
+        assertEquals(0, dsl.fetchCount(usersTable));
+    }
+}
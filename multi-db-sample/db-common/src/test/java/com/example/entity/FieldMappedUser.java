@@ -0,0 +1,11 @@
+package com.example.entity;
+
+import com.example.jooq.GenerateRecordMapper;
+
+/** A mapped class without setters, whose fields the generated mapper assigns directly. */
+@GenerateRecordMapper
+public class FieldMappedUser {
+    long id;
+    public String name;
+    protected String email;
+}
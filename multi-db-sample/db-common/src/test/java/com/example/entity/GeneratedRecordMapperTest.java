@@ -0,0 +1,136 @@
+package com.example.entity;
+
+import com.example.base.entity.User;
+import com.example.jooq.GeneratedRecordMapperProvider;
+import org.jooq.Configuration;
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.RecordMapper;
+import org.jooq.RecordMapperProvider;
+import org.jooq.RecordType;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The mapper generated for base-entity's User must fill the same properties as jOOQ's
+ * reflective DefaultRecordMapper, and unannotated types must still fall back to it.
+ */
+public class GeneratedRecordMapperTest {
+    private Connection conn;
+    private DSLContext reflective;
+    private DSLContext generated;
+    private GeneratedRecordMapperProvider provider;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:mapper;DB_CLOSE_DELAY=-1");
+        reflective = DSL.using(conn);
+        Configuration configuration = reflective.configuration();
+        provider = new GeneratedRecordMapperProvider(configuration);
+        generated = configuration.derive(provider).dsl();
+        reflective.execute("CREATE TABLE \"app_users\" (\"ID\" INT PRIMARY KEY, \"NAME\" VARCHAR(255), \"EMAIL\" VARCHAR(255))");
+        reflective.execute("INSERT INTO \"app_users\" VALUES (1, 'Alice', 'alice@example.com'), (2, NULL, 'bob@example.com')");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        if (reflective != null) reflective.execute("DROP TABLE IF EXISTS \"app_users\"");
+        if (conn != null) conn.close();
+    }
+
+    @Test
+    void generatedMapperIsRegisteredForAnnotatedUser() {
+        assertTrue(provider.hasGeneratedMapper(User.class));
+        assertFalse(provider.hasGeneratedMapper(UserRow.class));
+    }
+
+    @Test
+    void mapsLikeTheReflectiveMapper() {
+        String sql = "SELECT \"ID\", \"NAME\", \"EMAIL\" FROM \"app_users\" ORDER BY \"ID\"";
+        List<User> expected = reflective.resultQuery(sql).fetchInto(User.class);
+        List<User> actual = generated.resultQuery(sql).fetchInto(User.class);
+
+        assertEquals(2, actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getId(), actual.get(i).getId());
+            assertEquals(expected.get(i).getName(), actual.get(i).getName());
+            assertEquals(expected.get(i).getEmail(), actual.get(i).getEmail());
+        }
+        // INT column converted to the Long property; upper-case column names matched
+        assertEquals(1L, actual.get(0).getId());
+        assertEquals("alice@example.com", actual.get(0).getEmail());
+        assertNull(actual.get(1).getName());
+    }
+
+    @Test
+    void missingColumnsAreLeftUnset() {
+        User user = generated.resultQuery("SELECT \"NAME\" FROM \"app_users\" WHERE \"ID\" = 1").fetchOneInto(User.class);
+
+        assertEquals("Alice", user.getName());
+        assertNull(user.getId());
+        assertNull(user.getEmail());
+    }
+
+    @Test
+    void fieldsWithoutSettersAreAssignedDirectly() {
+        assertTrue(provider.hasGeneratedMapper(FieldMappedUser.class));
+        List<FieldMappedUser> users = generated.resultQuery("SELECT \"ID\", \"NAME\", \"EMAIL\" FROM \"app_users\" ORDER BY \"ID\"")
+                .fetchInto(FieldMappedUser.class);
+
+        assertEquals(1L, users.get(0).id);
+        assertEquals("Alice", users.get(0).name);
+        assertEquals("alice@example.com", users.get(0).email);
+        assertEquals(2L, users.get(1).id);
+        assertNull(users.get(1).name);
+    }
+
+    @Test
+    void unannotatedTypesFallBackToReflection() {
+        UserRow row = generated.resultQuery("SELECT \"ID\" AS \"id\" FROM \"app_users\" WHERE \"ID\" = 2")
+                .fetchOneInto(UserRow.class);
+
+        assertEquals(2, row.id);
+    }
+
+    @Test
+    void genericJooqUserDaoMapsThroughTheConfiguredProvider() {
+        List<Class<?>> provided = new ArrayList<>();
+        RecordMapperProvider counting = new RecordMapperProvider() {
+            @Override
+            public <R extends Record, E> RecordMapper<R, E> provide(RecordType<R> recordType, Class<? extends E> type) {
+                provided.add(type);
+                return provider.provide(recordType, type);
+            }
+        };
+        DSLContext dsl = reflective.configuration().derive(counting).dsl();
+        Table<Record> table = DSL.table(DSL.name("app_users"));
+        GenericJooqUserDao<Record, Integer> dao = new GenericJooqUserDao<>(dsl, table,
+                DSL.field(DSL.name("app_users", "ID"), Integer.class),
+                DSL.field(DSL.name("app_users", "NAME"), String.class),
+                DSL.field(DSL.name("app_users", "EMAIL"), String.class));
+
+        assertEquals("Alice", dao.findById(1L).orElseThrow().getName());
+        assertEquals(List.of(1L, 2L), dao.findPage(null, 10).stream().map(User::getId).toList());
+        try (Stream<User> users = dao.streamAll(10)) {
+            assertEquals("bob@example.com", users.skip(1).findFirst().orElseThrow().getEmail());
+        }
+
+        assertEquals(List.of(User.class, User.class, User.class), provided);
+    }
+
+    public static class UserRow {
+        public int id;
+    }
+}
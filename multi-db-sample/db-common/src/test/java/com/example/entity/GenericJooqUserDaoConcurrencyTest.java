@@ -0,0 +1,112 @@
+package com.example.entity;
+
+import com.example.base.entity.User;
+import com.example.common.DatabaseConnectionProvider;
+import com.example.common.PoolConfig;
+import com.example.common.PooledDatabaseConnection;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.SQLDialect;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * One GenericJooqUserDao instance shared by hundreds of threads, over a DSLContext that
+ * borrows a pooled connection per statement.
+ */
+public class GenericJooqUserDaoConcurrencyTest {
+    private static final int THREADS = 200;
+    private static final int ROUNDS = 20;
+
+    private PooledDatabaseConnection pool;
+    private GenericJooqUserDao<Record, Integer> dao;
+
+    @BeforeEach
+    void setUp() {
+        pool = new PooledDatabaseConnection("jdbc:h2:mem:concurrency;DB_CLOSE_DELAY=-1", "sa", "",
+                new PoolConfig().maxPoolSize(10).acquireTimeout(Duration.ofSeconds(60)));
+        DSLContext dsl = DSL.using(new DatabaseConnectionProvider(pool), SQLDialect.H2);
+        dsl.execute("CREATE TABLE \"users\" (\"id\" INT AUTO_INCREMENT PRIMARY KEY, \"name\" VARCHAR(255), \"email\" VARCHAR(255))");
+
+        Table<Record> usersTable = DSL.table(DSL.name("users"));
+        Field<Integer> idField = DSL.field(DSL.name("users", "id"), Integer.class);
+        Field<String> nameField = DSL.field(DSL.name("users", "name"), String.class);
+        Field<String> emailField = DSL.field(DSL.name("users", "email"), String.class);
+        dao = new GenericJooqUserDao<>(dsl, usersTable, idField, nameField, emailField);
+    }
+
+    @AfterEach
+    void tearDown() {
+        DSL.using(new DatabaseConnectionProvider(pool), SQLDialect.H2).execute("DROP TABLE IF EXISTS \"users\"");
+        pool.close();
+    }
+
+    @Test
+    void sharedDaoServesConcurrentCallers() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> survivors = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                final int thread = t;
+                survivors.add(executor.submit(() -> {
+                    start.await();
+                    long keep = 0;
+                    for (int round = 0; round < ROUNDS; round++) {
+                        User user = new User("user-" + thread + "-" + round, thread + "@example.com");
+                        dao.save(user);
+                        Optional<User> found = dao.findById(user.getId());
+                        assertTrue(found.isPresent());
+                        assertEquals(user.getName(), found.get().getName());
+
+                        user.setName(user.getName() + "-updated");
+                        dao.update(user);
+                        assertEquals(user.getName(), dao.findById(user.getId()).orElseThrow().getName());
+
+                        if (round < ROUNDS - 1) {
+                            dao.deleteById(user.getId());
+                            assertFalse(dao.findById(user.getId()).isPresent());
+                        } else {
+                            keep = user.getId();
+                        }
+                    }
+                    return keep;
+                }));
+            }
+            start.countDown();
+
+            List<Long> keptIds = new ArrayList<>();
+            for (Future<Long> f : survivors) {
+                keptIds.add(f.get(2, TimeUnit.MINUTES));
+            }
+
+            List<User> all = dao.findAll();
+            assertEquals(THREADS, all.size());
+            assertEquals(THREADS, keptIds.stream().distinct().count());
+            assertTrue(all.stream().allMatch(u -> keptIds.contains(u.getId())));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // every borrowed connection went back to the pool, which never grew past its bound
+        assertEquals(0, pool.getMetrics().getActive());
+        assertTrue(pool.getMetrics().getTotal() <= 10);
+        assertTrue(pool.getMetrics().getAcquireTime().getCount() >= (long) THREADS * ROUNDS * 5);
+    }
+}
@@ -4,6 +4,7 @@ import com.example.base.entity.User;
 import org.jooq.DSLContext;
 import org.jooq.Field;
 import org.jooq.Record;
+import org.jooq.Table;
 import org.jooq.impl.DSL;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,10 +13,18 @@ import org.junit.jupiter.api.Test;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 public class GenericJooqUserDaoIntegrationTest {
+    private static final Table<Record> USERS = DSL.table(DSL.name("users"));
+    private static final Field<Integer> ID = DSL.field(DSL.name("users", "id"), Integer.class);
+    private static final Field<String> NAME = DSL.field(DSL.name("users", "name"), String.class);
+    private static final Field<String> EMAIL = DSL.field(DSL.name("users", "email"), String.class);
+
     private Connection conn;
     private DSLContext dsl;
 
@@ -23,24 +32,24 @@ public class GenericJooqUserDaoIntegrationTest {
     void setUp() throws SQLException {
         conn = DriverManager.getConnection("jdbc:h2:mem:test;DB_CLOSE_DELAY=-1");
         dsl = DSL.using(conn);
-    // create a simple user table (quote table and column names to match jOOQ's quoted identifiers)
-    dsl.execute("CREATE TABLE \"users\" (\"id\" INT AUTO_INCREMENT PRIMARY KEY, \"name\" VARCHAR(255), \"email\" VARCHAR(255))");
+        // create a simple user table (quote table and column names to match jOOQ's quoted identifiers)
+        dsl.execute("CREATE TABLE \"users\" (\"id\" INT AUTO_INCREMENT PRIMARY KEY, \"name\" VARCHAR(255), \"email\" VARCHAR(255))");
     }
 
     @AfterEach
     void tearDown() throws SQLException {
-        if (dsl != null) dsl.execute("DROP TABLE IF EXISTS users");
+        if (dsl != null) dsl.execute("DROP TABLE IF EXISTS \"users\"");
+        if (dsl != null) dsl.execute("DROP TABLE IF EXISTS \"user_id_blocks\"");
         if (conn != null) conn.close();
     }
 
+    private GenericJooqUserDao<Record, Integer> newDao() {
+        return new GenericJooqUserDao<>(dsl, USERS, ID, NAME, EMAIL);
+    }
+
     @Test
     void crudFlow() {
-    org.jooq.Table<Record> usersTable = DSL.table(DSL.name("users"));
-    Field<Integer> idField = DSL.field(DSL.name("users", "id"), Integer.class);
-    Field<String> nameField = DSL.field(DSL.name("users", "name"), String.class);
-    Field<String> emailField = DSL.field(DSL.name("users", "email"), String.class);
-
-        GenericJooqUserDao<Record, Integer> dao = new GenericJooqUserDao<>(dsl, usersTable, idField, nameField, emailField) {};
+        GenericJooqUserDao<Record, Integer> dao = new GenericJooqUserDao<>(dsl, USERS, ID, NAME, EMAIL) {};
 
         User u = new User();
         u.setName("Alice");
@@ -64,4 +73,127 @@ public class GenericJooqUserDaoIntegrationTest {
         var afterDelete = dao.findById(u.getId());
         assertFalse(afterDelete.isPresent());
     }
+
+    @Test
+    void batchCrudFlow() {
+        GenericJooqUserDao<Record, Integer> dao = newDao();
+
+        // more rows than one chunk so the chunk boundaries are exercised
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            users.add(new User("user" + i, "user" + i + "@example.com"));
+        }
+        List<Long> ids = dao.saveAll(users);
+        assertEquals(2500, ids.size());
+        assertEquals(2500, new HashSet<>(ids).size());
+        for (int i = 0; i < users.size(); i++) {
+            assertEquals(ids.get(i), users.get(i).getId());
+            assertEquals("user" + i, dao.findById(ids.get(i)).orElseThrow().getName());
+        }
+
+        users.forEach(u -> u.setName(u.getName() + "-renamed"));
+        dao.updateAll(users);
+        List<User> found = dao.findAllById(ids);
+        assertEquals(2500, found.size());
+        assertTrue(found.stream().allMatch(u -> u.getName().endsWith("-renamed")));
+
+        dao.deleteAllById(ids.subList(0, 1500));
+        assertEquals(1000, dao.findAll().size());
+        assertEquals(1000, dao.findAllById(ids).size());
+        assertTrue(dao.findAllById(List.of(-1L)).isEmpty());
+    }
+
+    @Test
+    void failedSaveAllLeavesTheUsersWithoutIds() {
+        GenericJooqUserDao<Record, Integer> dao = newDao();
+
+        // the first chunk goes in before the last one fails
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            users.add(new User("user" + i, "user" + i + "@example.com"));
+        }
+        users.add(new User("x".repeat(300), "too-long@example.com"));
+        assertThrows(RuntimeException.class, () -> dao.saveAll(users));
+
+        assertTrue(users.stream().allMatch(u -> u.getId() == null));
+        assertTrue(dao.findAll().isEmpty());
+    }
+
+    @Test
+    void rowByRowSaveAllKeepsTheIdsInOrder() {
+        GenericJooqUserDao<Record, Integer> dao = new GenericJooqUserDao<>(dsl, USERS, ID, NAME, EMAIL) {
+            @Override
+            protected boolean insertReturnsIdsInOrder() {
+                return false;
+            }
+        };
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            users.add(new User("user" + i, "user" + i + "@example.com"));
+        }
+        List<Long> ids = dao.saveAll(users);
+        for (int i = 0; i < users.size(); i++) {
+            assertEquals(ids.get(i), users.get(i).getId());
+            assertEquals("user" + i, dao.findById(ids.get(i)).orElseThrow().getName());
+        }
+    }
+
+    @Test
+    void keysetPaging() {
+        GenericJooqUserDao<Record, Integer> dao = newDao();
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            users.add(new User("user" + i, "user" + i + "@example.com"));
+        }
+        List<Long> ids = dao.saveAll(users);
+
+        List<User> first = dao.findPage(null, 10);
+        List<User> second = dao.findPage(first.get(9).getId(), 10);
+        List<User> third = dao.findPage(second.get(9).getId(), 10);
+        assertEquals(ids.subList(0, 10), first.stream().map(User::getId).toList());
+        assertEquals(ids.subList(10, 20), second.stream().map(User::getId).toList());
+        assertEquals(ids.subList(20, 25), third.stream().map(User::getId).toList());
+        assertTrue(dao.findPage(ids.get(24), 10).isEmpty());
+
+        List<User> back = dao.findPageBefore(third.get(0).getId(), 5);
+        assertEquals(ids.subList(15, 20).reversed(), back.stream().map(User::getId).toList());
+
+        assertEquals(25, dao.findPage(null, Integer.MAX_VALUE).size());
+        assertThrows(IllegalArgumentException.class, () -> dao.findPage(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> dao.findPageBefore(null, -1));
+    }
+
+    @Test
+    void insertWithIdsKeepsTheGivenIdsWhileSaveStillGeneratesThem() {
+        GenericJooqUserDao<Record, Integer> dao = newDao();
+
+        dao.insertWithIds(List.of(
+                new User(100L, "Alice", "alice@example.com"),
+                new User(200L, "Bob", "bob@example.com")));
+        assertEquals("Bob", dao.findById(200L).orElseThrow().getName());
+
+        // Saving a loaded user again inserts a new row rather than colliding with its id
+        User alice = dao.findById(100L).orElseThrow();
+        dao.save(alice);
+        assertNotEquals(100L, alice.getId());
+        assertEquals(3, dao.findAll().size());
+
+        assertThrows(IllegalArgumentException.class, () -> dao.insertWithIds(List.of(
+                new User(300L, "Carol", "carol@example.com"),
+                new User("Dave", "dave@example.com"))));
+        assertTrue(dao.findById(300L).isEmpty());
+    }
+
+    @Test
+    void reservedIdBlocksDoNotOverlap() {
+        dsl.execute("CREATE TABLE \"user_id_blocks\" (\"next_id\" BIGINT NOT NULL)");
+        dsl.execute("INSERT INTO \"user_id_blocks\" VALUES (1)");
+        GenericJooqUserDao<Record, Integer> dao = newDao();
+
+        assertEquals(1L, dao.reserveIds(10));
+        assertEquals(11L, dao.reserveIds(5));
+        assertEquals(16L, dao.reserveIds(1));
+    }
 }
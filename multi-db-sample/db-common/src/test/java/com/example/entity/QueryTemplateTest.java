@@ -0,0 +1,110 @@
+package com.example.entity;
+
+import com.example.jooq.QueryTemplate;
+import org.jooq.BatchBindStep;
+import org.jooq.DSLContext;
+import org.jooq.ExecuteContext;
+import org.jooq.ExecuteListener;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryTemplateTest {
+    private static final Table<Record> USERS = DSL.table(DSL.name("template_users"));
+    private static final Field<Long> ID = DSL.field(DSL.name("id"), Long.class);
+    private static final Field<String> NAME = DSL.field(DSL.name("name"), String.class);
+
+    private Connection conn;
+    private DSLContext dsl;
+    private final List<String> executed = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:query_template;DB_CLOSE_DELAY=-1");
+        DSL.using(conn).execute("CREATE TABLE \"template_users\" (\"id\" BIGINT PRIMARY KEY, \"name\" VARCHAR(100))");
+        dsl = DSL.using(conn).configuration().derive(new ExecuteListener() {
+            @Override
+            public void executeStart(ExecuteContext ctx) {
+                executed.add(ctx.sql());
+            }
+        }).dsl();
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        DSL.using(conn).execute("DROP TABLE IF EXISTS \"template_users\"");
+        conn.close();
+    }
+
+    @Test
+    void executesTheRenderedSqlWithNewValues() {
+        QueryTemplate insert = new QueryTemplate(dsl, dsl.insertInto(USERS, ID, NAME).values((Long) null, (String) null));
+        QueryTemplate find = new QueryTemplate(dsl, dsl.select(ID, NAME).from(USERS).where(ID.eq(DSL.val(null, ID))));
+        assertEquals(2, insert.getParamCount());
+
+        assertEquals(1, insert.execute(1L, "Alice"));
+        assertEquals(1, insert.execute(2L, "Bob"));
+        Record bob = find.fetchOne(2L);
+
+        assertEquals("Bob", bob.get(NAME));
+        assertEquals(2L, bob.get(ID));
+        assertNull(find.fetchOne(3L));
+        assertEquals(List.of(insert.getSql(), insert.getSql(), find.getSql(), find.getSql()), executed);
+    }
+
+    @Test
+    void batchBindsEveryRowToOneStatement() {
+        QueryTemplate insert = new QueryTemplate(dsl, dsl.insertInto(USERS, ID, NAME).values((Long) null, (String) null));
+
+        BatchBindStep batch = insert.batch();
+        for (long id = 1; id <= 50; id++) {
+            batch.bind(id, "user-" + id);
+        }
+        int[] counts = batch.execute();
+
+        assertEquals(50, counts.length);
+        assertEquals(List.of(insert.getSql()), executed);
+        assertEquals(50, dsl.fetchCount(USERS));
+        assertEquals("user-42", dsl.select(NAME).from(USERS).where(ID.eq(42L)).fetchOne(NAME));
+    }
+
+    @Test
+    void runsOnTransactionContexts() {
+        QueryTemplate insert = new QueryTemplate(dsl, dsl.insertInto(USERS, ID, NAME).values((Long) null, (String) null));
+
+        assertThrows(RuntimeException.class, () -> dsl.transaction(tx -> {
+            insert.query(tx.dsl(), 1L, "rolled back").execute();
+            throw new IllegalStateException("abort");
+        }));
+
+        assertEquals(0, dsl.fetchCount(USERS));
+    }
+
+    @Test
+    void rejectsTheWrongNumberOfValues() {
+        QueryTemplate find = new QueryTemplate(dsl, dsl.select(ID).from(USERS).where(ID.eq(DSL.val(null, ID))));
+
+        assertThrows(IllegalArgumentException.class, () -> find.fetchOne());
+        assertThrows(IllegalArgumentException.class, () -> find.fetchOne(1L, 2L));
+    }
+
+    @Test
+    void rejectsNamedParamsBoundMoreThanOnce() {
+        var id = DSL.param("id", ID);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new QueryTemplate(dsl, dsl.select(ID).from(USERS).where(ID.eq(id).or(ID.gt(id)))));
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.entity;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.example.jooq.SlowQueryListener;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlowQueryListenerTest {
+    private static final Table<Record> USERS = DSL.table(DSL.name("slow_users"));
+    private static final Field<Long> ID = DSL.field(DSL.name("id"), Long.class);
+
+    private Connection conn;
+    private final List<String> recorded = new CopyOnWriteArrayList<>();
+    private final Logger logger = (Logger) LoggerFactory.getLogger(SlowQueryListener.class);
+    private final ListAppender<ILoggingEvent> logged = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:slow_query;DB_CLOSE_DELAY=-1");
+        DSL.using(conn).execute("CREATE TABLE \"slow_users\" (\"id\" BIGINT PRIMARY KEY)");
+        DSL.using(conn).execute("INSERT INTO \"slow_users\" VALUES (1), (2), (3)");
+        logged.start();
+        logger.addAppender(logged);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        logger.detachAppender(logged);
+        DSL.using(conn).execute("DROP TABLE IF EXISTS \"slow_users\"");
+        conn.close();
+    }
+
+    private DSLContext dsl(SlowQueryListener listener) {
+        return DSL.using(conn).configuration().derive(listener).dsl();
+    }
+
+    @Test
+    void recordsEveryStatementWithItsRenderedSql() {
+        DSLContext dsl = dsl(new SlowQueryListener(Duration.ofHours(1), false, (sql, nanos, db, runId) -> {
+            assertTrue(nanos > 0);
+            recorded.add(sql);
+        }));
+
+        assertEquals(1, dsl.selectFrom(USERS).where(ID.eq(2L)).fetch().size());
+        dsl.selectFrom(USERS).where(ID.eq(3L)).fetch();
+
+        assertEquals(2, recorded.size());
+        // Bind values stay placeholders, so both executions group under one SQL string
+        assertEquals(recorded.get(0), recorded.get(1));
+        assertTrue(recorded.get(0).contains("?"), recorded.get(0));
+    }
+
+    @Test
+    void explainOfSlowStatementIsNotTimedItself() {
+        DSLContext dsl = dsl(new SlowQueryListener(Duration.ZERO, true, (sql, nanos, db, runId) -> recorded.add(sql)));
+
+        dsl.selectFrom(USERS).where(ID.gt(1L)).fetch();
+        dsl.selectFrom(USERS).where(ID.gt(1L)).fetch();
+
+        assertEquals(2, recorded.size());
+        assertTrue(recorded.stream().noneMatch(sql -> sql.toLowerCase().startsWith("explain")));
+    }
+
+    @Test
+    void slowStatementIsLoggedWithTheMdcAndExplainedOnce() {
+        MDC.put("db", "h2");
+        MDC.put("runId", "run-42");
+        try {
+            DSLContext dsl = dsl(new SlowQueryListener(Duration.ZERO, true));
+            dsl.selectFrom(USERS).where(ID.gt(1L)).fetch();
+            dsl.selectFrom(USERS).where(ID.gt(1L)).fetch();
+        } finally {
+            MDC.clear();
+        }
+
+        List<String> slow = messages("Slow query: ");
+        assertEquals(2, slow.size());
+        assertTrue(slow.stream().allMatch(line -> line.contains("[db=h2 runId=run-42]") && line.contains("\"slow_users\"")), slow.toString());
+        List<String> plans = messages("Plan for slow query ");
+        assertEquals(1, plans.size(), "each SQL string is explained once");
+        // H2's plan names the index it scans, which the SQL alone does not
+        assertTrue(plans.get(0).contains("PRIMARY_KEY"), plans.get(0));
+    }
+
+    @Test
+    void fromSystemPropertiesSharesOneListenerUntilTheyChange() {
+        SlowQueryListener first = SlowQueryListener.fromSystemProperties();
+        assertSame(first, SlowQueryListener.fromSystemProperties());
+
+        System.setProperty(SlowQueryListener.THRESHOLD_PROPERTY, "1234");
+        try {
+            assertNotSame(first, SlowQueryListener.fromSystemProperties());
+        } finally {
+            System.clearProperty(SlowQueryListener.THRESHOLD_PROPERTY);
+        }
+    }
+
+    private List<String> messages(String prefix) {
+        return logged.list.stream()
+                .map(ILoggingEvent::getFormattedMessage)
+                .filter(message -> message.startsWith(prefix))
+                .toList();
+    }
+
+    @Test
+    void failedStatementIsStillMeasured() {
+        DSLContext dsl = dsl(new SlowQueryListener(Duration.ofHours(1), false, (sql, nanos, db, runId) -> recorded.add(sql)));
+
+        assertThrows(RuntimeException.class, () -> dsl.execute("INSERT INTO \"slow_users\" VALUES (1)"));
+        assertEquals(1, recorded.size());
+    }
+
+    @Test
+    void rejectsNegativeThreshold() {
+        assertThrows(IllegalArgumentException.class, () -> new SlowQueryListener(Duration.ofMillis(-1)));
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.entity;
+
+import com.example.base.dao.JdbcUserDao;
+import com.example.base.dao.UserDao;
+import com.example.base.entity.User;
+import com.example.common.DatabaseConnectionProvider;
+import com.example.common.PoolConfig;
+import com.example.common.PooledDatabaseConnection;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * streamAll must not hold on to rows it has already emitted, so the memory it retains
+ * stays flat whether the table has 20k or 100k rows.
+ */
+public class StreamAllScalingTest {
+    private static final int[] ROW_COUNTS = { 20_000, 100_000 };
+    // Sampled rows allowed to survive a GC; a materializing findAll() keeps all of them
+    private static final int MAX_RETAINED_SAMPLES = 2;
+
+    private PooledDatabaseConnection pool;
+    private DSLContext dsl;
+
+    @BeforeEach
+    void setUp() {
+        pool = new PooledDatabaseConnection("jdbc:h2:mem:streaming;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE", "sa", "",
+                new PoolConfig().maxPoolSize(2).minIdle(0));
+        dsl = DSL.using(new DatabaseConnectionProvider(pool), SQLDialect.H2);
+        dsl.execute("CREATE TABLE users (id INT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(255), email VARCHAR(255))");
+    }
+
+    @AfterEach
+    void tearDown() {
+        dsl.execute("DROP TABLE IF EXISTS users");
+        pool.close();
+    }
+
+    @Test
+    void jooqStreamRetainsConstantMemory() {
+        GenericJooqUserDao<Record, Integer> dao = jooqDao();
+        for (int rows : ROW_COUNTS) {
+            fill(dao, rows);
+            int retained = retainedWhileStreaming(dao, rows);
+            assertTrue(retained <= MAX_RETAINED_SAMPLES, rows + " rows: " + retained + " sampled users still reachable");
+        }
+    }
+
+    @Test
+    void jdbcStreamRetainsConstantMemory() throws SQLException {
+        try (Connection conn = pool.getConnection()) {
+            JdbcUserDao dao = new JdbcUserDao(conn);
+            for (int rows : ROW_COUNTS) {
+                fill(dao, rows);
+                int retained = retainedWhileStreaming(dao, rows);
+                assertTrue(retained <= MAX_RETAINED_SAMPLES, rows + " rows: " + retained + " sampled users still reachable");
+            }
+        }
+    }
+
+    @Test
+    void closingTheStreamReturnsTheConnection() throws SQLException {
+        GenericJooqUserDao<Record, Integer> dao = jooqDao();
+        fill(dao, 500);
+
+        try (Stream<User> users = dao.streamAll(50)) {
+            assertEquals(10, users.limit(10).count());
+            assertEquals(1, pool.getMetrics().getActive(), "the cursor pins one connection");
+        }
+        assertEquals(0, pool.getMetrics().getActive());
+        try (Connection conn = pool.getConnection()) {
+            assertTrue(conn.getAutoCommit());
+        }
+        try (Stream<User> users = dao.streamAll()) {
+            assertEquals(500, users.count());
+        }
+        assertEquals(0, pool.getMetrics().getActive());
+    }
+
+    private GenericJooqUserDao<Record, Integer> jooqDao() {
+        Field<Integer> idField = DSL.field(DSL.name("users", "id"), Integer.class);
+        Field<String> nameField = DSL.field(DSL.name("users", "name"), String.class);
+        Field<String> emailField = DSL.field(DSL.name("users", "email"), String.class);
+        return new GenericJooqUserDao<>(dsl, DSL.table(DSL.name("users")), idField, nameField, emailField);
+    }
+
+    private void fill(UserDao dao, int rows) {
+        dsl.execute("TRUNCATE TABLE users");
+        List<User> users = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            users.add(new User("user" + i, "user" + i + "@example.com"));
+        }
+        dao.saveAll(users);
+    }
+
+    /**
+     * Keeps a weak reference to every 100th user the stream emits and counts how many are
+     * still reachable after a GC, with the stream still open at the end of the table.
+     * A materializing implementation keeps all of them alive.
+     */
+    private static int retainedWhileStreaming(UserDao dao, int rows) {
+        List<WeakReference<User>> samples = new ArrayList<>();
+        long seen = 0;
+        try (Stream<User> users = dao.streamAll(500)) {
+            Iterator<User> it = users.iterator();
+            while (it.hasNext()) {
+                User user = it.next();
+                if (seen++ % 100 == 0) samples.add(new WeakReference<>(user));
+            }
+            assertEquals(rows, seen);
+            for (int i = 0; i < 3; i++) {
+                System.gc();
+            }
+            return (int) samples.stream().filter(ref -> ref.get() != null).count();
+        }
+    }
+}
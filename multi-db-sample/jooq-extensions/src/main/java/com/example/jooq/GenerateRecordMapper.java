@@ -0,0 +1,25 @@
+package com.example.jooq;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Asks {@link RecordMapperProcessor} to generate a reflection-free jOOQ record mapper for
+ * the annotated POJO at build time.
+ *
+ * The class must be top-level with an accessible no-arg constructor. Every non-static,
+ * non-transient field is mapped from the column of the same name, or the JPA
+ * {@code @Column(name)} if present, following the same name matching as jOOQ's
+ * DefaultRecordMapper. The value goes through the field's public setter, or is assigned
+ * directly to a non-final field that is declared in the class's package or is public.
+ * Any other field, e.g. a private one without a setter, is left unmapped with a compiler
+ * warning. Register the mappers with {@link GeneratedRecordMapperProvider}.
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateRecordMapper {
+}
@@ -0,0 +1,55 @@
+package com.example.jooq;
+
+import org.jooq.Configuration;
+import org.jooq.Record;
+import org.jooq.RecordMapper;
+import org.jooq.RecordMapperProvider;
+import org.jooq.RecordType;
+import org.jooq.impl.DefaultRecordMapperProvider;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * {@link RecordMapperProvider} that maps {@code fetchInto(Type.class)} through the mappers
+ * generated for {@link GenerateRecordMapper} types, and hands every other type to the
+ * fallback (by default jOOQ's reflective {@link DefaultRecordMapperProvider}).
+ *
+ * <pre>
+ * DSLContext dsl = ...;
+ * dsl = dsl.configuration().derive(new GeneratedRecordMapperProvider(dsl.configuration())).dsl();
+ * </pre>
+ */
+public class GeneratedRecordMapperProvider implements RecordMapperProvider {
+    private final Map<Class<?>, RecordMapperFactory<?>> factories = new HashMap<>();
+    private final RecordMapperProvider fallback;
+
+    /** Falls back to jOOQ's default mapping, configured like {@code configuration}. */
+    public GeneratedRecordMapperProvider(Configuration configuration) {
+        // That constructor is protected; it is what DSLContext uses for its own default
+        this(new DefaultRecordMapperProvider(configuration) {});
+    }
+
+    public GeneratedRecordMapperProvider(RecordMapperProvider fallback) {
+        this.fallback = fallback;
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader == null) loader = GeneratedRecordMapperProvider.class.getClassLoader();
+        for (RecordMapperFactory<?> factory : ServiceLoader.load(RecordMapperFactory.class, loader)) {
+            factories.put(factory.type(), factory);
+        }
+    }
+
+    /** Whether a generated mapper exists for exactly this type. */
+    public boolean hasGeneratedMapper(Class<?> type) {
+        return factories.containsKey(type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R extends Record, E> RecordMapper<R, E> provide(RecordType<R> recordType, Class<? extends E> type) {
+        RecordMapperFactory<?> factory = factories.get(type);
+        if (factory == null) return fallback.provide(recordType, type);
+        return (RecordMapper<R, E>) factory.create(recordType);
+    }
+}
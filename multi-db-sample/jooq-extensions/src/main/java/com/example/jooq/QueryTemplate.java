@@ -0,0 +1,128 @@
+package com.example.jooq;
+
+import org.jooq.BatchBindStep;
+import org.jooq.DSLContext;
+import org.jooq.DataType;
+import org.jooq.Field;
+import org.jooq.Param;
+import org.jooq.Query;
+import org.jooq.Record;
+import org.jooq.ResultQuery;
+import org.jooq.impl.DSL;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A jOOQ statement rendered to SQL once, executed many times with new bind values.
+ *
+ * Building a query with the DSL and rendering it walks the whole expression tree on every
+ * call. A template does that once, in its constructor, and keeps the SQL string with its
+ * {@code ?} placeholders and their data types. Each execution only wraps the values in
+ * typed params and runs the SQL as a plain SQL query, so execute listeners, exception
+ * translation and type conversion still apply. Templates are immutable and can be shared
+ * between threads.
+ *
+ * The values in the query passed in are placeholders; their order is the bind order:
+ *
+ * <pre>
+ * QueryTemplate update = new QueryTemplate(dsl, dsl.update(USERS)
+ *         .set(NAME, (String) null)
+ *         .where(ID.eq(DSL.val(null, ID))));
+ * update.execute("Alice", 42L);
+ *
+ * BatchBindStep batch = insert.batch();
+ * users.forEach(u -> batch.bind(u.getName(), u.getEmail()));
+ * batch.execute();
+ * </pre>
+ *
+ * Only use it for statements whose SQL does not depend on the values: an {@code IN} list
+ * or a null comparison renders differently for different values. The SQL is rendered for
+ * the constructor's DSLContext, so only execute it through contexts with the same dialect
+ * and settings, e.g. that context's {@code transaction(...)} contexts.
+ */
+public final class QueryTemplate {
+    private final DSLContext dsl;
+    private final String sql;
+    private final DataType<?>[] types;
+    private final Field<?>[] fields;
+
+    public QueryTemplate(DSLContext dsl, Query query) {
+        this.dsl = dsl;
+        this.sql = dsl.render(query);
+        List<DataType<?>> types = new ArrayList<>();
+        for (Param<?> param : dsl.extractParams(query).values()) {
+            if (!param.isInline()) types.add(param.getDataType());
+        }
+        int bindValues = dsl.extractBindValues(query).size();
+        if (types.size() != bindValues) {
+            throw new IllegalArgumentException("Query binds " + bindValues + " values but has " + types.size()
+                    + " distinct params; use unnamed placeholders: " + sql);
+        }
+        this.types = types.toArray(new DataType<?>[0]);
+        // Result rows get the query's own fields when it declares them, not just the JDBC metadata
+        this.fields = query instanceof ResultQuery<?> resultQuery ? resultQuery.fields() : new Field<?>[0];
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public int getParamCount() {
+        return types.length;
+    }
+
+    /** The statement with {@code values} bound, to execute on the template's context. */
+    public Query query(Object... values) {
+        return query(dsl, values);
+    }
+
+    public Query query(DSLContext ctx, Object... values) {
+        return ctx.query(sql, params(values));
+    }
+
+    /** The select with {@code values} bound, to fetch from on the template's context. */
+    public ResultQuery<Record> resultQuery(Object... values) {
+        return resultQuery(dsl, values);
+    }
+
+    public ResultQuery<Record> resultQuery(DSLContext ctx, Object... values) {
+        ResultQuery<Record> query = ctx.resultQuery(sql, params(values));
+        return fields.length > 0 ? query.coerce(fields) : query;
+    }
+
+    public int execute(Object... values) {
+        return query(values).execute();
+    }
+
+    /** The single row the select returns with {@code values} bound, or null. */
+    public Record fetchOne(Object... values) {
+        return resultQuery(values).fetchOne();
+    }
+
+    /** A JDBC batch of this statement on the template's context; call {@code bind} once per row. */
+    public BatchBindStep batch() {
+        return batch(dsl);
+    }
+
+    public BatchBindStep batch(DSLContext ctx) {
+        // The batch binds its rows through these params' types, rendering the SQL once
+        return ctx.batch(ctx.query(sql, params(new Object[types.length])));
+    }
+
+    private Object[] params(Object[] values) {
+        if (values.length != types.length) {
+            throw new IllegalArgumentException("Expected " + types.length + " bind values but got " + values.length + ": " + sql);
+        }
+        Object[] params = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            params[i] = DSL.val(values[i], types[i]);
+        }
+        return params;
+    }
+
+    @Override
+    public String toString() {
+        return sql;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.jooq;
+
+/**
+ * Receives the timing of every statement seen by a {@link SlowQueryListener}, fast or slow,
+ * e.g. to aggregate per SQL string or feed a metrics library. Called on the executing
+ * thread right after the statement, so implementations should be quick and thread-safe.
+ */
+@FunctionalInterface
+public interface QueryTimingRecorder {
+    /**
+     * @param sql     the rendered SQL, with bind placeholders, so equal statements group together
+     * @param nanos   time from execution start until the results were fetched (or the cursor closed)
+     * @param db      the MDC {@code db} value of the executing thread, or null
+     * @param runId   the MDC {@code runId} value of the executing thread, or null
+     */
+    void record(String sql, long nanos, String db, String runId);
+}
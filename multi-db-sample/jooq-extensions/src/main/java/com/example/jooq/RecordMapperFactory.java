@@ -0,0 +1,59 @@
+package com.example.jooq;
+
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.RecordMapper;
+import org.jooq.RecordType;
+
+/**
+ * Creates a {@link RecordMapper} for one POJO type. Implementations are generated by
+ * {@link RecordMapperProcessor} and found through {@link java.util.ServiceLoader}.
+ */
+public interface RecordMapperFactory<E> {
+    Class<E> type();
+
+    /**
+     * A mapper for records of the given shape. Column positions are resolved here, once
+     * per query, so mapping a row is a handful of indexed reads and setter calls.
+     */
+    <R extends Record> RecordMapper<R, E> create(RecordType<R> recordType);
+
+    /**
+     * Position of the column for {@code column}, or -1. Matches the way jOOQ's
+     * DefaultRecordMapper pairs columns with members: the same name ignoring case, or the
+     * column's lower camel case form ({@code USER_NAME} for {@code userName}).
+     */
+    static int indexOf(RecordType<?> recordType, String column) {
+        Field<?>[] fields = recordType.fields();
+        for (int i = 0; i < fields.length; i++) {
+            String name = fields[i].getName();
+            if (name.equalsIgnoreCase(column) || toCamelCaseLC(name).equals(column)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Value at {@code index}, converted through jOOQ only when the column's Java type differs
+     * from the property's (e.g. an INT column mapped onto a Long).
+     */
+    static <T> T value(Record record, int index, Class<T> type) {
+        Object value = record.get(index);
+        if (value == null || type.isInstance(value)) return type.cast(value);
+        return record.get(index, type);
+    }
+
+    private static String toCamelCaseLC(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        boolean upper = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '_') {
+                upper = sb.length() > 0;
+            } else {
+                sb.append(upper ? Character.toUpperCase(c) : Character.toLowerCase(c));
+                upper = false;
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,290 @@
+package com.example.jooq;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Generates a {@link RecordMapperFactory} for every {@link GenerateRecordMapper} class and
+ * lists them in {@code META-INF/services} so {@link GeneratedRecordMapperProvider} finds
+ * them.
+ *
+ * For {@code com.example.entity.User} this writes {@code com.example.entity.UserRecordMapperFactory},
+ * whose mapper calls the setters (or assigns the fields) directly on column positions
+ * resolved once per query, instead of jOOQ's {@code DefaultRecordMapper} reflecting over
+ * the class. Fields it can reach neither way are reported as warnings and left unmapped.
+ */
+@SupportedAnnotationTypes("com.example.jooq.GenerateRecordMapper")
+public class RecordMapperProcessor extends AbstractProcessor {
+    static final String SERVICE_FILE = "META-INF/services/" + RecordMapperFactory.class.getName();
+
+    private final Set<String> factories = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeServiceFile();
+            return false;
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateRecordMapper.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@GenerateRecordMapper only applies to classes");
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            if (!isMappable(type)) continue;
+            try {
+                factories.add(writeFactory(type, properties(type)));
+            } catch (IOException e) {
+                error(type, "Could not write record mapper: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private boolean isMappable(TypeElement type) {
+        if (type.getNestingKind() != NestingKind.TOP_LEVEL) {
+            error(type, "@GenerateRecordMapper classes must be top-level");
+            return false;
+        }
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+            error(type, "@GenerateRecordMapper classes must not be abstract");
+            return false;
+        }
+        boolean hasNoArgConstructor = ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+                .anyMatch(c -> c.getParameters().isEmpty() && !c.getModifiers().contains(Modifier.PRIVATE));
+        if (!hasNoArgConstructor) {
+            error(type, "@GenerateRecordMapper classes need a non-private no-arg constructor");
+            return false;
+        }
+        return true;
+    }
+
+    /** Settable properties of the class and its superclasses, keyed by property name. */
+    private Map<String, Property> properties(TypeElement type) {
+        String packageName = packageOf(type);
+        List<TypeElement> hierarchy = new ArrayList<>();
+        for (TypeElement t = type; t != null; t = superclassOf(t)) {
+            hierarchy.add(0, t);
+        }
+        Map<String, Property> properties = new LinkedHashMap<>();
+        for (TypeElement t : hierarchy) {
+            for (VariableElement field : ElementFilter.fieldsIn(t.getEnclosedElements())) {
+                Set<Modifier> modifiers = field.getModifiers();
+                if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)
+                        || annotation(field, "Transient") != null) {
+                    continue;
+                }
+                String name = field.getSimpleName().toString();
+                String setter = setterFor(type, name, field.asType());
+                if (setter != null) {
+                    properties.put(name, new Property(columnName(field), setter, null, null, field.asType()));
+                } else if (isAssignable(field, packageName)) {
+                    String owner = ((TypeElement) field.getEnclosingElement()).getQualifiedName().toString();
+                    properties.put(name, new Property(columnName(field), null, owner, name, field.asType()));
+                } else {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                            "@GenerateRecordMapper on " + type.getSimpleName() + " leaves field " + name
+                                    + " unmapped: it has no public setter and cannot be assigned directly", field);
+                }
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Whether the generated factory, which lives in {@code packageName}, can assign the field
+     * directly: not final, and either declared in that same package or public in a public class.
+     */
+    private boolean isAssignable(VariableElement field, String packageName) {
+        Set<Modifier> modifiers = field.getModifiers();
+        if (modifiers.contains(Modifier.FINAL) || modifiers.contains(Modifier.PRIVATE)) return false;
+        TypeElement owner = (TypeElement) field.getEnclosingElement();
+        return packageOf(owner).equals(packageName)
+                || (modifiers.contains(Modifier.PUBLIC) && owner.getModifiers().contains(Modifier.PUBLIC));
+    }
+
+    private String packageOf(TypeElement type) {
+        return processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+    }
+
+    private TypeElement superclassOf(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) return null;
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+    }
+
+    /** Name of a public {@code setXxx(T)} on the class or a superclass, or null. */
+    private String setterFor(TypeElement type, String property, TypeMirror propertyType) {
+        String name = "set" + Character.toUpperCase(property.charAt(0)) + property.substring(1);
+        for (TypeElement t = type; t != null; t = superclassOf(t)) {
+            for (ExecutableElement method : ElementFilter.methodsIn(t.getEnclosedElements())) {
+                if (method.getSimpleName().contentEquals(name)
+                        && method.getModifiers().contains(Modifier.PUBLIC)
+                        && !method.getModifiers().contains(Modifier.STATIC)
+                        && method.getParameters().size() == 1
+                        && processingEnv.getTypeUtils().isSameType(
+                                method.getParameters().get(0).asType(), propertyType)) {
+                    return name;
+                }
+            }
+        }
+        return null;
+    }
+
+    /** JPA {@code @Column(name = ...)} when present, otherwise the field name. */
+    private String columnName(VariableElement field) {
+        AnnotationMirror column = annotation(field, "Column");
+        if (column != null) {
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> e
+                    : column.getElementValues().entrySet()) {
+                if (e.getKey().getSimpleName().contentEquals("name")) {
+                    String name = (String) e.getValue().getValue();
+                    if (!name.isEmpty()) return name;
+                }
+            }
+        }
+        return field.getSimpleName().toString();
+    }
+
+    // Matched by simple name so both javax.persistence and jakarta.persistence work without
+    // putting either on the processor path
+    private static AnnotationMirror annotation(Element element, String simpleName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+            String qualified = annotationType.getQualifiedName().toString();
+            if (annotationType.getSimpleName().contentEquals(simpleName)
+                    && (qualified.startsWith("jakarta.persistence.") || qualified.startsWith("javax.persistence."))) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private String writeFactory(TypeElement type, Map<String, Property> properties) throws IOException {
+        String packageName = packageOf(type);
+        String entity = type.getQualifiedName().toString();
+        String simpleName = type.getSimpleName() + "RecordMapperFactory";
+        String factoryName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+
+        StringBuilder src = new StringBuilder();
+        if (!packageName.isEmpty()) src.append("package ").append(packageName).append(";\n\n");
+        src.append("/** Generated by ").append(RecordMapperProcessor.class.getName())
+                .append(" from {@link ").append(entity).append("}. Do not edit. */\n");
+        src.append("@javax.annotation.processing.Generated(\"").append(RecordMapperProcessor.class.getName()).append("\")\n");
+        src.append("public final class ").append(simpleName)
+                .append(" implements com.example.jooq.RecordMapperFactory<").append(entity).append("> {\n");
+        src.append("    @Override\n");
+        src.append("    public Class<").append(entity).append("> type() {\n");
+        src.append("        return ").append(entity).append(".class;\n");
+        src.append("    }\n\n");
+        src.append("    @Override\n");
+        src.append("    public <R extends org.jooq.Record> org.jooq.RecordMapper<R, ").append(entity)
+                .append("> create(org.jooq.RecordType<R> recordType) {\n");
+        int i = 0;
+        for (Property p : properties.values()) {
+            src.append("        final int c").append(i++).append(" = com.example.jooq.RecordMapperFactory.indexOf(recordType, \"")
+                    .append(escape(p.column)).append("\");\n");
+        }
+        src.append("        return record -> {\n");
+        src.append("            ").append(entity).append(" pojo = new ").append(entity).append("();\n");
+        i = 0;
+        for (Property p : properties.values()) {
+            String index = "c" + i++;
+            String boxed = boxedName(p.type);
+            src.append("            if (").append(index).append(" >= 0) {\n");
+            src.append("                ").append(boxed).append(" v = com.example.jooq.RecordMapperFactory.value(record, ")
+                    .append(index).append(", ").append(boxed).append(".class);\n");
+            // Cast to the declaring class so a field hidden by a subclass field is still the one assigned
+            String assign = p.setter != null
+                    ? "pojo." + p.setter + "(v);"
+                    : "((" + p.owner + ") pojo)." + p.field + " = v;";
+            if (p.type.getKind().isPrimitive()) {
+                // Leave the primitive's default in place for SQL NULL, as DefaultRecordMapper does
+                src.append("                if (v != null) ").append(assign).append("\n");
+            } else {
+                src.append("                ").append(assign).append("\n");
+            }
+            src.append("            }\n");
+        }
+        src.append("            return pojo;\n");
+        src.append("        };\n");
+        src.append("    }\n");
+        src.append("}\n");
+
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(factoryName, type);
+        try (Writer writer = file.openWriter()) {
+            writer.write(src.toString());
+        }
+        return factoryName;
+    }
+
+    private String boxedName(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type)
+                    .getQualifiedName().toString();
+        }
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private void writeServiceFile() {
+        if (factories.isEmpty()) return;
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Writer writer = file.openWriter()) {
+                for (String factory : factories) {
+                    writer.write(factory);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Could not write " + SERVICE_FILE + ": " + e.getMessage());
+        }
+    }
+
+    private static String escape(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    /** A mapped field, set through {@code setter}, or assigned directly when that is null. */
+    private record Property(String column, String setter, String owner, String field, TypeMirror type) {
+    }
+}
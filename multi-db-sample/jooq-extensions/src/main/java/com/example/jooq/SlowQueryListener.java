@@ -0,0 +1,145 @@
+package com.example.jooq;
+
+import org.jooq.ExecuteContext;
+import org.jooq.ExecuteListener;
+import org.jooq.ExecuteListenerProvider;
+import org.jooq.Query;
+import org.jooq.tools.JooqLogger;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ExecuteListener} that times every statement from execution start until its results
+ * are fetched, and logs the ones slower than a threshold together with the MDC {@code db}
+ * and {@code runId} of the executing thread.
+ *
+ * For a slow statement it can also log the dialect's EXPLAIN plan, run on the same
+ * configuration (so inside the same transaction) with this listener left out. Each distinct
+ * SQL string is explained once, so a statement that is slow all the time does not double
+ * its load. Statements under the threshold only pay for two {@code nanoTime()} calls and
+ * one context attribute, plus whatever the optional {@link QueryTimingRecorder} does.
+ *
+ * <pre>
+ * configuration.derive(new SlowQueryListener(Duration.ofMillis(200), true)).dsl();
+ * </pre>
+ *
+ * Logs go through jOOQ's logger, i.e. SLF4J when it is on the classpath and
+ * java.util.logging otherwise. The MDC is only read when SLF4J is present.
+ */
+public class SlowQueryListener implements ExecuteListener {
+    /** System property with the threshold in milliseconds, see {@link #fromSystemProperties()}. */
+    public static final String THRESHOLD_PROPERTY = "slowQuery.thresholdMs";
+    /** System property enabling EXPLAIN capture, see {@link #fromSystemProperties()}. */
+    public static final String EXPLAIN_PROPERTY = "slowQuery.explain";
+
+    private static final JooqLogger log = JooqLogger.getLogger(SlowQueryListener.class);
+    private static final String START = SlowQueryListener.class.getName() + ".start";
+    private static final int MAX_EXPLAINED = 1000;
+
+    // Handed out by fromSystemProperties() while the properties stay the same
+    private static SlowQueryListener shared;
+
+    private final long thresholdNanos;
+    private final boolean explain;
+    private final QueryTimingRecorder recorder;
+    private final Set<String> explained = ConcurrentHashMap.newKeySet();
+
+    public SlowQueryListener(Duration threshold) {
+        this(threshold, false, null);
+    }
+
+    public SlowQueryListener(Duration threshold, boolean explain) {
+        this(threshold, explain, null);
+    }
+
+    /** @param recorder receives the timing of every statement; null for none */
+    public SlowQueryListener(Duration threshold, boolean explain, QueryTimingRecorder recorder) {
+        if (threshold.isNegative()) throw new IllegalArgumentException("threshold must not be negative");
+        this.thresholdNanos = threshold.toNanos();
+        this.explain = explain;
+        this.recorder = recorder;
+    }
+
+    /**
+     * Threshold from {@code -DslowQuery.thresholdMs} (default 500) and EXPLAIN capture from
+     * {@code -DslowQuery.explain} (default false). Returns the same instance as long as the
+     * properties do not change, so every DSLContext built with it shares one set of
+     * explained statements and each SQL string is explained once per process.
+     */
+    public static synchronized SlowQueryListener fromSystemProperties() {
+        long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong(THRESHOLD_PROPERTY, 500L));
+        boolean explain = Boolean.getBoolean(EXPLAIN_PROPERTY);
+        if (shared == null || shared.thresholdNanos != thresholdNanos || shared.explain != explain) {
+            shared = new SlowQueryListener(Duration.ofNanos(thresholdNanos), explain);
+        }
+        return shared;
+    }
+
+    @Override
+    public void executeStart(ExecuteContext ctx) {
+        ctx.data(START, System.nanoTime());
+    }
+
+    @Override
+    public void end(ExecuteContext ctx) {
+        Object start = ctx.data(START);
+        // Nothing was executed, e.g. the statement failed while being prepared
+        if (!(start instanceof Long)) return;
+        long nanos = System.nanoTime() - (Long) start;
+        if (recorder == null && nanos < thresholdNanos) return;
+
+        String sql = sql(ctx);
+        String db = Mdc.get("db");
+        String runId = Mdc.get("runId");
+        if (recorder != null) recorder.record(sql, nanos, db, runId);
+        if (nanos < thresholdNanos) return;
+
+        if (log.isWarnEnabled()) {
+            int batch = ctx.batchSQL().length;
+            log.warn("Slow query: " + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms [db=" + db + " runId=" + runId + "] " + sql
+                    + (batch > 1 ? " (first of a batch of " + batch + ")" : ""));
+        }
+        if (explain && ctx.query() != null && sql != null && explained.size() < MAX_EXPLAINED && explained.add(sql)) {
+            logPlan(ctx, ctx.query(), sql);
+        }
+    }
+
+    /** For a batch of distinct statements, the first one; jOOQ renders those with inlined values. */
+    private static String sql(ExecuteContext ctx) {
+        if (ctx.sql() != null) return ctx.sql();
+        String[] batch = ctx.batchSQL();
+        return batch.length > 0 ? batch[0] : null;
+    }
+
+    private static void logPlan(ExecuteContext ctx, Query query, String sql) {
+        try {
+            // Without listeners, so the EXPLAIN itself is neither timed nor explained
+            String plan = ctx.configuration().derive(new ExecuteListenerProvider[0]).dsl().explain(query).plan();
+            log.warn("Plan for slow query " + sql + "\n" + plan);
+        } catch (RuntimeException e) {
+            // Not every dialect supports EXPLAIN through jOOQ, and the query may not be explainable
+            log.debug("Could not explain slow query " + sql, e);
+        }
+    }
+
+    /** Reads the SLF4J MDC without requiring SLF4J on the classpath. */
+    private static final class Mdc {
+        private static final boolean AVAILABLE = isAvailable();
+
+        static String get(String key) {
+            return AVAILABLE ? org.slf4j.MDC.get(key) : null;
+        }
+
+        private static boolean isAvailable() {
+            try {
+                Class.forName("org.slf4j.MDC", false, SlowQueryListener.class.getClassLoader());
+                return true;
+            } catch (ClassNotFoundException | LinkageError e) {
+                return false;
+            }
+        }
+    }
+}
@@ -1,12 +1,28 @@
 package com.example.entity;
 
 import com.example.common.DatabaseConnection;
-import static com.example.entity.generated.tables.User.USER;
+import org.jooq.DSLContext;
 
-import java.sql.SQLException;
+import static com.example.entity.generated.tables.User.USER;
 
 public class MSSQLUserDao extends GenericJooqUserDao<org.jooq.Record, Integer> {
-    public MSSQLUserDao(DatabaseConnection dbConnection) throws SQLException {
+    public MSSQLUserDao(DatabaseConnection dbConnection) {
         super(JooqContext.getDSLContext(dbConnection), USER, USER.ID, USER.NAME, USER.EMAIL);
     }
-}
\ No newline at end of file
+
+    /** SQL Server returns OUTPUT rows in no guaranteed order. */
+    @Override
+    protected boolean insertReturnsIdsInOrder() {
+        return false;
+    }
+
+    @Override
+    protected void withExplicitIds(DSLContext tx, Runnable insert) {
+        tx.execute("SET IDENTITY_INSERT {0} ON", userTable);
+        try {
+            insert.run();
+        } finally {
+            tx.execute("SET IDENTITY_INSERT {0} OFF", userTable);
+        }
+    }
+}
@@ -1,27 +1,42 @@
 package com.example.entity;
 
 import com.example.common.DatabaseFactory;
+import com.example.base.dao.BulkLoader;
 import com.example.base.dao.UserDao;
 import com.example.common.DatabaseConnection;
-import com.example.common.DefaultDatabaseConnection;
+import com.example.common.PooledDatabaseConnection;
 
-import java.sql.SQLException;
+import static com.example.entity.generated.tables.User.USER;
 
 public class MySQLFactory implements DatabaseFactory {
     private DatabaseConnection dbConnection;
 
     @Override
     public UserDao createUserDao() {
-        try {
-            return new MySQLUserDao(dbConnection);
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to create MySQL UserDao", e);
-        }
+        return createUserDao(dbConnection);
     }
 
+    @Override
+    public UserDao createUserDao(DatabaseConnection dbConnection) {
+        return new MySQLUserDao(dbConnection);
+    }
+
+    @Override
+    public BulkLoader createBulkLoader() {
+        return createBulkLoader(dbConnection);
+    }
+
+    @Override
+    public BulkLoader createBulkLoader(DatabaseConnection dbConnection) {
+        // Add rewriteBatchedStatements=true to the URL so Connector/J sends multi-row INSERTs
+        return new BatchBulkLoader(JooqContext.getDSLContext(dbConnection), USER, USER.NAME, USER.EMAIL);
+    }
+
+    /** Replaces, and closes, the pool created by an earlier call; DAOs created from it stop working. */
     @Override
     public DatabaseConnection createDatabaseConnection(String url, String user, String password) {
-        this.dbConnection = new DefaultDatabaseConnection(url, user, password);
+        if (dbConnection != null) dbConnection.close();
+        this.dbConnection = new PooledDatabaseConnection(url, user, password);
         return dbConnection;
     }
 }
\ No newline at end of file
@@ -1,15 +1,22 @@
 package com.example.entity;
 
 import com.example.common.DatabaseConnection;
+import com.example.common.DatabaseConnectionProvider;
+import com.example.jooq.GeneratedRecordMapperProvider;
+import com.example.jooq.SlowQueryListener;
+import org.jooq.Configuration;
 import org.jooq.DSLContext;
 import org.jooq.SQLDialect;
 import org.jooq.impl.DSL;
-import java.sql.Connection;
-import java.sql.SQLException;
 
 public class JooqContext {
-    public static DSLContext getDSLContext(DatabaseConnection dbConnection) throws SQLException {
-        Connection conn = dbConnection.getConnection();
-        return DSL.using(conn, SQLDialect.POSTGRES);
+    public static DSLContext getDSLContext(DatabaseConnection dbConnection) {
+        // 문장/트랜잭션마다 커넥션을 빌려 쓰고 반납하므로 여러 스레드에서 공유 가능
+        // -DslowQuery.thresholdMs(기본 500)보다 느린 문장을 로그로 남김 (SlowQueryListener 참고)
+        Configuration configuration = DSL.using(new DatabaseConnectionProvider(dbConnection), SQLDialect.POSTGRES)
+                .configuration()
+                .derive(SlowQueryListener.fromSystemProperties());
+        // fetchInto(User.class)는 리플렉션 대신 빌드 시 생성된 매퍼를 사용
+        return configuration.derive(new GeneratedRecordMapperProvider(configuration)).dsl();
     }
-}
\ No newline at end of file
+}
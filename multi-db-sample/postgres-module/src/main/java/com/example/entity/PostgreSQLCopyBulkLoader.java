@@ -0,0 +1,92 @@
+package com.example.entity;
+
+import com.example.base.dao.BulkLoader;
+import com.example.base.entity.User;
+import com.example.common.DatabaseConnection;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.SQLDialect;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+
+import static com.example.entity.generated.tables.User.USER;
+
+/**
+ * {@link BulkLoader} that streams rows into {@code COPY ... FROM STDIN (FORMAT csv)} through
+ * pgJDBC's CopyManager. Rows are encoded as they are read from the iterator and sent in
+ * chunks of about {@link #FLUSH_BYTES}; there is no intermediate file or full-size buffer.
+ * COPY is a single statement, so a failed load leaves the table untouched.
+ */
+public class PostgreSQLCopyBulkLoader implements BulkLoader {
+    /** Encoded CSV sent per writeToCopy call. */
+    static final int FLUSH_BYTES = 64 * 1024;
+
+    private final DatabaseConnection dbConnection;
+    private final String copySql;
+
+    public PostgreSQLCopyBulkLoader(DatabaseConnection dbConnection) {
+        this(dbConnection, USER, USER.NAME, USER.EMAIL);
+    }
+
+    public PostgreSQLCopyBulkLoader(DatabaseConnection dbConnection, Table<?> userTable,
+                                    Field<String> nameField, Field<String> emailField) {
+        this.dbConnection = dbConnection;
+        DSLContext renderer = DSL.using(SQLDialect.POSTGRES);
+        this.copySql = "COPY " + renderer.render(userTable)
+                + " (" + renderer.render(nameField.getUnqualifiedName())
+                + ", " + renderer.render(emailField.getUnqualifiedName())
+                + ") FROM STDIN WITH (FORMAT csv)";
+    }
+
+    @Override
+    public long load(Iterator<? extends User> users) {
+        try (Connection connection = dbConnection.getConnection()) {
+            CopyIn copy = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(copySql);
+            try {
+                StringBuilder chunk = new StringBuilder(FLUSH_BYTES + 512);
+                while (users.hasNext()) {
+                    User user = users.next();
+                    appendCsv(chunk, user.getName());
+                    chunk.append(',');
+                    appendCsv(chunk, user.getEmail());
+                    chunk.append('\n');
+                    if (chunk.length() >= FLUSH_BYTES) {
+                        write(copy, chunk);
+                    }
+                }
+                write(copy, chunk);
+                return copy.endCopy();
+            } finally {
+                if (copy.isActive()) copy.cancelCopy();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error bulk loading users", e);
+        }
+    }
+
+    private static void write(CopyIn copy, StringBuilder chunk) throws SQLException {
+        if (chunk.length() == 0) return;
+        byte[] bytes = chunk.toString().getBytes(StandardCharsets.UTF_8);
+        copy.writeToCopy(bytes, 0, bytes.length);
+        chunk.setLength(0);
+    }
+
+    /** Quoted CSV value; null stays an unquoted empty field, which COPY reads as NULL. */
+    static void appendCsv(StringBuilder out, String value) {
+        if (value == null) return;
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') out.append('"');
+            out.append(c);
+        }
+        out.append('"');
+    }
+}
@@ -1,27 +1,39 @@
 package com.example.entity;
 
 import com.example.common.DatabaseFactory;
+import com.example.base.dao.BulkLoader;
 import com.example.base.dao.UserDao;
 import com.example.common.DatabaseConnection;
-import com.example.common.DefaultDatabaseConnection;
-
-import java.sql.SQLException;
+import com.example.common.PooledDatabaseConnection;
 
 public class PostgreSQLFactory implements DatabaseFactory {
     private DatabaseConnection dbConnection;
 
     @Override
     public UserDao createUserDao() {
-        try {
-            return new PostgreSQLUserDao(dbConnection);
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to create PostgreSQL UserDao", e);
-        }
+        return createUserDao(dbConnection);
+    }
+
+    @Override
+    public UserDao createUserDao(DatabaseConnection dbConnection) {
+        return new PostgreSQLUserDao(dbConnection);
+    }
+
+    @Override
+    public BulkLoader createBulkLoader() {
+        return createBulkLoader(dbConnection);
+    }
+
+    @Override
+    public BulkLoader createBulkLoader(DatabaseConnection dbConnection) {
+        return new PostgreSQLCopyBulkLoader(dbConnection);
     }
 
+    /** Replaces, and closes, the pool created by an earlier call; DAOs created from it stop working. */
     @Override
     public DatabaseConnection createDatabaseConnection(String url, String user, String password) {
-        this.dbConnection = new DefaultDatabaseConnection(url, user, password);
+        if (dbConnection != null) dbConnection.close();
+        this.dbConnection = new PooledDatabaseConnection(url, user, password);
         return dbConnection;
     }
 }
\ No newline at end of file